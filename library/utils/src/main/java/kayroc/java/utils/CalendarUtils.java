@@ -81,49 +81,16 @@ public final class CalendarUtils {
             return null;
         }
 
-        int[] lunarInt = new int[4];
-        int index = year - SOLAR[0];
-        int data = (year << 9) | (month << 5) | (day);
-        int solar11;
-        if (SOLAR[index] > data) {
-            index--;
-        }
-        solar11 = SOLAR[index];
-        int y = getBitInt(solar11, 12, 9);
-        int m = getBitInt(solar11, 4, 5);
-        int d = getBitInt(solar11, 5, 0);
-        long offset = solarToInt(year, month, day) - solarToInt(y, m, d);
-
-        int days = LUNAR_MONTH_DAYS[index];
-        int leap = getBitInt(days, 4, 13);
-
-        int lunarY = index + SOLAR[0];
-        int lunarM = 1;
-        int lunarD;
-        offset += 1;
-
-        for (int i = 0; i < 13; i++) {
-            int dm = getBitInt(days, 1, 12 - i) == 1 ? 30 : 29;
-            if (offset > dm) {
-                lunarM++;
-                offset -= dm;
-            } else {
-                break;
-            }
-        }
-        lunarD = (int) (offset);
-        lunarInt[0] = lunarY;
-        lunarInt[1] = lunarM;
-        lunarInt[3] = 0;
-
-        if (leap != 0 && lunarM > leap) {
-            lunarInt[1] = lunarM - 1;
-            if (lunarM == leap + 1) {
-                lunarInt[3] = 1;
-            }
+        int packed = LunarTable.get(year, month, day);
+        if (packed == -1) {
+            return null;
         }
-        lunarInt[2] = lunarD;
-        return lunarInt;
+        return new int[]{
+            unpackLunarYear(packed),
+            unpackLunarMonth(packed),
+            unpackLunarDay(packed),
+            unpackLunarLeap(packed) ? 1 : 0
+        };
     }
 
     /**
@@ -172,6 +139,131 @@ public final class CalendarUtils {
         return solarFromInt(solarToInt(y, m, d) + offset - 1);
     }
 
+    // ==========
+    // = 批量转换 =
+    // ==========
+
+    /**
+     * 公历转农历 ( 返回压缩值 )
+     * <pre>
+     *     首次调用时生成 1900 - 2099 年逐日农历表, 之后查表 O(1) 且不创建对象
+     *     使用 {@link #unpackLunarYear(int)}、{@link #unpackLunarMonth(int)}、
+     *     {@link #unpackLunarDay(int)}、{@link #unpackLunarLeap(int)} 解析
+     * </pre>
+     *
+     * @param year  公历年
+     * @param month 公历月
+     * @param day   公历日
+     *
+     * @return 农历压缩值, 不支持的日期返回 -1
+     */
+    public static int solarToLunarPacked(
+        final int year,
+        final int month,
+        final int day
+    ) {
+        return LunarTable.get(year, month, day);
+    }
+
+    /**
+     * 批量公历转农历 ( 写入调用方数组 )
+     *
+     * @param years  公历年数组
+     * @param months 公历月数组
+     * @param days   公历日数组
+     * @param out    农历压缩值输出数组, 不支持的日期写入 -1
+     */
+    public static void solarToLunar(
+        final int[] years,
+        final int[] months,
+        final int[] days,
+        final int[] out
+    ) {
+        int length = out.length;
+        if (years.length < length || months.length < length || days.length < length) {
+            throw new IllegalArgumentException("Input arrays shorter than output array.");
+        }
+        int[] table = LunarTable.TABLE;
+        for (int i = 0; i < length; i++) {
+            out[i] = LunarTable.get(table, years[i], months[i], days[i]);
+        }
+    }
+
+    /**
+     * 批量公历转农历 ( 连续日期, 用于月历、年历绘制 )
+     *
+     * @param year   起始公历年
+     * @param month  起始公历月
+     * @param day    起始公历日
+     * @param out    农历压缩值输出数组, 超出支持范围的日期写入 -1
+     * @param offset 输出起始位置
+     * @param count  连续天数
+     */
+    public static void solarToLunar(
+        final int year,
+        final int month,
+        final int day,
+        final int[] out,
+        final int offset,
+        final int count
+    ) {
+        if (offset < 0 || count < 0 || offset > out.length - count) {
+            throw new IndexOutOfBoundsException(
+                "offset: " + offset + ", count: " + count + ", length: " + out.length
+            );
+        }
+        int[] table = LunarTable.TABLE;
+        long  start = solarToInt(year, month, day) - LunarTable.START;
+        for (int i = 0; i < count; i++) {
+            long index = start + i;
+            out[offset + i] = (index >= 0 && index < table.length) ? table[(int) index] : -1;
+        }
+    }
+
+    /**
+     * 获取农历压缩值中的农历年
+     *
+     * @param packed 农历压缩值
+     *
+     * @return 农历年
+     */
+    public static int unpackLunarYear(final int packed) {
+        return packed >>> 10;
+    }
+
+    /**
+     * 获取农历压缩值中的农历月
+     *
+     * @param packed 农历压缩值
+     *
+     * @return 农历月
+     */
+    public static int unpackLunarMonth(final int packed) {
+        return (packed >>> 5) & 0xF;
+    }
+
+    /**
+     * 获取农历压缩值中的农历日
+     *
+     * @param packed 农历压缩值
+     *
+     * @return 农历日
+     */
+    public static int unpackLunarDay(final int packed) {
+        return packed & 0x1F;
+    }
+
+    /**
+     * 获取农历压缩值中的是否闰月
+     *
+     * @param packed 农历压缩值
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public static boolean unpackLunarLeap(final int packed) {
+        return (packed & 0x200) != 0;
+    }
+
     // =
 
     /**
@@ -486,7 +578,7 @@ public final class CalendarUtils {
         final int month,
         final int day
     ) {
-        return getFestival(SOLAR_FESTIVAL_LIST, year, month, day);
+        return SOLAR_FESTIVAL_INDEX.get(year, month, day, sFestivalHook);
     }
 
     /**
@@ -503,7 +595,7 @@ public final class CalendarUtils {
         final int month,
         final int day
     ) {
-        return getFestival(LUNAR_FESTIVAL_LIST, year, month, day);
+        return LUNAR_FESTIVAL_INDEX.get(year, month, day, sFestivalHook);
     }
 
     // =======
@@ -704,6 +796,11 @@ public final class CalendarUtils {
         // LUNAR_FESTIVAL_LIST.add(new Festival("除夕", 12, 30, false)); // 除夕得判断是 29 还是 30 需要特殊判断
     }
 
+    /** 部分公历节日索引 */
+    private static final FestivalIndex SOLAR_FESTIVAL_INDEX = new FestivalIndex(SOLAR_FESTIVAL_LIST);
+    /** 部分农历节日索引 */
+    private static final FestivalIndex LUNAR_FESTIVAL_INDEX = new FestivalIndex(LUNAR_FESTIVAL_LIST);
+
     // ==========
     // = 内部方法 =
     // ==========
@@ -744,6 +841,132 @@ public final class CalendarUtils {
         return solar;
     }
 
+    /**
+     * 获取公历月份第 n 个星期日
+     * <pre>
+     *     1583 年起 ( 公历 ) 直接按天数计算星期, 之前年份使用 Calendar
+     * </pre>
+     *
+     * @param year  公历年
+     * @param month 公历月
+     * @param n     第几个星期日
+     *
+     * @return 公历日
+     */
+    private static int getSundayOfMonth(
+        final int year,
+        final int month,
+        final int n
+    ) {
+        int first; // 该月 1 日星期 ( 0 星期日 - 6 星期六 )
+        if (year > 1582) {
+            // solarToInt 以 0000-03-01 ( 星期三 ) 为第 0 天
+            first = (int) ((solarToInt(year, month, 1) + 3) % 7);
+        } else {
+            Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(year, month - 1, 1);
+            first = calendar.get(Calendar.DAY_OF_WEEK) - Calendar.SUNDAY;
+        }
+        return 1 + (7 - first) % 7 + (n - 1) * 7;
+    }
+
+    /**
+     * 逐日农历表 ( 首次使用时生成 )
+     * <pre>
+     *     以 1900-01-01 起的天数为下标, 覆盖 1900 - 2099 年
+     *     压缩值: [10, 21] 农历年、[9] 是否闰月、[5, 8] 农历月、[0, 4] 农历日
+     * </pre>
+     */
+    private static final class LunarTable {
+
+        /** 表起始日 ( 1900-01-01 ) */
+        static final long  START = solarToInt(MIN_SOLAR_YEAR, 1, 1);
+        /** 逐日农历压缩值 */
+        static final int[] TABLE = build();
+
+        /**
+         * 查表
+         *
+         * @param year  公历年
+         * @param month 公历月
+         * @param day   公历日
+         *
+         * @return 农历压缩值, 不支持的日期返回 -1
+         */
+        static int get(
+            final int year,
+            final int month,
+            final int day
+        ) {
+            return get(TABLE, year, month, day);
+        }
+
+        /**
+         * 查表
+         *
+         * @param table 逐日农历表
+         * @param year  公历年
+         * @param month 公历月
+         * @param day   公历日
+         *
+         * @return 农历压缩值, 不支持的日期返回 -1
+         */
+        static int get(
+            final int[] table,
+            final int year,
+            final int month,
+            final int day
+        ) {
+            if (!isSupportSolar(year)) {
+                return -1;
+            }
+            long index = solarToInt(year, month, day) - START;
+            return (index >= 0 && index < table.length) ? table[(int) index] : -1;
+        }
+
+        /**
+         * 生成逐日农历表
+         * <pre>
+         *     从覆盖 1900-01-01 的农历年开始, 按 SOLAR 农历新年日与 LUNAR_MONTH_DAYS 大小月逐月展开
+         * </pre>
+         *
+         * @return 逐日农历表
+         */
+        private static int[] build() {
+            int[] table = new int[(int) (solarToInt(MAX_YEAR + 1, 1, 1) - START)];
+            for (int index = MIN_SOLAR_YEAR - SOLAR[0] - 1; index < SOLAR.length; index++) {
+                int  solar11 = SOLAR[index];
+                long newYear = solarToInt(
+                    getBitInt(solar11, 12, 9), getBitInt(solar11, 4, 5), getBitInt(solar11, 5, 0)
+                ) - START;
+                if (newYear >= table.length) {
+                    break;
+                }
+                int  days      = LUNAR_MONTH_DAYS[index];
+                int  leap      = getBitInt(days, 4, 13);
+                int  lunarYear = index + SOLAR[0];
+                long position  = newYear;
+                for (int i = 0, months = (leap != 0) ? 13 : 12; i < months; i++) {
+                    int     month  = i + 1;
+                    boolean isLeap = false;
+                    if (leap != 0 && month > leap) {
+                        isLeap = month == leap + 1;
+                        month--;
+                    }
+                    int monthDays = getBitInt(days, 1, 12 - i) == 1 ? 30 : 29;
+                    int packed    = (lunarYear << 10) | (isLeap ? 0x200 : 0) | (month << 5);
+                    for (int day = 1; day <= monthDays; day++, position++) {
+                        if (position >= 0 && position < table.length) {
+                            table[(int) position] = packed | day;
+                        }
+                    }
+                }
+            }
+            return table;
+        }
+    }
+
     /**
      * 拆分二十四节气 ( 公历 ) 时间
      *
@@ -1048,53 +1271,134 @@ public final class CalendarUtils {
         }
     }
 
+    // =
+
+    /**
+     * 节日索引
+     *
+     * @author kayroc
+     * <pre>
+     *     按月、日建立索引, 查找 O(1) 替代遍历节日集合
+     *     list 不能混合公历、农历节日, 同一天存在多个节日时返回集合中靠前的节日
+     * </pre>
+     */
+    public static class FestivalIndex {
+
+        /** 节日集合 ( 用于自定义 Hook 时保持逐个判断 ) */
+        private final List<Festival> mFestivals;
+        /** 节日索引 ( month * 32 + day ) */
+        private final Festival[]     mIndex = new Festival[13 * 32];
+        /** 首个节日 ( 默认 Hook 判断使用 ) */
+        private final Festival       mFirst;
+
+        public FestivalIndex(final List<Festival> list) {
+            List<Festival> festivals = new ArrayList<>();
+            if (list != null) {
+                for (Festival festival : list) {
+                    if (festival != null) {
+                        festivals.add(festival);
+                    }
+                }
+            }
+            Festival first = null;
+            for (Festival festival : festivals) {
+                if (first == null) {
+                    first = festival;
+                }
+                int key = getKey(festival.month, festival.day);
+                if (key != -1 && mIndex[key] == null) {
+                    mIndex[key] = festival;
+                }
+            }
+            this.mFestivals = festivals;
+            this.mFirst = first;
+        }
+
+        /**
+         * 获取节日信息 ( 不经过 Hook )
+         *
+         * @param month 月份
+         * @param day   天数
+         *
+         * @return {@link Festival}
+         */
+        public Festival get(
+            final int month,
+            final int day
+        ) {
+            int key = getKey(month, day);
+            return key != -1 ? mIndex[key] : null;
+        }
+
+        /**
+         * 获取符合条件的节日信息
+         * <pre>
+         *     结果与 {@link CalendarUtils#getFestival(List, int, int, int, FestivalHook)} 一致
+         *     默认 Hook 仅与节日类型相关, 只判断一次; 自定义 Hook 逐个判断
+         * </pre>
+         *
+         * @param year         年份
+         * @param month        月份
+         * @param day          天数
+         * @param festivalHook 节日 Hook 接口
+         *
+         * @return {@link Festival}
+         */
+        public Festival get(
+            final int year,
+            final int month,
+            final int day,
+            final FestivalHook festivalHook
+        ) {
+            if (festivalHook == null || mFirst == null) {
+                return get(month, day);
+            }
+            if (festivalHook == DEFAULT_FESTIVAL_HOOK) {
+                Festival hook = festivalHook.hook(mFirst, year, month, day);
+                return hook != null ? hook : get(month, day);
+            }
+            return getFestival(mFestivals, year, month, day, festivalHook);
+        }
+
+        /**
+         * 获取索引位置
+         *
+         * @param month 月份
+         * @param day   天数
+         *
+         * @return 索引位置, 无效月、日返回 -1
+         */
+        private static int getKey(
+            final int month,
+            final int day
+        ) {
+            if (month < 1 || month > 12 || day < 1 || day > 31) {
+                return -1;
+            }
+            return month * 32 + day;
+        }
+    }
+
     // =======
     // = 接口 =
     // =======
 
-    // 节日 Hook 接口
-    private static FestivalHook sFestivalHook = (festival, year, month, day) -> {
+    // 默认节日 Hook 接口
+    private static final FestivalHook DEFAULT_FESTIVAL_HOOK = (festival, year, month, day) -> {
         if (festival != null) {
             if (festival.isSolarFestival) { // 公历节日
-                Calendar calendar;
-                int monthDay; // 该月存在天数
-                int sundays = 0; // 星期天累加次数
                 // 月份判断
                 switch (month) {
                     case 5:
-                        calendar = Calendar.getInstance();
-                        calendar.set(Calendar.YEAR, year);
-                        calendar.set(Calendar.MONTH, month - 1);
-                        monthDay = calendar.getActualMaximum(Calendar.DATE);
-                        for (int i = 1; i <= monthDay; i++) {
-                            calendar.set(Calendar.DATE, i);
-                            if (calendar.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY) {
-                                sundays++;
-                                if (sundays == 2) {
-                                    if (i == day) { // 母亲节每年 5 月的第二个星期日
-                                        return new Festival("母亲节", month, day, true);
-                                    }
-                                    return null;
-                                }
-                            }
+                        // 母亲节每年 5 月的第二个星期日
+                        if (getSundayOfMonth(year, month, 2) == day) {
+                            return new Festival("母亲节", month, day, true);
                         }
                         break;
                     case 6:
-                        calendar = Calendar.getInstance();
-                        calendar.set(Calendar.YEAR, year);
-                        calendar.set(Calendar.MONTH, month - 1);
-                        monthDay = calendar.getActualMaximum(Calendar.DATE);
-                        for (int i = 1; i <= monthDay; i++) {
-                            calendar.set(Calendar.DATE, i);
-                            if (calendar.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY) {
-                                sundays++;
-                                if (sundays == 3) {
-                                    if (i == day) { // 父亲节最广泛的日期在每年 6 月的第三个星期日
-                                        return new Festival("父亲节", month, day, true);
-                                    }
-                                    return null;
-                                }
-                            }
+                        // 父亲节最广泛的日期在每年 6 月的第三个星期日
+                        if (getSundayOfMonth(year, month, 3) == day) {
+                            return new Festival("父亲节", month, day, true);
                         }
                         break;
                 }
@@ -1109,6 +1413,9 @@ public final class CalendarUtils {
         return null;
     };
 
+    // 节日 Hook 接口
+    private static FestivalHook sFestivalHook = DEFAULT_FESTIVAL_HOOK;
+
     /**
      * 节日 Hook 接口
      *
@@ -2,12 +2,17 @@ package kayroc.java.utils;
 
 import android.annotation.SuppressLint;
 
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TimeZone;
 
 import kayroc.android.utils.LogUtils;
 
@@ -58,6 +63,70 @@ public final class DateUtils {
     /** 年与毫秒的倍数 */
     public static final long YEAR = DAY * 365;
 
+    // ==========
+    // = 格式缓存 =
+    // ==========
+
+    /** 线程内 SimpleDateFormat 缓存最大数量 */
+    private static final int FORMAT_CACHE_SIZE = 16;
+    /** 快速格式化支持的最小时间 ( 1600-01-01, 避开儒略历切换 ) */
+    private static final long FAST_MIN_MILLIS = -11676096000000L;
+    /** 快速格式化支持的最大时间 ( 10000-01-01 ) */
+    private static final long FAST_MAX_MILLIS = 253402300800000L;
+
+    /** 线程内格式缓存 */
+    private static final ThreadLocal<FormatCache> FORMAT_CACHE = new ThreadLocal<FormatCache>() {
+        @Override
+        protected FormatCache initialValue() {
+            return new FormatCache();
+        }
+    };
+
+    /**
+     * 获取 SimpleDateFormat ( 克隆线程内缓存实例, 省去解析格式 )
+     * <pre>
+     *     返回独立副本, 修改时区、lenient 等不影响缓存及 formatTime、parseDate 等方法
+     *     SimpleDateFormat 非线程安全, 不可跨线程共享
+     * </pre>
+     *
+     * @param format 日期格式
+     *
+     * @return {@link SimpleDateFormat}
+     */
+    public static SimpleDateFormat getSafeDateFormat(final String format) {
+        return (SimpleDateFormat) getFormatCache().get(format).clone();
+    }
+
+    /**
+     * 将时间戳按内置格式直接写入 char[] ( 不创建 SimpleDateFormat )
+     * <pre>
+     *     支持 {@link #yyyyMMddHHmmss1}、{@link #yyyyMMddHHmmss}、{@link #yyyyMMdd}、{@link #HHmmss}
+     *     使用默认时区, 其他格式、超出 1600 - 9999 年或默认语言非公历、非 ASCII 数字时返回 -1
+     * </pre>
+     *
+     * @param time   时间戳
+     * @param format 日期格式
+     * @param out    输出数组
+     * @param offset 起始位置
+     *
+     * @return 写入字符数, 不支持返回 -1
+     */
+    public static int formatTo(
+        final long time,
+        final String format,
+        final char[] out,
+        final int offset
+    ) {
+        if (format == null || out == null) {
+            return -1;
+        }
+        FormatCache cache = getFormatCache();
+        if (!cache.fastPath) {
+            return -1;
+        }
+        return formatFast(time, format, cache.zone, out, offset);
+    }
+
     /**
      * 获取当前日期的字符串 ( yyyy-MM-dd HH:mm:ss )
      *
@@ -80,7 +149,7 @@ public final class DateUtils {
             return null;
         }
         try {
-            return new SimpleDateFormat(format).format(Calendar.getInstance().getTime());
+            return formatTimeSafe(System.currentTimeMillis(), format);
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
         }
@@ -106,7 +175,7 @@ public final class DateUtils {
             return null;
         }
         try {
-            return new SimpleDateFormat(format).format(time);
+            return formatTimeSafe(time, format);
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
         }
@@ -130,7 +199,7 @@ public final class DateUtils {
             return null;
         }
         try {
-            return new SimpleDateFormat(format).format(date);
+            return formatTimeSafe(date.getTime(), format);
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
         }
@@ -183,7 +252,7 @@ public final class DateUtils {
             return null;
         }
         try {
-            return new SimpleDateFormat(format).parse(time);
+            return parseSafe(time, format);
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
         }
@@ -221,7 +290,7 @@ public final class DateUtils {
         }
         try {
             // 按规定的时间格式, 进行格式化时间, 并且获取 long 时间毫秒, 返回毫秒时间
-            return Objects.requireNonNull(new SimpleDateFormat(format).parse(time)).getTime();
+            return Objects.requireNonNull(parseSafe(time, format)).getTime();
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
         }
@@ -1157,14 +1226,12 @@ public final class DateUtils {
             return false;
         }
         try {
-            // 格式化日期
-            SimpleDateFormat sdf = new SimpleDateFormat(format);
             // 当前时间转换
-            long now = sdf.parse(nowTime).getTime();
+            long now = parseSafe(nowTime, format).getTime();
             // 开始时间转换
-            long start = sdf.parse(startTime).getTime();
+            long start = parseSafe(startTime, format).getTime();
             // 结束时间转换
-            long end = sdf.parse(endTime).getTime();
+            long end = parseSafe(endTime, format).getTime();
             // 判断结束时间是否小于开始时间
             if (end < start) { // 结束属于第二天区域
                 if (now >= start || now <= end) {
@@ -1400,4 +1467,232 @@ public final class DateUtils {
         }
         return CONSTELLATION_DATE[day >= CONSTELLATION_DAY[month - 1] ? month - 1 : (month + 10) % 12];
     }
-}
\ No newline at end of file
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 线程内格式缓存
+     */
+    private static final class FormatCache {
+
+        /** SimpleDateFormat 缓存 ( 最近最少使用淘汰 ) */
+        final Map<String, SimpleDateFormat> formats = new LinkedHashMap<String, SimpleDateFormat>(
+            FORMAT_CACHE_SIZE, 0.75F, true
+        ) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SimpleDateFormat> eldest) {
+                return size() > FORMAT_CACHE_SIZE;
+            }
+        };
+
+        /** 快速格式化输出缓冲 */
+        final char[]   buffer = new char[32];
+        /** 缓存对应的默认时区 */
+        TimeZone       zone;
+        /** 缓存对应的默认语言 */
+        Locale         locale;
+        /** 默认语言是否可走快速格式化 ( 公历、ASCII 数字 ) */
+        boolean        fastPath;
+
+        /**
+         * 获取 SimpleDateFormat ( 不存在则创建 )
+         *
+         * @param format 日期格式
+         *
+         * @return {@link SimpleDateFormat}
+         */
+        @SuppressLint("SimpleDateFormat")
+        SimpleDateFormat get(final String format) {
+            SimpleDateFormat dateFormat = formats.get(format);
+            if (dateFormat == null) {
+                dateFormat = new SimpleDateFormat(format, locale);
+                dateFormat.setTimeZone(zone);
+                formats.put(format, dateFormat);
+            }
+            return dateFormat;
+        }
+    }
+
+    /**
+     * 获取线程内格式缓存 ( 默认时区、语言变化时清空 )
+     *
+     * @return {@link FormatCache}
+     */
+    private static FormatCache getFormatCache() {
+        FormatCache cache  = FORMAT_CACHE.get();
+        TimeZone    zone   = TimeZone.getDefault();
+        Locale      locale = Locale.getDefault();
+        if (!locale.equals(cache.locale)) {
+            cache.formats.clear();
+            cache.locale = locale;
+            // 探测默认语言的日历与数字 ( 如泰语佛历、阿拉伯数字不走快速格式化 )
+            SimpleDateFormat probe = new SimpleDateFormat(yyyyMMddHHmmss, locale);
+            probe.setTimeZone(TimeZone.getTimeZone("GMT"));
+            cache.fastPath = "19700101000000".equals(probe.format(new Date(0L)));
+        }
+        if (!zone.equals(cache.zone)) {
+            cache.formats.clear();
+            cache.zone = zone;
+        }
+        return cache;
+    }
+
+    /**
+     * 格式化时间 ( 内置格式走快速路径, 其他格式使用线程内缓存的 SimpleDateFormat )
+     *
+     * @param time   时间戳
+     * @param format 日期格式
+     *
+     * @return 日期字符串
+     */
+    private static String formatTimeSafe(
+        final long time,
+        final String format
+    ) {
+        FormatCache cache = getFormatCache();
+        if (cache.fastPath) {
+            int length = formatFast(time, format, cache.zone, cache.buffer, 0);
+            if (length >= 0) {
+                return new String(cache.buffer, 0, length);
+            }
+        }
+        return cache.get(format).format(new Date(time));
+    }
+
+    /**
+     * 解析时间 ( 使用线程内缓存的 SimpleDateFormat )
+     * <pre>
+     *     解析可能修改 SimpleDateFormat 的时区, 解析后恢复
+     * </pre>
+     *
+     * @param time   时间
+     * @param format 日期格式
+     *
+     * @return {@link Date}
+     *
+     * @throws ParseException 解析失败
+     */
+    private static Date parseSafe(
+        final String time,
+        final String format
+    )
+        throws ParseException {
+        FormatCache      cache      = getFormatCache();
+        SimpleDateFormat dateFormat = cache.get(format);
+        try {
+            return dateFormat.parse(time);
+        } finally {
+            dateFormat.setTimeZone(cache.zone);
+        }
+    }
+
+    /**
+     * 快速格式化 ( 内置格式 )
+     *
+     * @param time   时间戳
+     * @param format 日期格式
+     * @param zone   时区
+     * @param out    输出数组
+     * @param offset 起始位置
+     *
+     * @return 写入字符数, 不支持返回 -1
+     */
+    private static int formatFast(
+        final long time,
+        final String format,
+        final TimeZone zone,
+        final char[] out,
+        final int offset
+    ) {
+        boolean hasDate;
+        boolean hasTime;
+        boolean separator;
+        if (yyyyMMddHHmmss1.equals(format)) {
+            hasDate = true;
+            hasTime = true;
+            separator = true;
+        } else if (yyyyMMddHHmmss.equals(format)) {
+            hasDate = true;
+            hasTime = true;
+            separator = false;
+        } else if (yyyyMMdd.equals(format)) {
+            hasDate = true;
+            hasTime = false;
+            separator = true;
+        } else if (HHmmss.equals(format)) {
+            hasDate = false;
+            hasTime = true;
+            separator = true;
+        } else {
+            return -1;
+        }
+        long local = time + zone.getOffset(time);
+        if (local < FAST_MIN_MILLIS || local >= FAST_MAX_MILLIS) {
+            return -1;
+        }
+        long days = local / DAY;
+        if (local % DAY < 0) {
+            days--;
+        }
+        int millisOfDay = (int) (local - days * DAY);
+        int pos         = offset;
+        if (hasDate) {
+            // 公历日期换算 ( days from civil 逆运算 )
+            long z    = days + 719468L;
+            long era  = (z >= 0 ? z : z - 146096L) / 146097L;
+            int  doe  = (int) (z - era * 146097L);
+            int  yoe  = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+            int  doy  = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            int  mp   = (5 * doy + 2) / 153;
+            int  day  = doy - (153 * mp + 2) / 5 + 1;
+            int  month = (mp < 10) ? mp + 3 : mp - 9;
+            int  year = (int) (yoe + era * 400L) + ((month <= 2) ? 1 : 0);
+            pos = write2(out, write2(out, pos, year / 100), year % 100);
+            if (separator) {
+                out[pos++] = '-';
+            }
+            pos = write2(out, pos, month);
+            if (separator) {
+                out[pos++] = '-';
+            }
+            pos = write2(out, pos, day);
+            if (hasTime && separator) {
+                out[pos++] = ' ';
+            }
+        }
+        if (hasTime) {
+            int seconds = millisOfDay / 1000;
+            pos = write2(out, pos, seconds / 3600);
+            if (separator) {
+                out[pos++] = ':';
+            }
+            pos = write2(out, pos, seconds / 60 % 60);
+            if (separator) {
+                out[pos++] = ':';
+            }
+            pos = write2(out, pos, seconds % 60);
+        }
+        return pos - offset;
+    }
+
+    /**
+     * 写入两位数字
+     *
+     * @param out   输出数组
+     * @param pos   写入位置
+     * @param value 0 - 99
+     *
+     * @return 写入后位置
+     */
+    private static int write2(
+        final char[] out,
+        final int pos,
+        final int value
+    ) {
+        out[pos] = (char) ('0' + value / 10);
+        out[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+}
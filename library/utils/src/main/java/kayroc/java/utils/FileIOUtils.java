@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.file.FileLineIndex;
 
 /**
  * 文件 ( IO 流 ) 工具类
@@ -711,6 +712,36 @@ public final class FileIOUtils {
         }
     }
 
+    /**
+     * 读取文件内容, 返回换行 List ( 通过行索引直接定位开始行 )
+     * <pre>
+     *     索引可通过 {@link FileLineIndex#loadOrBuild(File, File)} 持久化复用
+     *     索引失效 ( 文件已修改 ) 或字符编码换行符非单字节 ( UTF-16 等 ) 时退回逐行扫描
+     *     仅支持 '\n'、"\r\n" 换行的文件, 仅以 '\r' 换行时行号与逐行扫描不一致
+     * </pre>
+     *
+     * @param index       {@link FileLineIndex}
+     * @param start       开始位置
+     * @param end         结束位置
+     * @param charsetName 字符编码
+     *
+     * @return 换行 {@link List<String>}
+     */
+    public static List<String> readFileToList(
+        final FileLineIndex index,
+        final int start,
+        final int end,
+        final String charsetName
+    ) {
+        if (index == null) {
+            return null;
+        }
+        if (!index.isValid() || !FileLineIndex.isSupportedCharset(charsetName)) {
+            return readFileToList(index.getFile(), start, end, charsetName);
+        }
+        return index.readLines(Math.max(start, 1), end, charsetName);
+    }
+
     // =
 
     /**
@@ -3,6 +3,7 @@ package kayroc.java.utils;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
@@ -12,14 +13,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 
 import kayroc.android.utils.LogUtils;
 import kayroc.java.utils.encrypt.MD5Utils;
+import kayroc.java.utils.file.FileLineIndex;
+import kayroc.java.utils.file.FileTreeCopier;
+import kayroc.java.utils.file.FileTreeWalker;
 
 /**
  * 文件操作工具类
@@ -849,45 +858,24 @@ public final class FileUtils {
 
     /**
      * 获取文件行数 ( 比 readLine 要快很多 )
+     * <pre>
+     *     @see FileLineIndex#countLines(File)
+     * </pre>
      *
      * @param file 文件
      *
      * @return 文件行数
      */
-    @SuppressWarnings("ConstantConditions")
     public static int getFileLines(final File file) {
         if (!isFileExists(file)) {
             return 0;
         }
-        int lineCount = 1;
-        InputStream is = null;
-        try {
-            is = new BufferedInputStream(new FileInputStream(file));
-            byte[] buffer = new byte[1024];
-            int readChars;
-            if (StringUtils.NEW_LINE_STR.endsWith("\n")) {
-                while ((readChars = is.read(buffer, 0, 1024)) != -1) {
-                    for (int i = 0; i < readChars; ++i) {
-                        if (buffer[i] == '\n') {
-                            ++lineCount;
-                        }
-                    }
-                }
-            } else {
-                while ((readChars = is.read(buffer, 0, 1024)) != -1) {
-                    for (int i = 0; i < readChars; ++i) {
-                        if (buffer[i] == '\r') {
-                            ++lineCount;
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-        } finally {
-            CloseUtils.closeIOQuietly(is);
+        // 内存映射分段并行统计, 失败 ( 如目录 ) 与原实现一致返回 1
+        long lineCount = FileLineIndex.countLines(file);
+        if (lineCount < 0L) {
+            return 1;
         }
-        return lineCount;
+        return (int) Math.min(lineCount, Integer.MAX_VALUE);
     }
 
     // =
@@ -971,6 +959,9 @@ public final class FileUtils {
 
     /**
      * 获取目录全部文件大小
+     * <pre>
+     *     按子目录拆分并行统计, 详见 {@link FileTreeWalker}
+     * </pre>
      *
      * @param dir 目录
      *
@@ -980,18 +971,7 @@ public final class FileUtils {
         if (!isDirectory(dir)) {
             return 0L;
         }
-        long len = 0;
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    len += getDirLength(file);
-                } else {
-                    len += file.length();
-                }
-            }
-        }
-        return len;
+        return FileTreeWalker.getLength(dir);
     }
 
     /**
@@ -1447,15 +1427,38 @@ public final class FileUtils {
      *
      * @return 文件内容 byte[]
      */
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public static byte[] readFileBytes(final File file) {
         if (file != null && file.exists()) {
             FileInputStream fis = null;
             try {
                 fis = new FileInputStream(file);
-                int length = fis.available();
-                byte[] buffer = new byte[length];
-                fis.read(buffer);
+                long length = file.length();
+                // 特殊文件 ( 如 /proc ) 长度为 0 或超出数组上限, 则读取至流结束
+                if (length <= 0L || length > Integer.MAX_VALUE - 8) {
+                    return readFileBytes(fis);
+                }
+                byte[] buffer = new byte[(int) length];
+                int offset = 0;
+                int readLen;
+                while (offset < buffer.length
+                    && (readLen = fis.read(buffer, offset, buffer.length - offset)) != -1) {
+                    offset += readLen;
+                }
+                // 读取过程中文件被截断
+                if (offset < buffer.length) {
+                    byte[] result = new byte[offset];
+                    System.arraycopy(buffer, 0, result, 0, offset);
+                    return result;
+                }
+                // 读取过程中文件有追加, 继续读取至流结束
+                int next = fis.read();
+                if (next != -1) {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream(buffer.length + CHUNK_SIZE);
+                    baos.write(buffer, 0, buffer.length);
+                    baos.write(next);
+                    copyStream(fis, baos);
+                    return baos.toByteArray();
+                }
                 return buffer;
             } catch (Exception e) {
                 LogUtils.e(e.getMessage());
@@ -1467,20 +1470,20 @@ public final class FileUtils {
     }
 
     /**
-     * 读取文件
+     * 读取文件 ( 读取至流结束 )
      *
      * @param inputStream {@link InputStream}
      *
      * @return 文件内容 byte[]
      */
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public static byte[] readFileBytes(final InputStream inputStream) {
         if (inputStream != null) {
             try {
-                int length = inputStream.available();
-                byte[] buffer = new byte[length];
-                inputStream.read(buffer);
-                return buffer;
+                ByteArrayOutputStream baos = new ByteArrayOutputStream(
+                    Math.max(inputStream.available(), 32)
+                );
+                copyStream(inputStream, baos);
+                return baos.toByteArray();
             } catch (Exception e) {
                 LogUtils.e(e.getMessage());
             } finally {
@@ -1490,6 +1493,31 @@ public final class FileUtils {
         return null;
     }
 
+    /**
+     * 复制流数据至流结束
+     *
+     * @param inputStream  {@link InputStream}
+     * @param outputStream {@link OutputStream}
+     *
+     * @return 复制字节数
+     *
+     * @throws IOException 读写异常
+     */
+    private static long copyStream(
+        final InputStream inputStream,
+        final OutputStream outputStream
+    )
+        throws IOException {
+        byte[] buffer = new byte[8192];
+        long count = 0L;
+        int readLen;
+        while ((readLen = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, readLen);
+            count += readLen;
+        }
+        return count;
+    }
+
     /**
      * 读取文件
      *
@@ -1567,6 +1595,240 @@ public final class FileUtils {
         return null;
     }
 
+    // ==========
+    // = 流式读取 =
+    // ==========
+
+    /** 默认分块读取大小 ( 64kb ) */
+    public static final int CHUNK_SIZE = 65536;
+    /** 内存映射读取阈值 ( 文件大小大于等于该值时使用内存映射, 默认 16mb ) */
+    public static final long MAP_THRESHOLD = 16777216L;
+    /** 内存映射窗口大小 ( 默认 64mb ) */
+    public static final long MAP_WINDOW_SIZE = 67108864L;
+
+    /**
+     * 分块读取回调
+     *
+     * @author kayroc
+     */
+    public interface OnChunkCallback {
+
+        /**
+         * 分块读取通知
+         * <pre>
+         *     buffer 为复用缓冲区, 仅在回调内有效, 不可持有引用
+         * </pre>
+         *
+         * @param buffer   分块数据 ( position - limit 为有效数据 )
+         * @param position 分块在文件中的起始位置
+         *
+         * @return {@code true} 继续读取, {@code false} 停止读取
+         */
+        boolean onChunk(
+            ByteBuffer buffer,
+            long position
+        );
+    }
+
+    /**
+     * 分块读取文件 ( 大文件自动使用内存映射 )
+     *
+     * @param filePath 文件路径
+     * @param callback 分块读取回调
+     *
+     * @return 读取字节数, 失败返回 -1
+     */
+    public static long readFileChunks(
+        final String filePath,
+        final OnChunkCallback callback
+    ) {
+        return readFileChunks(getFileByPath(filePath), callback);
+    }
+
+    /**
+     * 分块读取文件 ( 大文件自动使用内存映射 )
+     * <pre>
+     *     内存占用与文件大小无关, 小于 {@link #MAP_THRESHOLD} 使用 {@link #CHUNK_SIZE} 直接缓冲区
+     *     大于等于 {@link #MAP_THRESHOLD} 的普通文件按 {@link #MAP_WINDOW_SIZE} 窗口内存映射
+     * </pre>
+     *
+     * @param file     文件
+     * @param callback 分块读取回调
+     *
+     * @return 读取字节数, 失败返回 -1
+     */
+    public static long readFileChunks(
+        final File file,
+        final OnChunkCallback callback
+    ) {
+        if (isFile(file) && file.length() >= MAP_THRESHOLD) {
+            return readFileChunksByMap(file, MAP_WINDOW_SIZE, callback);
+        }
+        return readFileChunks(file, CHUNK_SIZE, callback);
+    }
+
+    /**
+     * 分块读取文件 ( FileChannel + 复用直接缓冲区 )
+     *
+     * @param file      文件
+     * @param chunkSize 分块大小
+     * @param callback  分块读取回调
+     *
+     * @return 读取字节数, 失败返回 -1
+     */
+    public static long readFileChunks(
+        final File file,
+        final int chunkSize,
+        final OnChunkCallback callback
+    ) {
+        if (!isFileExists(file) || chunkSize <= 0 || callback == null) {
+            return -1L;
+        }
+        FileInputStream fis = null;
+        FileChannel channel = null;
+        try {
+            fis = new FileInputStream(file);
+            channel = fis.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize);
+            long position = 0L;
+            int readLen;
+            while ((readLen = channel.read(buffer)) != -1) {
+                // 未读满则继续读取, 保证除最后一块外分块大小一致
+                if (readLen == 0 || buffer.hasRemaining()) {
+                    continue;
+                }
+                buffer.flip();
+                if (!callback.onChunk(buffer, position)) {
+                    return position + chunkSize;
+                }
+                position += chunkSize;
+                buffer.clear();
+            }
+            if (buffer.position() > 0) {
+                buffer.flip();
+                int remaining = buffer.remaining();
+                callback.onChunk(buffer, position);
+                position += remaining;
+            }
+            return position;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(channel, fis);
+        }
+        return -1L;
+    }
+
+    /**
+     * 分块读取文件 ( 内存映射 )
+     * <pre>
+     *     按窗口映射文件, 每个窗口回调一次, 支持超过 2GB 的文件
+     *     映射内存由系统按需分页, 不占用堆内存
+     * </pre>
+     *
+     * @param file       文件
+     * @param windowSize 映射窗口大小
+     * @param callback   分块读取回调
+     *
+     * @return 读取字节数, 失败返回 -1
+     */
+    public static long readFileChunksByMap(
+        final File file,
+        final long windowSize,
+        final OnChunkCallback callback
+    ) {
+        if (!isFile(file) || windowSize <= 0L || callback == null) {
+            return -1L;
+        }
+        RandomAccessFile raf = null;
+        FileChannel channel = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            channel = raf.getChannel();
+            long size = channel.size();
+            long window = Math.min(windowSize, Integer.MAX_VALUE);
+            long position = 0L;
+            while (position < size) {
+                long length = Math.min(window, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if (!callback.onChunk(buffer, position)) {
+                    return position + length;
+                }
+                position += length;
+            }
+            return position;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(channel, raf);
+        }
+        return -1L;
+    }
+
+    /**
+     * 分块读取流 ( 读取结束后关闭流 )
+     *
+     * @param inputStream {@link InputStream}
+     * @param chunkSize   分块大小
+     * @param callback    分块读取回调
+     *
+     * @return 读取字节数, 失败返回 -1
+     */
+    public static long readStreamChunks(
+        final InputStream inputStream,
+        final int chunkSize,
+        final OnChunkCallback callback
+    ) {
+        if (inputStream == null || chunkSize <= 0 || callback == null) {
+            CloseUtils.closeIOQuietly(inputStream);
+            return -1L;
+        }
+        try {
+            byte[] data = new byte[chunkSize];
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long position = 0L;
+            int readLen;
+            while ((readLen = inputStream.read(data, 0, chunkSize)) != -1) {
+                if (readLen == 0) {
+                    continue;
+                }
+                buffer.limit(readLen).position(0);
+                if (!callback.onChunk(buffer, position)) {
+                    return position + readLen;
+                }
+                position += readLen;
+            }
+            return position;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(inputStream);
+        }
+        return -1L;
+    }
+
+    /**
+     * 获取文件读取通道
+     * <pre>
+     *     调用方负责关闭通道
+     * </pre>
+     *
+     * @param file 文件
+     *
+     * @return {@link ReadableByteChannel}
+     */
+    public static ReadableByteChannel getReadableChannel(final File file) {
+        if (!isFileExists(file)) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file).getChannel();
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        }
+        return null;
+    }
+
     // =
 
     /**
@@ -1933,6 +2195,50 @@ public final class FileUtils {
         return !isMove || deleteDir(srcDir);
     }
 
+    /**
+     * 并行复制或移动目录
+     * <pre>
+     *     文件通过线程池并行零拷贝传输, 移动时优先重命名
+     *     与 {@link #copyOrMoveDir(File, File, OnReplaceListener, boolean)} 一致:
+     *     目标目录存在时, 覆盖则先清空目标目录, 不覆盖则直接返回 true
+     *     需合并到已有目录、限速、进度回调等使用 {@link FileTreeCopier}
+     * </pre>
+     *
+     * @param srcDir  源目录
+     * @param destDir 目标目录
+     * @param overlay 如果目标文件存在, 是否覆盖
+     * @param isMove  是否移动
+     *
+     * @return {@code true} 复制或移动成功, {@code false} 复制或移动失败
+     */
+    public static boolean copyOrMoveDirParallel(
+        final File srcDir,
+        final File destDir,
+        final boolean overlay,
+        final boolean isMove
+    ) {
+        if (srcDir == null || destDir == null || !srcDir.isDirectory()) {
+            return false;
+        }
+        // 目标目录不能位于源目录下 ( 校验后才可清空目标目录 )
+        String srcPath  = srcDir.getAbsolutePath() + File.separator;
+        String destPath = destDir.getAbsolutePath() + File.separator;
+        if (destPath.startsWith(srcPath)) {
+            return false;
+        }
+        if (destDir.exists()) {
+            if (overlay) { // 需要覆盖则清空旧目录
+                if (!deleteAllInDir(destDir)) {
+                    return false;
+                }
+            } else { // 不需要覆盖直接返回即可 true
+                return true;
+            }
+        }
+        FileTreeCopier copier = new FileTreeCopier().setOverlay(overlay);
+        return isMove ? copier.move(srcDir, destDir) : copier.copy(srcDir, destDir);
+    }
+
     /**
      * 复制或移动文件
      *
@@ -2440,6 +2746,42 @@ public final class FileUtils {
         return list;
     }
 
+    /**
+     * 并行获取目录下所有过滤的文件 ( 递归进子目录, 不保证顺序 )
+     *
+     * @param dir    目录
+     * @param filter 过滤器 ( 为 null 则全部文件 )
+     *
+     * @return 文件链表
+     */
+    public static List<File> listFilesInDirParallel(
+        final File dir,
+        final FileFilter filter
+    ) {
+        if (!isDirectory(dir)) {
+            return null;
+        }
+        return FileTreeWalker.listFiles(dir, filter);
+    }
+
+    /**
+     * 惰性遍历目录下所有过滤的文件 ( 递归进子目录, 顺序与 listFilesInDirWithFilter 一致 )
+     * <pre>
+     *     按需逐个目录读取, 不构建完整 List
+     * </pre>
+     *
+     * @param dir    目录
+     * @param filter 过滤器 ( 为 null 则全部文件 )
+     *
+     * @return {@link Iterable}
+     */
+    public static Iterable<File> iterateFilesInDir(
+        final File dir,
+        final FileFilter filter
+    ) {
+        return FileTreeWalker.iterate(dir, filter);
+    }
+
     // =
 
     /**
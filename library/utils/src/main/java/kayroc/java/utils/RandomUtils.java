@@ -1,8 +1,10 @@
 package kayroc.java.utils;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.random.RandomGenerator;
 
 /**
  * 随机工具类
@@ -48,6 +50,13 @@ public final class RandomUtils {
         73, 74, 75, 76, 77, 78, 79, 80, 81, 82, 83, 84, 85, 86, 87, 88, 89, 90
     };
 
+    // 内置数据源生成器 ( 复用, 每次取 64 位随机数切分使用 )
+    private static final RandomGenerator NUMBERS_GENERATOR             = RandomGenerator.create(NUMBERS);
+    private static final RandomGenerator LOWER_CASE_LETTERS_GENERATOR  = RandomGenerator.create(LOWER_CASE_LETTERS);
+    private static final RandomGenerator CAPITAL_LETTERS_GENERATOR     = RandomGenerator.create(CAPITAL_LETTERS);
+    private static final RandomGenerator LETTERS_GENERATOR             = RandomGenerator.create(LETTERS);
+    private static final RandomGenerator NUMBERS_AND_LETTERS_GENERATOR = RandomGenerator.create(NUMBERS_AND_LETTERS);
+
     /**
      * 获取伪随机 boolean 值
      *
@@ -56,7 +65,7 @@ public final class RandomUtils {
      * @return 随机 boolean 值
      */
     public static boolean nextBoolean(final Random random) {
-        return random != null ? random.nextBoolean() : new Random().nextBoolean();
+        return random != null ? random.nextBoolean() : ThreadLocalRandom.current().nextBoolean();
     }
 
     /**
@@ -89,7 +98,7 @@ public final class RandomUtils {
      * @return 随机 double 值
      */
     public static double nextDouble(final Random random) {
-        return random != null ? random.nextDouble() : new Random().nextDouble();
+        return random != null ? random.nextDouble() : ThreadLocalRandom.current().nextDouble();
     }
 
     /**
@@ -100,7 +109,7 @@ public final class RandomUtils {
      * @return 伪随机高斯分布值
      */
     public static double nextGaussian(final Random random) {
-        return random != null ? random.nextGaussian() : new Random().nextGaussian();
+        return random != null ? random.nextGaussian() : ThreadLocalRandom.current().nextGaussian();
     }
 
     /**
@@ -111,7 +120,7 @@ public final class RandomUtils {
      * @return 随机 float 值
      */
     public static float nextFloat(final Random random) {
-        return random != null ? random.nextFloat() : new Random().nextFloat();
+        return random != null ? random.nextFloat() : ThreadLocalRandom.current().nextFloat();
     }
 
     /**
@@ -122,7 +131,7 @@ public final class RandomUtils {
      * @return 随机 int 值
      */
     public static int nextInt(final Random random) {
-        return random != null ? random.nextInt() : new Random().nextInt();
+        return random != null ? random.nextInt() : ThreadLocalRandom.current().nextInt();
     }
 
     /**
@@ -140,7 +149,7 @@ public final class RandomUtils {
         if (number <= 0) {
             return 0;
         }
-        return random != null ? random.nextInt(number) : new Random().nextInt(number);
+        return random != null ? random.nextInt(number) : ThreadLocalRandom.current().nextInt(number);
     }
 
     /**
@@ -151,7 +160,7 @@ public final class RandomUtils {
      * @return 随机 long 值
      */
     public static long nextLong(final Random random) {
-        return random != null ? random.nextLong() : new Random().nextLong();
+        return random != null ? random.nextLong() : ThreadLocalRandom.current().nextLong();
     }
 
     // =
@@ -162,7 +171,7 @@ public final class RandomUtils {
      * @return 随机 boolean 值
      */
     public static boolean nextBoolean() {
-        return new Random().nextBoolean();
+        return ThreadLocalRandom.current().nextBoolean();
     }
 
     /**
@@ -177,7 +186,7 @@ public final class RandomUtils {
             return null;
         }
         try {
-            new Random().nextBytes(data);
+            ThreadLocalRandom.current().nextBytes(data);
         } catch (Exception ignored) {
         }
         return data;
@@ -189,7 +198,7 @@ public final class RandomUtils {
      * @return 随机 double 值
      */
     public static double nextDouble() {
-        return new Random().nextDouble();
+        return ThreadLocalRandom.current().nextDouble();
     }
 
     /**
@@ -198,7 +207,7 @@ public final class RandomUtils {
      * @return 伪随机高斯分布值
      */
     public static double nextGaussian() {
-        return new Random().nextGaussian();
+        return ThreadLocalRandom.current().nextGaussian();
     }
 
     /**
@@ -207,7 +216,7 @@ public final class RandomUtils {
      * @return 随机 float 值
      */
     public static float nextFloat() {
-        return new Random().nextFloat();
+        return ThreadLocalRandom.current().nextFloat();
     }
 
     /**
@@ -216,7 +225,7 @@ public final class RandomUtils {
      * @return 随机 int 值
      */
     public static int nextInt() {
-        return new Random().nextInt();
+        return ThreadLocalRandom.current().nextInt();
     }
 
     /**
@@ -230,7 +239,7 @@ public final class RandomUtils {
         if (number <= 0) {
             return 0;
         }
-        return new Random().nextInt(number);
+        return ThreadLocalRandom.current().nextInt(number);
     }
 
     /**
@@ -239,7 +248,7 @@ public final class RandomUtils {
      * @return 随机 long 值
      */
     public static long nextLong() {
-        return new Random().nextLong();
+        return ThreadLocalRandom.current().nextLong();
     }
 
     // =
@@ -252,7 +261,7 @@ public final class RandomUtils {
      * @return 随机字符串
      */
     public static String getRandomNumbers(final int length) {
-        return getRandom(NUMBERS, length);
+        return getRandom(NUMBERS_GENERATOR, length);
     }
 
     /**
@@ -263,7 +272,7 @@ public final class RandomUtils {
      * @return 随机字符串
      */
     public static String getRandomLowerCaseLetters(final int length) {
-        return getRandom(LOWER_CASE_LETTERS, length);
+        return getRandom(LOWER_CASE_LETTERS_GENERATOR, length);
     }
 
     /**
@@ -274,7 +283,7 @@ public final class RandomUtils {
      * @return 随机字符串
      */
     public static String getRandomCapitalLetters(final int length) {
-        return getRandom(CAPITAL_LETTERS, length);
+        return getRandom(CAPITAL_LETTERS_GENERATOR, length);
     }
 
     /**
@@ -285,7 +294,7 @@ public final class RandomUtils {
      * @return 随机字符串
      */
     public static String getRandomLetters(final int length) {
-        return getRandom(LETTERS, length);
+        return getRandom(LETTERS_GENERATOR, length);
     }
 
     /**
@@ -296,7 +305,7 @@ public final class RandomUtils {
      * @return 随机字符串
      */
     public static String getRandomNumbersAndLetters(final int length) {
-        return getRandom(NUMBERS_AND_LETTERS, length);
+        return getRandom(NUMBERS_AND_LETTERS_GENERATOR, length);
     }
 
     /**
@@ -330,12 +339,43 @@ public final class RandomUtils {
         final int length
     ) {
         if (length > 0 && chars != null && chars.length != 0) {
-            StringBuilder builder = new StringBuilder(length);
-            Random random = new Random();
-            for (int i = 0; i < length; i++) {
-                builder.append(chars[random.nextInt(chars.length)]);
-            }
-            return builder.toString();
+            return RandomGenerator.create(chars).nextString(length);
+        }
+        return null;
+    }
+
+    /**
+     * 获取 char[] 内的随机数 ( SecureRandom, 用于 Token 等安全场景 )
+     *
+     * @param chars  随机的数据源
+     * @param length 需要最终长度
+     *
+     * @return 随机字符串
+     */
+    public static String getSecureRandom(
+        final char[] chars,
+        final int length
+    ) {
+        if (length > 0 && chars != null && chars.length != 0) {
+            return RandomGenerator.createSecure(chars).nextString(length);
+        }
+        return null;
+    }
+
+    /**
+     * 获取随机字符生成器内的随机数
+     *
+     * @param generator 随机字符生成器
+     * @param length    需要最终长度
+     *
+     * @return 随机字符串
+     */
+    public static String getRandom(
+        final RandomGenerator generator,
+        final int length
+    ) {
+        if (length > 0 && generator != null) {
+            return generator.nextString(length);
         }
         return null;
     }
@@ -354,7 +394,7 @@ public final class RandomUtils {
     ) {
         if (length > 0 && strings != null && strings.length != 0) {
             StringBuilder builder = new StringBuilder(length);
-            Random random = new Random();
+            Random random = ThreadLocalRandom.current();
             for (int i = 0; i < length; i++) {
                 builder.append(strings[random.nextInt(strings.length)]);
             }
@@ -391,7 +431,7 @@ public final class RandomUtils {
         } else if (min == max) {
             return min;
         }
-        return min + new Random().nextInt(max - min);
+        return min + ThreadLocalRandom.current().nextInt(max - min);
     }
 
     // =
@@ -527,7 +567,7 @@ public final class RandomUtils {
         } else if (origin == bound) {
             return origin;
         }
-        Random random = new Random();
+        Random random = ThreadLocalRandom.current();
         int n = bound - origin;
         if (n > 0) {
             return random.nextInt(n) + origin;
@@ -561,7 +601,7 @@ public final class RandomUtils {
         } else if (origin == bound) {
             return origin;
         }
-        Random random = new Random();
+        Random random = ThreadLocalRandom.current();
         long r = random.nextLong();
         long n = bound - origin, m = n - 1;
         if ((n & m) == 0L) // power of two
@@ -602,7 +642,7 @@ public final class RandomUtils {
         } else if (origin == bound) {
             return origin;
         }
-        double r = new Random().nextDouble();
+        double r = ThreadLocalRandom.current().nextDouble();
         r = r * (bound - origin) + origin;
         if (r >= bound) // correct for rounding
         {
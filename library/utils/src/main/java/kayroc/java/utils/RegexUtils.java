@@ -1,5 +1,10 @@
 package kayroc.java.utils;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import kayroc.android.utils.LogUtils;
@@ -9,6 +14,11 @@ import kayroc.android.utils.LogUtils;
  * 正则工具类
  *
  * @author kayroc
+ * <pre>
+ *     正则表达式编译后缓存复用: REGEX_* 常量及 {@link #register(String)} 注册的正则常驻,
+ *     其他正则按最近最少使用淘汰, 每个线程复用 Matcher
+ *     数字、字母、汉字等简单字符集校验直接遍历字符, 不经过正则
+ * </pre>
  */
 @SuppressWarnings({"unused", "SpellCheckingInspection"})
 public final class RegexUtils {
@@ -70,6 +80,156 @@ public final class RegexUtils {
     /** 正则表达式: 验证汉字 ( 有符号, 纯汉字 ) */
     public static final String REGEX_CHINESE_ALL2 = "[\u0391-\uFFE5]";
 
+    /** 非注册正则缓存最大数量 */
+    private static final int PATTERN_CACHE_SIZE = 64;
+    /** 线程内 Matcher 缓存最大数量 */
+    private static final int MATCHER_CACHE_SIZE = 32;
+
+    /** 常驻正则 ( 不淘汰 ) */
+    private static final ConcurrentMap<String, Pattern> REGISTRY = new ConcurrentHashMap<>();
+
+    /** 非注册正则缓存 ( 最近最少使用淘汰 ) */
+    private static final Map<String, Pattern> PATTERN_CACHE = new LinkedHashMap<String, Pattern>(
+        PATTERN_CACHE_SIZE, 0.75F, true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > PATTERN_CACHE_SIZE;
+        }
+    };
+
+    /** 线程内 Matcher 缓存 */
+    private static final ThreadLocal<Map<Pattern, Matcher>> MATCHER_CACHE = new ThreadLocal<Map<Pattern, Matcher>>() {
+        @Override
+        protected Map<Pattern, Matcher> initialValue() {
+            return new LinkedHashMap<Pattern, Matcher>(MATCHER_CACHE_SIZE, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Pattern, Matcher> eldest) {
+                    return size() > MATCHER_CACHE_SIZE;
+                }
+            };
+        }
+    };
+
+    static {
+        register(REGEX_SPACE);
+        register(REGEX_NUMBER);
+        register(REGEX_NUMBER_OR_DECIMAL);
+        register(REGEX_CONTAIN_NUMBER);
+        register(REGEX_NUMBER_OR_LETTER);
+        register(REGEX_LETTER);
+        register(REGEX_SPECIAL);
+        register(REGEX_WX);
+        register(REGEX_REALNAME);
+        register(REGEX_NICKNAME);
+        register(REGEX_USERNAME);
+        register(REGEX_PASSWORD);
+        register(REGEX_EMAIL);
+        register(REGEX_URL);
+        register(REGEX_IP_ADDRESS);
+        register(REGEX_CHINESE);
+        register(REGEX_CHINESE_ALL);
+        register(REGEX_CHINESE_ALL2);
+    }
+
+    // ==========
+    // = 正则缓存 =
+    // ==========
+
+    /**
+     * 注册常驻正则 ( 编译一次, 不被淘汰 )
+     * <pre>
+     *     用于固定使用的正则常量, 如 ValidPhoneUtils 手机号正则
+     * </pre>
+     *
+     * @param regex 正则表达式
+     *
+     * @return {@link Pattern}
+     */
+    public static Pattern register(final String regex) {
+        Pattern pattern = REGISTRY.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            Pattern previous = REGISTRY.putIfAbsent(regex, pattern);
+            if (previous != null) {
+                pattern = previous;
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * 获取编译后的正则
+     * <pre>
+     *     优先使用常驻正则, 其他正则编译后缓存 ( 最近最少使用淘汰 )
+     * </pre>
+     *
+     * @param regex 正则表达式
+     *
+     * @return {@link Pattern}
+     */
+    public static Pattern getPattern(final String regex) {
+        Pattern pattern = REGISTRY.get(regex);
+        if (pattern != null) {
+            return pattern;
+        }
+        synchronized (PATTERN_CACHE) {
+            pattern = PATTERN_CACHE.get(regex);
+        }
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            synchronized (PATTERN_CACHE) {
+                PATTERN_CACHE.put(regex, pattern);
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * 获取线程内复用的 Matcher
+     * <pre>
+     *     返回的 Matcher 仅限当前线程使用, 同一正则再次调用时会被重置
+     * </pre>
+     *
+     * @param regex 正则表达式
+     * @param input 待匹配的内容
+     *
+     * @return {@link Matcher}
+     */
+    public static Matcher getMatcher(
+        final String regex,
+        final CharSequence input
+    ) {
+        return getMatcher(getPattern(regex), input);
+    }
+
+    /**
+     * 获取线程内复用的 Matcher
+     * <pre>
+     *     返回的 Matcher 仅限当前线程使用, 同一正则再次调用时会被重置
+     * </pre>
+     *
+     * @param pattern {@link Pattern}
+     * @param input   待匹配的内容
+     *
+     * @return {@link Matcher}
+     */
+    public static Matcher getMatcher(
+        final Pattern pattern,
+        final CharSequence input
+    ) {
+        Map<Pattern, Matcher> matchers = MATCHER_CACHE.get();
+        Matcher               matcher  = matchers.get(pattern);
+        if (matcher == null) {
+            matcher = pattern.matcher(input);
+            matchers.put(pattern, matcher);
+            return matcher;
+        }
+        return matcher.reset(input);
+    }
+
+    // =
+
     /**
      * 通用匹配函数
      *
@@ -84,7 +244,11 @@ public final class RegexUtils {
     ) {
         if (!StringUtils.isEmpty(input)) {
             try {
-                return Pattern.matches(regex, input);
+                Matcher matcher = getMatcher(regex, input);
+                boolean result  = matcher.matches();
+                // 释放对输入内容的引用
+                matcher.reset("");
+                return result;
             } catch (Exception e) {
                 LogUtils.e(e.getMessage());
             }
@@ -92,6 +256,28 @@ public final class RegexUtils {
         return false;
     }
 
+    /**
+     * 通用匹配函数
+     *
+     * @param pattern {@link Pattern}
+     * @param input   待校验的字符串
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public static boolean match(
+        final Pattern pattern,
+        final String input
+    ) {
+        if (pattern != null && !StringUtils.isEmpty(input)) {
+            Matcher matcher = getMatcher(pattern, input);
+            boolean result  = matcher.matches();
+            // 释放对输入内容的引用
+            matcher.reset("");
+            return result;
+        }
+        return false;
+    }
+
     // =
 
     /**
@@ -102,7 +288,16 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isNumber(final String str) {
-        return match(REGEX_NUMBER, str);
+        // 等价于 REGEX_NUMBER
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; i++) {
+            if (!isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -113,7 +308,20 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isNumberDecimal(final String str) {
-        return match(REGEX_NUMBER_OR_DECIMAL, str);
+        // 等价于 REGEX_NUMBER_OR_DECIMAL
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        boolean dot = false;
+        for (int i = 0, len = str.length(); i < len; i++) {
+            char c = str.charAt(i);
+            if (c == '.' && !dot) {
+                dot = true;
+            } else if (!isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -124,7 +332,16 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isLetter(final String str) {
-        return match(REGEX_LETTER, str);
+        // 等价于 REGEX_LETTER
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; i++) {
+            if (!isLetter(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -135,7 +352,21 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isContainNumber(final String str) {
-        return match(REGEX_CONTAIN_NUMBER, str);
+        // 等价于 REGEX_CONTAIN_NUMBER ( . 不匹配换行符, 包含换行符时不成立 )
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        boolean digit = false;
+        for (int i = 0, len = str.length(); i < len; i++) {
+            char c = str.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if (isDigit(c)) {
+                digit = true;
+            }
+        }
+        return digit;
     }
 
     /**
@@ -146,7 +377,17 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isNumberLetter(final String str) {
-        return match(REGEX_NUMBER_OR_LETTER, str);
+        // 等价于 REGEX_NUMBER_OR_LETTER
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; i++) {
+            char c = str.charAt(i);
+            if (!isDigit(c) && !isLetter(c)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -157,7 +398,17 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isSpec(final String str) {
-        return match(REGEX_SPECIAL, str);
+        // 等价于 REGEX_SPECIAL
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; i++) {
+            char c = str.charAt(i);
+            if (!isDigit(c) && !isLetter(c) && !isChinese(c)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -260,7 +511,16 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isChinese(final String str) {
-        return match(REGEX_CHINESE, str);
+        // 等价于 REGEX_CHINESE
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; i++) {
+            if (!isChinese(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -271,7 +531,18 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isChineseAll(final String str) {
-        return match(REGEX_CHINESE_ALL, str);
+        // 等价于 REGEX_CHINESE_ALL ( 按码点判断, 成对代理字符超出范围 )
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; ) {
+            int codePoint = str.codePointAt(i);
+            if (!isChineseAll(codePoint)) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return true;
     }
 
     /**
@@ -282,22 +553,74 @@ public final class RegexUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isContainChinese(final String str) {
-        if (!StringUtils.isEmpty(str)) {
-            try {
-                int length = str.length();
-                if (length != 0) {
-                    char[] dChar = str.toCharArray();
-                    for (int i = 0; i < length; i++) {
-                        boolean flag = String.valueOf(dChar[i]).matches(REGEX_CHINESE_ALL2);
-                        if (flag) {
-                            return true;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                LogUtils.e(e.getMessage());
+        // 逐个字符判断是否匹配 REGEX_CHINESE_ALL2
+        if (StringUtils.isEmpty(str)) {
+            return false;
+        }
+        for (int i = 0, len = str.length(); i < len; i++) {
+            if (isChineseAll(str.charAt(i))) {
+                return true;
             }
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 是否数字 ( 0 - 9 )
+     *
+     * @param c 字符
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * 是否字母 ( A - Z、a - z )
+     *
+     * @param c 字符
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isLetter(final char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /**
+     * 是否汉字 ( \u4E00 - \u9FA5 )
+     *
+     * @param c 字符
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isChinese(final char c) {
+        return c >= '\u4E00' && c <= '\u9FA5';
+    }
+
+    /**
+     * 是否汉字、中文字符标点等 ( \u0391 - \uFFE5 )
+     *
+     * @param codePoint 码点
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isChineseAll(final int codePoint) {
+        return codePoint >= 0x0391 && codePoint <= 0xFFE5;
+    }
+
+    /**
+     * 是否正则 . 不匹配的换行符
+     *
+     * @param c 字符
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -1,12 +1,13 @@
 package kayroc.java.utils.assist.record;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
 
-import kayroc.java.utils.ConvertUtils;
-import kayroc.java.utils.DateUtils;
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
 import kayroc.java.utils.FileUtils;
 import kayroc.java.utils.StringUtils;
-import kayroc.java.utils.ThrowableUtils;
 
 /**
  * 文件记录分析工具类
@@ -44,12 +45,16 @@ public final class FileRecordUtils {
 
     /** 成功常量字符串 */
     private static final String RECORD_SUCCESS = "record successful";
+    /** 异步入队成功常量字符串 */
+    private static final String RECORD_QUEUED  = "record queued";
     /** 是否处理记录 */
     private static boolean sHandler = true;
     /** 日志记录插入信息 */
     private static RecordInsert sRecordInsert = null;
     /** 文件记录回调 */
     private static Callback sCallback = null;
+    /** 日志异步写入 ( 为 null 则同步写入 ) */
+    private static volatile RecordWriter sWriter = null;
 
     // ==========
     // = 接口回调 =
@@ -86,71 +91,6 @@ public final class FileRecordUtils {
     // = 内部方法 =
     // ==========
 
-    /**
-     * 拼接插入日志
-     *
-     * @param recordInsert 日志记录插入信息
-     * @param logContent   日志内容
-     *
-     * @return 最终日志信息
-     */
-    private static String concatInsertLog(
-        final RecordInsert recordInsert,
-        final String logContent
-    ) {
-        if (recordInsert == null) {
-            return logContent;
-        }
-        StringBuilder builder = new StringBuilder();
-        // 追加头部信息
-        if (StringUtils.isNotEmpty(recordInsert.getLogHeader())) {
-            builder.append(recordInsert.getLogHeader());
-        }
-        // 加入日志内容
-        builder.append(logContent);
-        // 追加尾部信息
-        if (StringUtils.isNotEmpty(recordInsert.getLogTail())) {
-            builder.append(recordInsert.getLogTail());
-        }
-        return builder.toString();
-    }
-
-    /**
-     * 拼接日志
-     *
-     * @param logs 日志内容数组
-     *
-     * @return 拼接后的日志内容
-     */
-    private static String concatLog(final Object... logs) {
-        if (logs == null || logs.length == 0) {
-            return null;
-        }
-        StringBuilder builder = new StringBuilder()
-            // 增加换行
-            .append(StringUtils.NEW_LINE_STR_X2)
-            // 获取保存时间
-            .append(DateUtils.getDateNow())
-            // 追加边距、换行
-            .append(" =>");
-        // 循环追加内容
-        for (int i = 0, len = logs.length; i < len; i++) {
-            // 追加存储内容
-            builder.append(StringUtils.NEW_LINE_STR_X2)
-                .append("logs[").append(i).append("]: ")
-                .append(StringUtils.NEW_LINE_STR);
-
-            Object object = logs[i];
-            if (object instanceof Throwable) {
-                String errorLog = ThrowableUtils.getThrowableStackTrace((Throwable) object);
-                builder.append(errorLog);
-            } else {
-                builder.append(ConvertUtils.toString(object));
-            }
-        }
-        return builder.toString();
-    }
-
     /**
      * 最终记录方法
      *
@@ -191,13 +131,34 @@ public final class FileRecordUtils {
 
         // 日志记录插入信息
         RecordInsert recordInsert = config.getRecordInsert(sRecordInsert);
-        // 日志内容
-        String logContent = concatLog(logs);
-        // 拼接最终内容
-        String finalLogContent = concatInsertLog(recordInsert, logContent);
+        // 拼接最终内容 ( 线程内复用 )
+        StringBuilder builder = RecordEncoder.concat(recordInsert, logs);
+        // 仅设置回调时才生成字符串
+        Callback callback = sCallback;
+        String finalLogContent = (callback != null) ? builder.toString() : null;
+        // 编码到池化缓冲区
+        ByteBuffer content = RecordEncoder.encode(builder);
+
+        // 异步写入 ( 写入结果在写入线程中回调 )
+        RecordWriter writer = sWriter;
+        if (writer != null) {
+            String fileInfo = (recordInsert != null) ? recordInsert.getFileInfo() : null;
+            boolean queued = writer.offer(
+                new RecordWriter.Record(config, filePath, fileName, fileInfo, finalLogContent, content, logs)
+            );
+            if (!queued) {
+                RecordEncoder.release(content);
+            }
+            return queued ? RECORD_QUEUED : "record dropped";
+        }
 
         // 获取存储文件
         File file = FileUtils.getFile(filePath, fileName);
+        // 满足滚动条件则先滚动 ( 仅重命名, 压缩在后台执行 )
+        RecordRollingPolicy rollingPolicy = config.getRollingPolicy();
+        if (rollingPolicy != null) {
+            rollingPolicy.rollIfNeeded(file, content.remaining());
+        }
         // 文件不存在则进行追加文件信息
         if (!FileUtils.isFileExists(file)) {
             if (recordInsert != null) {
@@ -209,14 +170,41 @@ public final class FileRecordUtils {
             }
         }
         // 追加日志内容
-        boolean result = FileUtils.appendFile(file, StringUtils.getBytes(finalLogContent));
+        boolean result = appendFile(file, content);
+        RecordEncoder.release(content);
 
-        if (sCallback != null) {
-            sCallback.callback(result, config, filePath, fileName, finalLogContent, logs);
+        if (callback != null) {
+            callback.callback(result, config, filePath, fileName, finalLogContent, logs);
         }
         return result ? RECORD_SUCCESS : "record failed";
     }
 
+    /**
+     * 追加日志内容
+     *
+     * @param file    文件
+     * @param content 已编码日志内容
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    private static boolean appendFile(
+        final File file,
+        final ByteBuffer content
+    ) {
+        FileOutputStream fos = null;
+        try {
+            FileUtils.createFolder(FileUtils.getDirName(file));
+            fos = new FileOutputStream(file, true);
+            fos.write(content.array(), content.position(), content.remaining());
+            return true;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(fos);
+        }
+        return false;
+    }
+
     // =============
     // = 对外公开方法 =
     // =============
@@ -233,7 +221,7 @@ public final class FileRecordUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean isSuccessful(final String value) {
-        return RECORD_SUCCESS.equals(value);
+        return RECORD_SUCCESS.equals(value) || RECORD_QUEUED.equals(value);
     }
 
     /**
@@ -281,6 +269,62 @@ public final class FileRecordUtils {
         FileRecordUtils.sCallback = callback;
     }
 
+    /**
+     * 获取日志异步写入
+     *
+     * @return {@link RecordWriter}
+     */
+    public static RecordWriter getAsyncWriter() {
+        return sWriter;
+    }
+
+    /**
+     * 设置日志异步写入
+     * <pre>
+     *     设置后 record 仅入队并返回 "record queued", 由写入线程批量写入, {@link Callback} 在写入线程中触发
+     *     传入 null 则恢复同步写入 ( 原写入器会写入剩余日志后关闭 )
+     * </pre>
+     *
+     * @param writer {@link RecordWriter}
+     */
+    @SuppressWarnings("Convert2Lambda")
+    public static void setAsyncWriter(final RecordWriter writer) {
+        if (writer != null) {
+            writer.setOnWriteListener(new RecordWriter.OnWriteListener() {
+                @Override
+                public void onWrite(
+                    boolean result,
+                    RecordWriter.Record record
+                ) {
+                    Callback callback = sCallback;
+                    if (callback != null) {
+                        callback.callback(
+                            result, record.config, record.filePath,
+                            record.fileName, record.getLogContent(), record.logs
+                        );
+                    }
+                }
+            });
+        }
+        RecordWriter old = sWriter;
+        sWriter = writer;
+        if (old != null && old != writer) {
+            old.shutdown(3000L);
+        }
+    }
+
+    /**
+     * 等待异步日志全部写入
+     *
+     * @param timeoutMillis 最长等待时间 ( 毫秒 )
+     *
+     * @return {@code true} 已全部写入 ( 或未开启异步写入 ), {@code false} 超时
+     */
+    public static boolean flush(final long timeoutMillis) {
+        RecordWriter writer = sWriter;
+        return writer == null || writer.flush(timeoutMillis);
+    }
+
     // ==========
     // = 快捷方法 =
     // ==========
@@ -315,11 +359,8 @@ public final class FileRecordUtils {
         final RecordInsert recordInsert,
         final Object... logs
     ) {
-        String logContent = concatLog(logs);
-        if (StringUtils.isEmpty(logContent)) {
-            return null;
-        }
-        return concatInsertLog(recordInsert, logContent);
+        StringBuilder builder = RecordEncoder.concat(recordInsert, logs);
+        return (builder != null) ? builder.toString() : null;
     }
 
     // =
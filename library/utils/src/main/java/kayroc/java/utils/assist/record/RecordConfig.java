@@ -27,6 +27,10 @@ public final class RecordConfig {
     private boolean mHandler;
     /** 日志记录插入信息 */
     private RecordInsert mRecordInsert;
+    /** 日志文件滚动策略 */
+    private RecordRollingPolicy mRollingPolicy;
+    /** 文件地址缓存 ( 按秒, 文件夹最小时间单位为秒 ) */
+    private volatile PathCache mPathCache;
 
     // =======
     // = 枚举 =
@@ -216,6 +220,27 @@ public final class RecordConfig {
         return this;
     }
 
+    /**
+     * 获取日志文件滚动策略
+     *
+     * @return 日志文件滚动策略
+     */
+    public RecordRollingPolicy getRollingPolicy() {
+        return mRollingPolicy;
+    }
+
+    /**
+     * 设置日志文件滚动策略
+     *
+     * @param rollingPolicy 日志文件滚动策略 ( 为 null 则不滚动, 文件持续追加 )
+     *
+     * @return {@link RecordConfig}
+     */
+    public RecordConfig setRollingPolicy(final RecordRollingPolicy rollingPolicy) {
+        this.mRollingPolicy = rollingPolicy;
+        return this;
+    }
+
     // =
 
     /**
@@ -224,16 +249,41 @@ public final class RecordConfig {
      * @return 文件地址
      */
     public String getFinalPath() {
+        // 同一秒内文件夹不变, 直接使用缓存 ( 避免每条日志格式化时间、创建文件夹 )
+        long      second = System.currentTimeMillis() / 1000L;
+        PathCache cache  = mPathCache;
+        if (cache != null && cache.second == second) {
+            return cache.path;
+        }
         File file = FileUtils.getFile(mStoragePath, getIntervalTimeFolder());
         // 创建文件夹
         FileUtils.createFolder(file);
-        return FileUtils.getAbsolutePath(file);
+        String path = FileUtils.getAbsolutePath(file);
+        mPathCache = new PathCache(second, path);
+        return path;
     }
 
     // =============
     // = 内部处理方法 =
     // =============
 
+    /**
+     * 文件地址缓存
+     */
+    private static final class PathCache {
+
+        final long   second;
+        final String path;
+
+        PathCache(
+            final long second,
+            final String path
+        ) {
+            this.second = second;
+            this.path = path;
+        }
+    }
+
     /**
      * 获取时间间隔所属的文件夹
      *
@@ -0,0 +1,258 @@
+package kayroc.java.utils.assist.record;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import kayroc.java.utils.ConvertUtils;
+import kayroc.java.utils.DateUtils;
+import kayroc.java.utils.StringUtils;
+import kayroc.java.utils.ThrowableUtils;
+
+/**
+ * 日志内容编码
+ *
+ * @author kayroc
+ * <pre>
+ *     每个线程复用一个 StringBuilder 拼接日志, 时间字符串按秒缓存 ( 每秒仅格式化一次 )
+ *     拼接结果直接以 UTF-8 编码写入池化 ByteBuffer, 写入完成后归还, 稳定状态下每条日志几乎不产生新对象
+ * </pre>
+ */
+final class RecordEncoder {
+
+    /** 缓冲池大小 */
+    private static final int POOL_SIZE        = 64;
+    /** 池化 ByteBuffer 最大容量 ( 超出不归还, 避免长期占用内存 ) */
+    private static final int MAX_POOLED       = 64 * 1024;
+    /** 线程内 StringBuilder 最大保留容量 */
+    private static final int MAX_BUILDER      = 64 * 1024;
+    /** 初始容量 */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /** ByteBuffer 缓冲池 */
+    private static final AtomicReferenceArray<ByteBuffer> POOL = new AtomicReferenceArray<>(POOL_SIZE);
+
+    /** 线程内编码器 */
+    private static final ThreadLocal<RecordEncoder> LOCAL = new ThreadLocal<RecordEncoder>() {
+        @Override
+        protected RecordEncoder initialValue() {
+            return new RecordEncoder();
+        }
+    };
+
+    /** 时间缓存 ( 按秒 ) */
+    private static volatile Stamp sStamp = new Stamp(-1L, null);
+
+    /** 拼接复用 */
+    private StringBuilder mBuilder = new StringBuilder(INITIAL_CAPACITY);
+
+    private RecordEncoder() {
+    }
+
+    /**
+     * 时间缓存
+     */
+    private static final class Stamp {
+
+        final long   second;
+        final String text;
+
+        Stamp(
+            final long second,
+            final String text
+        ) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 拼接日志 ( 返回线程内复用的 StringBuilder, 需在下次拼接前使用完毕 )
+     *
+     * @param recordInsert 日志记录插入信息
+     * @param logs         日志内容数组
+     *
+     * @return 拼接后的日志内容, 无日志内容返回 null
+     */
+    static StringBuilder concat(
+        final RecordInsert recordInsert,
+        final Object... logs
+    ) {
+        if (logs == null || logs.length == 0) {
+            return null;
+        }
+        RecordEncoder encoder = LOCAL.get();
+        StringBuilder builder = encoder.mBuilder;
+        if (builder.capacity() > MAX_BUILDER) {
+            builder = encoder.mBuilder = new StringBuilder(INITIAL_CAPACITY);
+        }
+        builder.setLength(0);
+        // 追加头部信息
+        if (recordInsert != null && StringUtils.isNotEmpty(recordInsert.getLogHeader())) {
+            builder.append(recordInsert.getLogHeader());
+        }
+        // 增加换行、保存时间、边距
+        builder.append(StringUtils.NEW_LINE_STR_X2)
+            .append(getTimestamp(System.currentTimeMillis()))
+            .append(" =>");
+        // 循环追加内容
+        for (int i = 0, len = logs.length; i < len; i++) {
+            builder.append(StringUtils.NEW_LINE_STR_X2)
+                .append("logs[").append(i).append("]: ")
+                .append(StringUtils.NEW_LINE_STR);
+
+            Object object = logs[i];
+            if (object instanceof Throwable) {
+                builder.append(ThrowableUtils.getThrowableStackTrace((Throwable) object));
+            } else if (object instanceof CharSequence) {
+                builder.append((CharSequence) object);
+            } else {
+                builder.append(ConvertUtils.toString(object));
+            }
+        }
+        // 追加尾部信息
+        if (recordInsert != null && StringUtils.isNotEmpty(recordInsert.getLogTail())) {
+            builder.append(recordInsert.getLogTail());
+        }
+        return builder;
+    }
+
+    /**
+     * 以 UTF-8 编码写入池化 ByteBuffer
+     * <pre>
+     *     使用完毕需调用 {@link #release(ByteBuffer)} 归还
+     * </pre>
+     *
+     * @param content 内容
+     *
+     * @return 已 flip 的 ByteBuffer ( 可直接读取 / 写入 Channel )
+     */
+    static ByteBuffer encode(final CharSequence content) {
+        ByteBuffer buffer = acquire(utf8Length(content));
+        byte[]     array  = buffer.array();
+        int        pos    = 0;
+        for (int i = 0, len = content.length(); i < len; i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                array[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                array[pos++] = (byte) (0xC0 | (c >> 6));
+                array[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len
+                && Character.isLowSurrogate(content.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, content.charAt(++i));
+                array[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                array[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                array[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                array[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对代理字符, 与 String.getBytes 一致替换为 '?'
+                array[pos++] = (byte) '?';
+            } else {
+                array[pos++] = (byte) (0xE0 | (c >> 12));
+                array[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                array[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buffer.limit(pos);
+        return buffer;
+    }
+
+    /**
+     * 归还 ByteBuffer
+     *
+     * @param buffer {@link ByteBuffer}
+     */
+    static void release(final ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() > MAX_POOLED) {
+            return;
+        }
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (POOL.get(i) == null && POOL.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取当前时间字符串 ( 与 DateUtils.getDateNow() 格式一致, 按秒缓存 )
+     *
+     * @param millis 时间戳
+     *
+     * @return 时间字符串
+     */
+    static String getTimestamp(final long millis) {
+        long  second = millis / 1000L;
+        Stamp stamp  = sStamp;
+        if (stamp.second != second) {
+            stamp = new Stamp(second, DateUtils.formatTime(second * 1000L, DateUtils.yyyyMMddHHmmss));
+            sStamp = stamp;
+        }
+        return stamp.text;
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 获取 ByteBuffer ( 优先复用缓冲池 )
+     *
+     * @param capacity 最小容量
+     *
+     * @return 已清空的 ByteBuffer
+     */
+    private static ByteBuffer acquire(final int capacity) {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (POOL.get(i) != null) {
+                ByteBuffer buffer = POOL.getAndSet(i, null);
+                if (buffer == null) {
+                    continue;
+                }
+                if (buffer.capacity() >= capacity) {
+                    buffer.clear();
+                    return buffer;
+                }
+                // 容量不足则放回
+                POOL.compareAndSet(i, null, buffer);
+            }
+        }
+        // 按 2 的幂分配, 便于后续复用
+        int size = Math.max(capacity, INITIAL_CAPACITY);
+        if (size <= MAX_POOLED) {
+            size = Integer.highestOneBit(size - 1) << 1;
+        }
+        return ByteBuffer.allocate(size);
+    }
+
+    /**
+     * 计算 UTF-8 编码长度
+     *
+     * @param content 内容
+     *
+     * @return UTF-8 编码字节数
+     */
+    private static int utf8Length(final CharSequence content) {
+        int length = 0;
+        for (int i = 0, len = content.length(); i < len; i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len
+                && Character.isLowSurrogate(content.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,378 @@
+package kayroc.java.utils.assist.record;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
+import kayroc.java.utils.DateUtils;
+import kayroc.java.utils.ZipUtils;
+import kayroc.java.utils.thread.NamedThreadFactory;
+
+/**
+ * 日志文件滚动策略
+ *
+ * @author kayroc
+ * <pre>
+ *     写入前判断当前文件是否超过最大大小或跨越时间窗口, 满足则重命名为 log_record_yyyyMMdd_HHmmss_SSS.txt
+ *     重命名为 O(1) 操作, 压缩 ( GZIP / ZIP ) 与超出保留数量的历史文件清理在后台线程执行, 不阻塞 record
+ *     时间窗口按本地时间对齐 ( 如 1 小时窗口在整点滚动 ), 保留数量按所在文件夹统计
+ *     <p></p>
+ *     RecordConfig.get(storagePath, "Main_Module", RecordConfig.TIME.DEFAULT)
+ *         .setRollingPolicy(new RecordRollingPolicy().setMaxFileSize(10 * 1024 * 1024).setMaxHistory(7));
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class RecordRollingPolicy {
+
+    /** 滚动文件名时间格式 */
+    private static final String ROLL_FORMAT = "yyyyMMdd_HHmmss_SSS";
+
+    /** 后台压缩、清理线程 ( 单线程, 空闲自动退出 ) */
+    private static final ThreadPoolExecutor sExecutor;
+
+    static {
+        sExecutor = new ThreadPoolExecutor(
+            1, 1, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            new NamedThreadFactory("RecordRolling", true, Thread.MIN_PRIORITY)
+        );
+        sExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 滚动文件压缩方式
+     *
+     * @author kayroc
+     */
+    public enum Compress {
+
+        // 不压缩
+        NONE,
+
+        // GZIP ( .gz )
+        GZIP,
+
+        // ZIP ( .zip, 使用 ZipUtils )
+        ZIP
+    }
+
+    /** 单文件最大大小 ( 字节, 小于等于 0 不限制 ) */
+    private volatile long     mMaxFileSize  = 0L;
+    /** 时间窗口 ( 毫秒, 小于等于 0 不限制 ) */
+    private volatile long     mRollInterval = 0L;
+    /** 保留滚动文件数 ( 小于等于 0 不限制 ) */
+    private volatile int      mMaxHistory   = 0;
+    /** 滚动文件压缩方式 */
+    private volatile Compress mCompress     = Compress.GZIP;
+
+    // ==========
+    // = 配置参数 =
+    // ==========
+
+    /**
+     * 设置单文件最大大小
+     *
+     * @param maxFileSize 单文件最大大小 ( 字节, 小于等于 0 不限制 )
+     *
+     * @return {@link RecordRollingPolicy}
+     */
+    public RecordRollingPolicy setMaxFileSize(final long maxFileSize) {
+        this.mMaxFileSize = maxFileSize;
+        return this;
+    }
+
+    /**
+     * 设置时间窗口
+     *
+     * @param interval 时间窗口
+     * @param unit     时间单位
+     *
+     * @return {@link RecordRollingPolicy}
+     */
+    public RecordRollingPolicy setRollInterval(
+        final long interval,
+        final TimeUnit unit
+    ) {
+        this.mRollInterval = (unit != null) ? unit.toMillis(interval) : 0L;
+        return this;
+    }
+
+    /**
+     * 设置保留滚动文件数
+     *
+     * @param maxHistory 保留滚动文件数 ( 小于等于 0 不限制 )
+     *
+     * @return {@link RecordRollingPolicy}
+     */
+    public RecordRollingPolicy setMaxHistory(final int maxHistory) {
+        this.mMaxHistory = maxHistory;
+        return this;
+    }
+
+    /**
+     * 设置滚动文件压缩方式
+     *
+     * @param compress {@link Compress}
+     *
+     * @return {@link RecordRollingPolicy}
+     */
+    public RecordRollingPolicy setCompress(final Compress compress) {
+        this.mCompress = (compress != null) ? compress : Compress.NONE;
+        return this;
+    }
+
+    /**
+     * 获取单文件最大大小
+     *
+     * @return 单文件最大大小 ( 字节 )
+     */
+    public long getMaxFileSize() {
+        return mMaxFileSize;
+    }
+
+    /**
+     * 获取时间窗口
+     *
+     * @return 时间窗口 ( 毫秒 )
+     */
+    public long getRollInterval() {
+        return mRollInterval;
+    }
+
+    /**
+     * 获取保留滚动文件数
+     *
+     * @return 保留滚动文件数
+     */
+    public int getMaxHistory() {
+        return mMaxHistory;
+    }
+
+    /**
+     * 获取滚动文件压缩方式
+     *
+     * @return {@link Compress}
+     */
+    public Compress getCompress() {
+        return mCompress;
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 判断是否需要滚动
+     *
+     * @param file     日志文件
+     * @param length   文件当前大小
+     * @param incoming 即将写入字节数
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean shouldRoll(
+        final File file,
+        final long length,
+        final long incoming
+    ) {
+        if (length <= 0L) {
+            return false;
+        }
+        long maxFileSize = mMaxFileSize;
+        if (maxFileSize > 0L && length + incoming > maxFileSize) {
+            return true;
+        }
+        long interval = mRollInterval;
+        if (interval > 0L) {
+            long now = System.currentTimeMillis();
+            return windowOf(file.lastModified(), interval) != windowOf(now, interval);
+        }
+        return false;
+    }
+
+    /**
+     * 满足条件则滚动日志文件
+     *
+     * @param file     日志文件
+     * @param incoming 即将写入字节数
+     *
+     * @return 滚动后的文件, 未滚动返回 null
+     */
+    public synchronized File rollIfNeeded(
+        final File file,
+        final long incoming
+    ) {
+        if (file == null || !shouldRoll(file, file.length(), incoming)) {
+            return null;
+        }
+        return roll(file);
+    }
+
+    /**
+     * 滚动日志文件 ( 重命名后在后台压缩、清理 )
+     *
+     * @param file 日志文件
+     *
+     * @return 滚动后的文件, 失败返回 null
+     */
+    @SuppressWarnings("Convert2Lambda")
+    public synchronized File roll(final File file) {
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        File     parent = file.getParentFile();
+        String[] names = splitName(file.getName());
+        String   time   = DateUtils.formatTime(System.currentTimeMillis(), ROLL_FORMAT);
+        File     dest   = new File(parent, names[0] + "_" + time + names[1]);
+        for (int i = 1; dest.exists(); i++) {
+            dest = new File(parent, names[0] + "_" + time + "_" + i + names[1]);
+        }
+        if (!file.renameTo(dest)) {
+            return null;
+        }
+        final File     rolled   = dest;
+        final Compress compress = mCompress;
+        final int      history  = mMaxHistory;
+        final String   prefix   = names[0] + "_";
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                compress(rolled, compress);
+                cleanHistory(rolled.getParentFile(), prefix, history);
+            }
+        });
+        return dest;
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 获取时间所属窗口 ( 按本地时区对齐 )
+     *
+     * @param time     时间戳
+     * @param interval 时间窗口
+     *
+     * @return 窗口序号
+     */
+    private static long windowOf(
+        final long time,
+        final long interval
+    ) {
+        return (time + TimeZone.getDefault().getOffset(time)) / interval;
+    }
+
+    /**
+     * 拆分文件名
+     *
+     * @param name 文件名
+     *
+     * @return [ 文件名, 后缀 ( 含 . ) ]
+     */
+    private static String[] splitName(final String name) {
+        int index = name.lastIndexOf('.');
+        if (index <= 0) {
+            return new String[]{name, ""};
+        }
+        return new String[]{name.substring(0, index), name.substring(index)};
+    }
+
+    /**
+     * 压缩滚动文件 ( 压缩成功后删除源文件 )
+     *
+     * @param file     滚动文件
+     * @param compress 压缩方式
+     */
+    private static void compress(
+        final File file,
+        final Compress compress
+    ) {
+        if (compress == Compress.NONE) {
+            return;
+        }
+        boolean result = false;
+        if (compress == Compress.ZIP) {
+            File zip = new File(file.getParentFile(), file.getName() + ".zip");
+            try {
+                result = ZipUtils.zipFile(file, zip);
+            } catch (Exception e) {
+                LogUtils.e(e.getMessage());
+            }
+            if (!result) {
+                zip.delete();
+            }
+        } else {
+            File         gzip = new File(file.getParentFile(), file.getName() + ".gz");
+            InputStream  is   = null;
+            OutputStream os   = null;
+            try {
+                is = new FileInputStream(file);
+                os = new GZIPOutputStream(new FileOutputStream(gzip), 64 * 1024);
+                byte[] buffer = new byte[64 * 1024];
+                int    len;
+                while ((len = is.read(buffer)) != -1) {
+                    os.write(buffer, 0, len);
+                }
+                os.close();
+                os = null;
+                result = true;
+            } catch (Exception e) {
+                LogUtils.e(e.getMessage());
+            } finally {
+                CloseUtils.closeIOQuietly(is, os);
+            }
+            if (!result) {
+                gzip.delete();
+            }
+        }
+        if (result) {
+            file.delete();
+        }
+    }
+
+    /**
+     * 清理超出保留数量的滚动文件 ( 文件名含时间, 按名称排序删除最早的 )
+     *
+     * @param dir     文件夹
+     * @param prefix  滚动文件名前缀
+     * @param history 保留数量
+     */
+    private static void cleanHistory(
+        final File dir,
+        final String prefix,
+        final int history
+    ) {
+        if (history <= 0 || dir == null) {
+            return;
+        }
+        String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+        List<String> rolled = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith(prefix)) {
+                rolled.add(name);
+            }
+        }
+        if (rolled.size() <= history) {
+            return;
+        }
+        Collections.sort(rolled);
+        for (int i = 0, len = rolled.size() - history; i < len; i++) {
+            new File(dir, rolled.get(i)).delete();
+        }
+    }
+}
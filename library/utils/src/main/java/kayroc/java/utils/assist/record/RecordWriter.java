@@ -0,0 +1,677 @@
+package kayroc.java.utils.assist.record;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
+import kayroc.java.utils.FileUtils;
+import kayroc.java.utils.StringUtils;
+
+/**
+ * 日志异步写入
+ *
+ * @author kayroc
+ * <pre>
+ *     记录线程仅将日志放入有界无锁环形队列, 由单独的写入线程批量写入文件
+ *     同一批次中相同路径的日志通过同一个 FileChannel 一次写入 ( 组提交 ), FileChannel 缓存复用
+ *     配置了 {@link RecordRollingPolicy} 时在写入线程中滚动文件, 不阻塞 record
+ *     队列已满时按 {@link OverflowPolicy} 处理
+ *     <p></p>
+ *     FileRecordUtils.setAsyncWriter(new RecordWriter(8192).setOverflowPolicy(RecordWriter.OverflowPolicy.DROP));
+ *     退出前调用 {@link #shutdown(long)} 写入剩余日志 ( 默认同时注册 JVM 退出钩子 )
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class RecordWriter {
+
+    /** UTF-8 编码 */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** 默认队列容量 */
+    public static final  int  DEFAULT_CAPACITY = 8192;
+    /** 单批次最大日志数 */
+    private static final int  MAX_BATCH        = 512;
+    /** 最大缓存 FileChannel 数 */
+    private static final int  MAX_CHANNELS     = 16;
+    /** 空闲等待时间 ( 纳秒 ) */
+    private static final long IDLE_PARK_NANOS  = TimeUnit.MILLISECONDS.toNanos(100L);
+    /** 空闲后关闭 FileChannel 时间 ( 纳秒 ) */
+    private static final long IDLE_CLOSE_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+    /**
+     * 队列已满处理策略
+     *
+     * @author kayroc
+     */
+    public enum OverflowPolicy {
+
+        // 阻塞等待, 不丢失日志
+        BLOCK,
+
+        // 直接丢弃
+        DROP,
+
+        // 采样, 每 sampleRate 条保留 1 条 ( 阻塞等待 ), 其余丢弃
+        SAMPLE
+    }
+
+    /** 环形队列 */
+    private final    RingBuffer       mBuffer;
+    /** 写入线程 */
+    private final    Thread           mThread;
+    /** JVM 退出钩子 ( 注册失败为 null ) */
+    private final    Thread           mShutdownHook;
+    /** 已写入序号 ( 与入队序号对应, 用于 flush ) */
+    private final    AtomicLong       mWritten     = new AtomicLong();
+    /** 入队数 */
+    private final    AtomicLong       mEnqueued    = new AtomicLong();
+    /** 丢弃数 */
+    private final    AtomicLong       mDropped     = new AtomicLong();
+    /** 溢出次数 ( 采样计数 ) */
+    private final    AtomicLong       mOverflows   = new AtomicLong();
+    /** 写入失败数 */
+    private final    AtomicLong       mFailed      = new AtomicLong();
+    /** 入队中的线程数 ( 关闭时等待其完成入队后再写入剩余日志 ) */
+    private final    AtomicInteger    mProducers   = new AtomicInteger();
+    /** 队列已满处理策略 */
+    private volatile OverflowPolicy   mPolicy      = OverflowPolicy.BLOCK;
+    /** 采样率 */
+    private volatile int              mSampleRate  = 10;
+    /** 写入线程是否等待中 */
+    private volatile boolean          mParked;
+    /** 是否已关闭 */
+    private volatile boolean          mShutdown;
+    /** 写入结果回调 */
+    private volatile OnWriteListener  mListener;
+    /** FileChannel 缓存 ( 仅写入线程访问 ) */
+    private final    Map<String, FileChannel> mChannels = new LinkedHashMap<String, FileChannel>(
+        MAX_CHANNELS, 0.75F, true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FileChannel> eldest) {
+            if (size() > MAX_CHANNELS) {
+                CloseUtils.closeIOQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * 构造函数
+     */
+    public RecordWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 队列容量 ( 向上取 2 的幂 )
+     */
+    @SuppressWarnings("Convert2Lambda")
+    public RecordWriter(final int capacity) {
+        this.mBuffer = new RingBuffer(capacity);
+        this.mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, "RecordWriter");
+        this.mThread.setDaemon(true);
+        this.mThread.start();
+        Thread hook = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                shutdown(TimeUnit.SECONDS.toMillis(3L));
+            }
+        }, "RecordWriterShutdown");
+        try {
+            Runtime.getRuntime().addShutdownHook(hook);
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            hook = null;
+        }
+        this.mShutdownHook = hook;
+    }
+
+    /**
+     * 写入结果回调
+     *
+     * @author kayroc
+     */
+    public interface OnWriteListener {
+
+        /**
+         * 写入结果 ( 在写入线程中触发 )
+         *
+         * @param result 是否写入成功
+         * @param record 日志
+         */
+        void onWrite(
+            boolean result,
+            Record record
+        );
+    }
+
+    /**
+     * 日志
+     *
+     * @author kayroc
+     */
+    public static final class Record {
+
+        /** 日志记录配置信息 */
+        public final RecordConfig config;
+        /** 存储路径 */
+        public final String       filePath;
+        /** 文件名 ( 含后缀 ) */
+        public final String       fileName;
+        /** 文件信息 ( 新文件时写入顶部 ) */
+        public final String       fileInfo;
+        /** 日志信息 */
+        public final String       logContent;
+        /** 原始日志内容数组 */
+        public final Object[]     logs;
+        /** 已编码日志内容 ( 池化, 写入后归还 ) */
+        final        ByteBuffer   content;
+
+        public Record(
+            RecordConfig config,
+            String filePath,
+            String fileName,
+            String fileInfo,
+            String logContent,
+            Object[] logs
+        ) {
+            this(config, filePath, fileName, fileInfo, logContent, null, logs);
+        }
+
+        Record(
+            RecordConfig config,
+            String filePath,
+            String fileName,
+            String fileInfo,
+            String logContent,
+            ByteBuffer content,
+            Object[] logs
+        ) {
+            this.config = config;
+            this.filePath = filePath;
+            this.fileName = fileName;
+            this.fileInfo = fileInfo;
+            this.logContent = logContent;
+            this.content = content;
+            this.logs = logs;
+        }
+
+        /**
+         * 获取日志信息 ( 仅传入已编码内容时按需解码 )
+         *
+         * @return 日志信息
+         */
+        public String getLogContent() {
+            if (logContent != null || content == null) {
+                return logContent;
+            }
+            return new String(content.array(), 0, content.limit(), UTF_8);
+        }
+    }
+
+    // ==========
+    // = 配置参数 =
+    // ==========
+
+    /**
+     * 设置队列已满处理策略
+     *
+     * @param policy {@link OverflowPolicy}
+     *
+     * @return {@link RecordWriter}
+     */
+    public RecordWriter setOverflowPolicy(final OverflowPolicy policy) {
+        if (policy != null) {
+            this.mPolicy = policy;
+        }
+        return this;
+    }
+
+    /**
+     * 设置采样率 ( {@link OverflowPolicy#SAMPLE} 时每 sampleRate 条保留 1 条 )
+     *
+     * @param sampleRate 采样率
+     *
+     * @return {@link RecordWriter}
+     */
+    public RecordWriter setSampleRate(final int sampleRate) {
+        this.mSampleRate = Math.max(sampleRate, 1);
+        return this;
+    }
+
+    /**
+     * 设置写入结果回调
+     *
+     * @param listener 写入结果回调
+     *
+     * @return {@link RecordWriter}
+     */
+    public RecordWriter setOnWriteListener(final OnWriteListener listener) {
+        this.mListener = listener;
+        return this;
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 日志入队
+     *
+     * @param record 日志
+     *
+     * @return {@code true} 入队成功, {@code false} 已关闭或被丢弃
+     */
+    public boolean offer(final Record record) {
+        if (record == null) {
+            return false;
+        }
+        // 先登记再检查 mShutdown, 写入线程等待登记数归零后才做最后一次写入
+        mProducers.incrementAndGet();
+        try {
+            return enqueue(record);
+        } finally {
+            mProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * 日志入队 ( 已登记入队线程 )
+     *
+     * @param record 日志
+     *
+     * @return {@code true} 入队成功, {@code false} 已关闭或被丢弃
+     */
+    private boolean enqueue(final Record record) {
+        if (mShutdown) {
+            return false;
+        }
+        if (!mBuffer.offer(record)) {
+            OverflowPolicy policy = mPolicy;
+            boolean block = policy == OverflowPolicy.BLOCK
+                || (policy == OverflowPolicy.SAMPLE && mOverflows.getAndIncrement() % mSampleRate == 0);
+            if (!block) {
+                mDropped.incrementAndGet();
+                return false;
+            }
+            // 阻塞等待写入线程腾出空间
+            while (!mBuffer.offer(record)) {
+                if (mShutdown) {
+                    mDropped.incrementAndGet();
+                    return false;
+                }
+                LockSupport.unpark(mThread);
+                LockSupport.parkNanos(50000L);
+            }
+        }
+        mEnqueued.incrementAndGet();
+        if (mParked) {
+            LockSupport.unpark(mThread);
+        }
+        return true;
+    }
+
+    /**
+     * 等待已入队日志全部写入
+     *
+     * @param timeoutMillis 最长等待时间 ( 毫秒 )
+     *
+     * @return {@code true} 已全部写入, {@code false} 超时
+     */
+    public boolean flush(final long timeoutMillis) {
+        long target   = mEnqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (mWritten.get() < target) {
+            if (System.nanoTime() - deadline > 0L || !mThread.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(mThread);
+            LockSupport.parkNanos(100000L);
+        }
+        return true;
+    }
+
+    /**
+     * 关闭 ( 拒绝新日志, 写入剩余日志后关闭文件 )
+     *
+     * @param timeoutMillis 最长等待时间 ( 毫秒 )
+     *
+     * @return {@code true} 剩余日志已全部写入, {@code false} 超时
+     */
+    public boolean shutdown(final long timeoutMillis) {
+        mShutdown = true;
+        // 移除退出钩子, 避免频繁创建 RecordWriter 时钩子 ( 及其引用的实例 ) 持续累积
+        if (mShutdownHook != null && Thread.currentThread() != mShutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(mShutdownHook);
+            } catch (IllegalStateException ignore) {
+                // JVM 正在退出
+            }
+        }
+        LockSupport.unpark(mThread);
+        try {
+            mThread.join(Math.max(timeoutMillis, 1L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !mThread.isAlive();
+    }
+
+    /**
+     * 是否已关闭
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isShutdown() {
+        return mShutdown;
+    }
+
+    /**
+     * 获取队列中日志数
+     *
+     * @return 队列中日志数
+     */
+    public int getPendingCount() {
+        return (int) Math.max(mEnqueued.get() - mWritten.get(), 0L);
+    }
+
+    /**
+     * 获取丢弃日志数
+     *
+     * @return 丢弃日志数
+     */
+    public long getDroppedCount() {
+        return mDropped.get();
+    }
+
+    /**
+     * 获取写入失败日志数
+     *
+     * @return 写入失败日志数
+     */
+    public long getFailedCount() {
+        return mFailed.get();
+    }
+
+    // ==========
+    // = 写入处理 =
+    // ==========
+
+    /**
+     * 写入线程循环
+     */
+    private void loop() {
+        List<Record> batch    = new ArrayList<>(MAX_BATCH);
+        long         idleFrom = System.nanoTime();
+        while (true) {
+            Record record;
+            while (batch.size() < MAX_BATCH && (record = mBuffer.poll()) != null) {
+                batch.add(record);
+            }
+            if (!batch.isEmpty()) {
+                writeAndClear(batch);
+                idleFrom = System.nanoTime();
+                continue;
+            }
+            if (mShutdown) {
+                break;
+            }
+            // 空闲一段时间后关闭文件, 避免长期占用句柄 ( 按时间分文件夹时路径会变化 )
+            if (!mChannels.isEmpty() && System.nanoTime() - idleFrom > IDLE_CLOSE_NANOS) {
+                closeChannels();
+            }
+            mParked = true;
+            if (mBuffer.isEmpty() && !mShutdown) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            mParked = false;
+        }
+        // 写入剩余日志, 直到已通过 mShutdown 检查的 offer 全部完成入队
+        while (true) {
+            // 先读取登记数: 为 0 时之前的入队均已完成, 之后的 offer 必然看到 mShutdown
+            boolean idle = mProducers.get() == 0;
+            Record  record;
+            while ((record = mBuffer.poll()) != null) {
+                batch.add(record);
+                if (batch.size() >= MAX_BATCH) {
+                    writeAndClear(batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeAndClear(batch);
+            }
+            if (idle) {
+                break;
+            }
+            LockSupport.parkNanos(50000L);
+        }
+        closeChannels();
+    }
+
+    /**
+     * 写入日志批次并清空
+     *
+     * @param batch 日志批次
+     */
+    private void writeAndClear(final List<Record> batch) {
+        writeBatch(batch);
+        mWritten.addAndGet(batch.size());
+        batch.clear();
+    }
+
+    /**
+     * 批量写入 ( 按路径分组, 同一路径一次写入 )
+     *
+     * @param batch 日志批次
+     */
+    private void writeBatch(final List<Record> batch) {
+        Map<String, List<Record>> groups = new LinkedHashMap<>();
+        for (Record record : batch) {
+            String       key   = record.filePath + File.separator + record.fileName;
+            List<Record> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+            }
+            group.add(record);
+        }
+        for (Map.Entry<String, List<Record>> entry : groups.entrySet()) {
+            List<Record> group  = entry.getValue();
+            boolean      result = writeGroup(entry.getKey(), group);
+            if (!result) {
+                mFailed.addAndGet(group.size());
+            }
+            OnWriteListener listener = mListener;
+            for (Record record : group) {
+                if (listener != null) {
+                    try {
+                        listener.onWrite(result, record);
+                    } catch (Exception e) {
+                        LogUtils.e(e.getMessage());
+                    }
+                }
+                RecordEncoder.release(record.content);
+            }
+        }
+    }
+
+    /**
+     * 写入同一路径日志
+     *
+     * @param path  文件路径
+     * @param group 日志
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    private boolean writeGroup(
+        final String path,
+        final List<Record> group
+    ) {
+        try {
+            ByteBuffer[] buffers = new ByteBuffer[group.size()];
+            long         total   = 0L;
+            for (int i = 0, len = buffers.length; i < len; i++) {
+                Record record = group.get(i);
+                buffers[i] = (record.content != null)
+                    ? record.content : ByteBuffer.wrap(StringUtils.getBytes(record.logContent));
+                total += buffers[i].remaining();
+            }
+            FileChannel channel = mChannels.get(path);
+            if (channel != null && !channel.isOpen()) {
+                mChannels.remove(path);
+                channel = null;
+            }
+            // 满足滚动条件则关闭当前文件并滚动 ( 压缩在后台执行 )
+            RecordRollingPolicy rollingPolicy = group.get(0).config.getRollingPolicy();
+            if (rollingPolicy != null) {
+                File file = new File(path);
+                if (channel == null) {
+                    rollingPolicy.rollIfNeeded(file, total);
+                } else if (rollingPolicy.shouldRoll(file, channel.size(), total)) {
+                    CloseUtils.closeIOQuietly(mChannels.remove(path));
+                    channel = null;
+                    rollingPolicy.roll(file);
+                }
+            }
+            if (channel == null) {
+                channel = openChannel(path, group.get(0));
+                mChannels.put(path, channel);
+            }
+            long written = 0L;
+            while (written < total) {
+                written += channel.write(buffers);
+            }
+            return true;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            CloseUtils.closeIOQuietly(mChannels.remove(path));
+            return false;
+        }
+    }
+
+    /**
+     * 打开文件 ( 追加模式, 新文件写入文件信息 )
+     *
+     * @param path   文件路径
+     * @param record 日志
+     *
+     * @return {@link FileChannel}
+     *
+     * @throws Exception 打开失败
+     */
+    private static FileChannel openChannel(
+        final String path,
+        final Record record
+    )
+        throws Exception {
+        File file = new File(path);
+        FileUtils.createOrExistsDir(file.getParentFile());
+        boolean     isNew   = !file.exists() || file.length() == 0L;
+        FileChannel channel = new FileOutputStream(file, true).getChannel();
+        if (isNew && record.fileInfo != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(StringUtils.getBytes(record.fileInfo));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * 关闭全部 FileChannel
+     */
+    private void closeChannels() {
+        Iterator<FileChannel> iterator = mChannels.values().iterator();
+        while (iterator.hasNext()) {
+            CloseUtils.closeIOQuietly(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    // ==========
+    // = 环形队列 =
+    // ==========
+
+    /**
+     * 有界无锁环形队列 ( 多生产者、单消费者 )
+     * <pre>
+     *     每个槽位保存序号, 生产者 CAS 占位后写入数据并发布序号, 消费者按序号读取
+     * </pre>
+     */
+    private static final class RingBuffer {
+
+        private final int                          mask;
+        private final AtomicReferenceArray<Record> slots;
+        private final AtomicLongArray              sequences;
+        private final AtomicLong                   tail = new AtomicLong();
+        private       long                         head;
+
+        RingBuffer(final int capacity) {
+            int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+            this.mask = size - 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(final Record record) {
+            while (true) {
+                long position = tail.get();
+                int  index    = (int) position & mask;
+                long diff     = sequences.get(index) - position;
+                if (diff == 0L) {
+                    if (tail.compareAndSet(position, position + 1L)) {
+                        slots.lazySet(index, record);
+                        sequences.set(index, position + 1L);
+                        return true;
+                    }
+                } else if (diff < 0L) {
+                    // 已满
+                    return false;
+                }
+            }
+        }
+
+        Record poll() {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1L) {
+                return null;
+            }
+            Record record = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, head + mask + 1L);
+            head++;
+            return record;
+        }
+
+        boolean isEmpty() {
+            return sequences.get((int) head & mask) != head + 1L;
+        }
+    }
+}
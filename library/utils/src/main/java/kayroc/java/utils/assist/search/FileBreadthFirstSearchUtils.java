@@ -3,18 +3,29 @@ package kayroc.java.utils.assist.search;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import kayroc.android.utils.LogUtils;
-import kayroc.java.utils.thread.ThreadPoolManager;
+import kayroc.java.utils.thread.NamedThreadFactory;
 
 /**
  * 文件广度优先搜索算法 ( 多线程 + 队列, 搜索某个目录下的全部文件 )
  *
  * @author kayroc
+ * <pre>
+ *     每个文件夹为一个任务, 提交至固定线程数 ( setQueueSameTimeNumber ) 的线程池并行处理
+ *     提交任务前待处理数 +1, 任务处理完成后 -1, 归零时即为最后一个任务结束, 立即触发结束回调
+ *     无轮询、无延迟等待
+ *     <p></p>
+ *     大目录可关闭 {@link FileItem} 树 ( setFileItemEnabled ), 改用:
+ *     1. 流式输出 ( setStreamListener ) 搜索到即回调, 消费过慢时搜索线程阻塞等待
+ *     2. 紧凑文件树 ( setCompactTreeEnabled ) 基本类型数组保存, 通过 getFileTree 获取
+ * </pre>
  */
 @SuppressWarnings("unused")
 public final class FileBreadthFirstSearchUtils {
@@ -73,18 +84,21 @@ public final class FileBreadthFirstSearchUtils {
     }
 
     /**
-     * 文件队列
+     * 文件夹任务
      *
      * @author kayroc
      */
-    private static class FileQueue {
+    private final class FileQueue
+        implements Runnable {
 
         FileQueue(
             File file,
-            FileItem fileItem
+            FileItem fileItem,
+            int treeIndex
         ) {
             this.file = file;
             this.fileItem = fileItem;
+            this.treeIndex = treeIndex;
         }
 
         /** 当前准备处理文件夹 */
@@ -92,6 +106,19 @@ public final class FileBreadthFirstSearchUtils {
 
         /** 上一级目录对象 */
         private final FileItem fileItem;
+
+        /** 紧凑文件树节点下标 */
+        private final int treeIndex;
+
+        @Override
+        public void run() {
+            try {
+                queryFile(file, fileItem, treeIndex);
+                mDirCount.incrementAndGet();
+            } finally {
+                finishTask();
+            }
+        }
     }
 
     /**
@@ -99,25 +126,7 @@ public final class FileBreadthFirstSearchUtils {
      *
      * @author kayroc
      */
-    public interface SearchHandler {
-
-        /**
-         * 判断是否处理该文件
-         *
-         * @param file 文件
-         *
-         * @return {@code true} 处理该文件, {@code false} 跳过该文件不处理
-         */
-        boolean isHandlerFile(File file);
-
-        /**
-         * 是否添加到集合
-         *
-         * @param file 文件
-         *
-         * @return {@code true} 添加, {@code false} 不添加
-         */
-        boolean isAddToList(File file);
+    public interface SearchHandler extends FileSearchFilter {
 
         /**
          * 搜索结束监听
@@ -252,7 +261,9 @@ public final class FileBreadthFirstSearchUtils {
      * 获取延迟校验时间 ( 毫秒 )
      *
      * @return 延迟线程校验时间 ( 毫秒 )
+     * @deprecated 搜索结束由任务计数判断, 不再延迟校验
      */
+    @Deprecated
     public long getDelayTime() {
         return mDelayTime;
     }
@@ -263,40 +274,141 @@ public final class FileBreadthFirstSearchUtils {
      * @param delayTimeMillis 延迟校验时间 ( 毫秒 )
      *
      * @return {@link FileBreadthFirstSearchUtils}
+     * @deprecated 搜索结束由任务计数判断, 不再延迟校验
      */
+    @Deprecated
     public FileBreadthFirstSearchUtils setDelayTime(final long delayTimeMillis) {
         this.mDelayTime = delayTimeMillis;
         return this;
     }
 
+    /**
+     * 获取已搜索文件夹数 ( 搜索中为实时数据 )
+     *
+     * @return 已搜索文件夹数
+     */
+    public long getDirCount() {
+        return mDirCount.get();
+    }
+
+    /**
+     * 获取搜索速率 ( 文件夹数 / 秒 )
+     *
+     * @return 搜索速率
+     */
+    public double getDirsPerSecond() {
+        long startNanos = mStartNanos;
+        if (startNanos == 0L) {
+            return 0D;
+        }
+        long endNanos = mIsRunning ? System.nanoTime() : mEndNanos;
+        long elapsed  = endNanos - startNanos;
+        return elapsed > 0L ? mDirCount.get() * 1000000000D / elapsed : 0D;
+    }
+
+    /**
+     * 设置是否保存 {@link FileItem} 树 ( 默认保存 )
+     *
+     * @param enabled {@code true} 保存, {@code false} 不保存 ( 结束回调仅返回根目录 )
+     *
+     * @return {@link FileBreadthFirstSearchUtils}
+     */
+    public synchronized FileBreadthFirstSearchUtils setFileItemEnabled(final boolean enabled) {
+        if (mIsRunning) {
+            return this;
+        }
+        this.mFileItemEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * 设置是否构建紧凑文件树 ( 默认不构建 )
+     *
+     * @param enabled {@code true} 构建, {@code false} 不构建
+     *
+     * @return {@link FileBreadthFirstSearchUtils}
+     */
+    public synchronized FileBreadthFirstSearchUtils setCompactTreeEnabled(final boolean enabled) {
+        if (mIsRunning) {
+            return this;
+        }
+        this.mCompactTreeEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * 设置流式输出回调
+     *
+     * @param listener 文件回调 ( 为 null 则关闭流式输出 )
+     * @param capacity 队列容量 ( 已搜索未回调的文件数上限 )
+     *
+     * @return {@link FileBreadthFirstSearchUtils}
+     */
+    public synchronized FileBreadthFirstSearchUtils setStreamListener(
+        final FileSearchSink.OnFileListener listener,
+        final int capacity
+    ) {
+        if (mIsRunning) {
+            return this;
+        }
+        this.mStreamListener = listener;
+        this.mStreamCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * 获取紧凑文件树 ( 需开启 setCompactTreeEnabled )
+     *
+     * @return {@link FileTree}
+     */
+    public FileTree getFileTree() {
+        return mFileTree;
+    }
+
     // =
 
     /** 根目录对象 */
-    private FileItem mRootFileItem;
+    private          FileItem                      mRootFileItem;
     /** 判断是否运行中 */
-    private boolean mIsRunning = false;
+    private volatile boolean                       mIsRunning           = false;
     /** 是否停止搜索 */
-    private boolean mIsStop = false;
+    private volatile boolean                       mIsStop              = false;
     /** 开始搜索时间 */
-    private long mStartTime = 0L;
+    private          long                          mStartTime           = 0L;
     /** 结束搜索时间 */
-    private long mEndTime = 0L;
+    private          long                          mEndTime             = 0L;
+    /** 开始搜索时间 ( 纳秒, 用于计算速率 ) */
+    private volatile long                          mStartNanos          = 0L;
+    /** 结束搜索时间 ( 纳秒, 用于计算速率 ) */
+    private volatile long                          mEndNanos            = 0L;
     /** 延迟时间 */
-    private long mDelayTime = 50L;
+    private          long                          mDelayTime           = 50L;
     /** 任务队列同时进行数量 */
-    private int mQueueSameTimeNumber = 5;
-    /** 线程池 */
-    @SuppressWarnings("AlibabaThreadPoolCreation")
-    private final ExecutorService mExecutor = Executors.newCachedThreadPool();
-    /** 任务队列 */
-    private final LinkedBlockingQueue<FileQueue> mTaskQueue = new LinkedBlockingQueue<>();
+    private          int                           mQueueSameTimeNumber = 5;
+    /** 线程池 ( 每次搜索创建, 搜索结束关闭 ) */
+    private          ThreadPoolExecutor            mExecutor;
+    /** 待处理任务数 ( 含执行中 ) */
+    private final    AtomicInteger                 mPendingCount        = new AtomicInteger();
+    /** 已搜索文件夹数 */
+    private final    AtomicLong                    mDirCount            = new AtomicLong();
+    /** 是否保存 FileItem 树 */
+    private          boolean                       mFileItemEnabled     = true;
+    /** 是否构建紧凑文件树 */
+    private          boolean                       mCompactTreeEnabled  = false;
+    /** 流式输出回调 */
+    private          FileSearchSink.OnFileListener mStreamListener;
+    /** 流式输出队列容量 */
+    private          int                           mStreamCapacity      = FileSearchSink.DEFAULT_CAPACITY;
+    /** 紧凑文件树 */
+    private volatile FileTree                      mFileTree;
+    /** 流式输出 */
+    private volatile FileSearchSink                mSink;
 
     /**
      * 搜索目录
      *
      * @param path 根目录路径
      */
-    @SuppressWarnings("Convert2Lambda")
     public synchronized void query(final String path) {
         if (mIsRunning) {
             return;
@@ -308,55 +420,60 @@ public final class FileBreadthFirstSearchUtils {
         // 表示运行中
         mIsRunning = true;
         mIsStop = false;
+        mDirCount.set(0L);
         // 设置开始搜索时间
         mStartTime = System.currentTimeMillis();
+        mStartNanos = System.nanoTime();
         try {
             // 获取根目录 File
             File file = new File(path);
             // 初始化根目录
             mRootFileItem = new FileItem(file);
+            mFileTree = mCompactTreeEnabled ? new FileTree(file) : null;
+            mSink = null;
             // 判断是否文件
             if (file.isFile()) {
                 // 触发结束回调
-                mEndTime = System.currentTimeMillis();
-                mInnerHandler.onEndListener(mRootFileItem, mStartTime, mEndTime);
+                end();
                 return;
             }
             // 获取文件夹全部子文件
             String[] fileArrays = file.list();
             // 获取文件总数
             if (fileArrays != null && fileArrays.length != 0) {
-                ThreadPoolManager.getInstance(1).execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        // 查询文件
-                        queryFile(mRootFileItem.file, mRootFileItem);
-                        // 循环队列
-                        whileQueue();
-                    }
-                });
+                int threadNumber = Math.max(mQueueSameTimeNumber, 1);
+                mExecutor = new ThreadPoolExecutor(
+                    threadNumber, threadNumber, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new NamedThreadFactory("FileBreadthFirstSearch", true, Thread.NORM_PRIORITY)
+                );
+                if (mStreamListener != null) {
+                    mSink = new FileSearchSink(mStreamListener, mStreamCapacity, "FileBreadthFirstSearchSink");
+                }
+                mPendingCount.set(0);
+                submitTask(new FileQueue(mRootFileItem.file, mRootFileItem, FileTree.ROOT));
             } else {
                 // 触发结束回调
-                mEndTime = System.currentTimeMillis();
-                mInnerHandler.onEndListener(mRootFileItem, mStartTime, mEndTime);
+                end();
             }
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
             // 触发结束回调
-            mEndTime = System.currentTimeMillis();
-            mInnerHandler.onEndListener(mRootFileItem, mStartTime, mEndTime);
+            end();
         }
     }
 
     /**
      * 搜索文件
      *
-     * @param file     文件
-     * @param fileItem 所在文件夹信息对象 ( 上一级目录 )
+     * @param file      文件
+     * @param fileItem  所在文件夹信息对象 ( 上一级目录 )
+     * @param treeIndex 所在文件夹紧凑文件树节点下标
      */
     private void queryFile(
         final File file,
-        final FileItem fileItem
+        final FileItem fileItem,
+        final int treeIndex
     ) {
         try {
             if (mIsStop) {
@@ -379,20 +496,21 @@ public final class FileBreadthFirstSearchUtils {
                                 if (mIsStop) {
                                     return;
                                 }
-                                FileItem subFileItem = fileItem.put(f);
+                                FileItem subFileItem = mFileItemEnabled ? fileItem.put(f) : null;
+                                int subTreeIndex = mFileTree != null ? mFileTree.add(treeIndex, f.getName(), true) : -1;
                                 // 添加任务
-                                mTaskQueue.offer(new FileQueue(f, subFileItem));
+                                submitTask(new FileQueue(f, subFileItem, subTreeIndex));
                             } else { // 属于文件
                                 if (!mIsStop && mInnerHandler.isAddToList(f)) {
                                     // 属于文件则直接保存
-                                    fileItem.put(f);
+                                    saveFile(f, fileItem, treeIndex);
                                 }
                             }
                         }
                     } else { // 属于文件
                         if (!mIsStop && mInnerHandler.isAddToList(file)) {
                             // 属于文件则直接保存
-                            fileItem.put(file);
+                            saveFile(file, fileItem, treeIndex);
                         }
                     }
                 }
@@ -402,56 +520,73 @@ public final class FileBreadthFirstSearchUtils {
         }
     }
 
+    /**
+     * 保存搜索到的文件
+     *
+     * @param file      文件
+     * @param fileItem  所在文件夹信息对象
+     * @param treeIndex 所在文件夹紧凑文件树节点下标
+     */
+    private void saveFile(
+        final File file,
+        final FileItem fileItem,
+        final int treeIndex
+    ) {
+        if (mFileItemEnabled && fileItem != null) {
+            fileItem.put(file);
+        }
+        FileTree fileTree = mFileTree;
+        if (fileTree != null) {
+            fileTree.add(treeIndex, file.getName(), false);
+        }
+        FileSearchSink sink = mSink;
+        if (sink != null && !sink.offer(file)) {
+            // 流式输出要求停止
+            mIsStop = true;
+        }
+    }
+
     // ============
     // = 线程池处理 =
     // ============
 
     /**
-     * 循环队列
+     * 提交文件夹任务
+     *
+     * @param task 文件夹任务
      */
-    @SuppressWarnings("Convert2Lambda")
-    private void whileQueue() {
-        // 判断是否为 null
-        boolean isEmpty = mTaskQueue.isEmpty();
-        // 循环则不处理
-        while (!isEmpty) {
-            if (mIsStop) {
-                break;
-            }
-            // 获取线程活动数量
-            int threadCount = ((ThreadPoolExecutor) mExecutor).getActiveCount();
-            // 判断是否超过
-            if (threadCount > mQueueSameTimeNumber) {
-                continue;
-            }
-            // 获取文件对象
-            final FileQueue fileQueue = mTaskQueue.poll();
-            // 判断是否为 null
-            if (fileQueue != null) {
-                mExecutor.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        queryFile(fileQueue.file, fileQueue.fileItem);
-                    }
-                });
-            }
+    private void submitTask(final FileQueue task) {
+        mPendingCount.incrementAndGet();
+        try {
+            mExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LogUtils.e(e.getMessage());
+            finishTask();
+        }
+    }
 
-            // 判断是否存在队列数据
-            isEmpty = (mTaskQueue.isEmpty() && threadCount == 0);
-            if (isEmpty) {
-                // 如果不存在, 防止搜索过快, 延迟再次判断
-                if (mIsStop) {
-                    break;
-                }
-                try {
-                    Thread.sleep(mDelayTime);
-                } catch (Exception ignored) {
-                }
-                isEmpty = mTaskQueue.isEmpty();
-            }
+    /**
+     * 文件夹任务结束 ( 最后一个任务结束时触发结束回调 )
+     */
+    private void finishTask() {
+        if (mPendingCount.decrementAndGet() == 0) {
+            mExecutor.shutdown();
+            end();
+        }
+    }
+
+    /**
+     * 搜索结束
+     */
+    private void end() {
+        FileSearchSink sink = mSink;
+        if (sink != null) {
+            // 等待已搜索文件全部回调
+            sink.finish();
+            mSink = null;
         }
-        // 触发结束回调
+        mEndNanos = System.nanoTime();
         mEndTime = System.currentTimeMillis();
         mInnerHandler.onEndListener(mRootFileItem, mStartTime, mEndTime);
     }
-}
\ No newline at end of file
+}
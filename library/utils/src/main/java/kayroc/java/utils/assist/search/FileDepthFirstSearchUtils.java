@@ -11,6 +11,11 @@ import kayroc.java.utils.thread.ThreadPoolManager;
  * 文件深度优先搜索算法 ( 递归搜索某个目录下的全部文件 )
  *
  * @author kayroc
+ * <pre>
+ *     大目录可关闭 {@link FileItem} 集合 ( setFileItemEnabled ), 改用:
+ *     1. 流式输出 ( setStreamListener ) 搜索到即回调, 消费过慢时搜索线程阻塞等待
+ *     2. 紧凑文件树 ( setCompactTreeEnabled ) 基本类型数组保存, 通过 getFileTree 获取
+ * </pre>
  */
 @SuppressWarnings("unused")
 public final class FileDepthFirstSearchUtils {
@@ -53,25 +58,7 @@ public final class FileDepthFirstSearchUtils {
      *
      * @author kayroc
      */
-    public interface SearchHandler {
-
-        /**
-         * 判断是否处理该文件
-         *
-         * @param file 文件
-         *
-         * @return {@code true} 处理该文件, {@code false} 跳过该文件不处理
-         */
-        boolean isHandlerFile(File file);
-
-        /**
-         * 是否添加到集合
-         *
-         * @param file 文件
-         *
-         * @return {@code true} 添加, {@code false} 不添加
-         */
-        boolean isAddToList(File file);
+    public interface SearchHandler extends FileSearchFilter {
 
         /**
          * 搜索结束监听
@@ -178,16 +165,87 @@ public final class FileDepthFirstSearchUtils {
         return mEndTime;
     }
 
+    /**
+     * 设置是否保存 {@link FileItem} 集合 ( 默认保存 )
+     *
+     * @param enabled {@code true} 保存, {@code false} 不保存 ( 结束回调返回空集合 )
+     *
+     * @return {@link FileDepthFirstSearchUtils}
+     */
+    public synchronized FileDepthFirstSearchUtils setFileItemEnabled(final boolean enabled) {
+        if (mIsRunning) {
+            return this;
+        }
+        this.mFileItemEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * 设置是否构建紧凑文件树 ( 默认不构建 )
+     *
+     * @param enabled {@code true} 构建, {@code false} 不构建
+     *
+     * @return {@link FileDepthFirstSearchUtils}
+     */
+    public synchronized FileDepthFirstSearchUtils setCompactTreeEnabled(final boolean enabled) {
+        if (mIsRunning) {
+            return this;
+        }
+        this.mCompactTreeEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * 设置流式输出回调
+     *
+     * @param listener 文件回调 ( 为 null 则关闭流式输出 )
+     * @param capacity 队列容量 ( 已搜索未回调的文件数上限 )
+     *
+     * @return {@link FileDepthFirstSearchUtils}
+     */
+    public synchronized FileDepthFirstSearchUtils setStreamListener(
+        final FileSearchSink.OnFileListener listener,
+        final int capacity
+    ) {
+        if (mIsRunning) {
+            return this;
+        }
+        this.mStreamListener = listener;
+        this.mStreamCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * 获取紧凑文件树 ( 需开启 setCompactTreeEnabled )
+     *
+     * @return {@link FileTree}
+     */
+    public FileTree getFileTree() {
+        return mFileTree;
+    }
+
     // =
 
     /** 判断是否运行中 */
-    private boolean mIsRunning = false;
+    private volatile boolean mIsRunning = false;
     /** 是否停止搜索 */
-    private boolean mIsStop = false;
+    private volatile boolean mIsStop = false;
     /** 开始搜索时间 */
     private long mStartTime = 0L;
     /** 结束搜索时间 */
     private long mEndTime = 0L;
+    /** 是否保存 FileItem 集合 */
+    private boolean mFileItemEnabled = true;
+    /** 是否构建紧凑文件树 */
+    private boolean mCompactTreeEnabled = false;
+    /** 流式输出回调 */
+    private FileSearchSink.OnFileListener mStreamListener;
+    /** 流式输出队列容量 */
+    private int mStreamCapacity = FileSearchSink.DEFAULT_CAPACITY;
+    /** 紧凑文件树 */
+    private volatile FileTree mFileTree;
+    /** 流式输出 */
+    private volatile FileSearchSink mSink;
 
     /**
      * 搜索目录
@@ -215,6 +273,8 @@ public final class FileDepthFirstSearchUtils {
         try {
             // 获取根目录 File
             final File file = new File(path);
+            mFileTree = mCompactTreeEnabled ? new FileTree(file) : null;
+            mSink = null;
             // 判断是否文件
             if (file.isFile()) {
                 List<FileItem> lists = new ArrayList<>();
@@ -228,12 +288,21 @@ public final class FileDepthFirstSearchUtils {
             String[] fileArrays = file.list();
             // 获取文件总数
             if (fileArrays != null && fileArrays.length != 0) {
+                if (mStreamListener != null) {
+                    mSink = new FileSearchSink(mStreamListener, mStreamCapacity, "FileDepthFirstSearchSink");
+                }
                 ThreadPoolManager.getInstance(1).execute(new Runnable() {
                     @Override
                     public void run() {
                         List<FileItem> lists = new ArrayList<>();
                         // 查询文件
-                        queryFile(file, lists, isRelation);
+                        queryFile(file, lists, isRelation, FileTree.ROOT);
+                        FileSearchSink sink = mSink;
+                        if (sink != null) {
+                            // 等待已搜索文件全部回调
+                            sink.finish();
+                            mSink = null;
+                        }
                         // 触发结束回调
                         mEndTime = System.currentTimeMillis();
                         mInnerHandler.onEndListener(lists, mStartTime, mEndTime);
@@ -258,12 +327,14 @@ public final class FileDepthFirstSearchUtils {
      * @param file       文件
      * @param lists      保存数据源
      * @param isRelation 是否关联到 Child List
+     * @param treeIndex  紧凑文件树节点下标 ( 文件夹为自身节点, 文件为所在文件夹节点 )
      */
     @SuppressWarnings({"ConstantConditions", "SpellCheckingInspection"})
     private void queryFile(
         final File file,
         final List<FileItem> lists,
-        final boolean isRelation
+        final boolean isRelation,
+        final int treeIndex
     ) {
         try {
             if (mIsStop) {
@@ -281,31 +352,41 @@ public final class FileDepthFirstSearchUtils {
                         }
                         // 循环处理
                         for (File f : files) {
+                            if (mIsStop) {
+                                return;
+                            }
+                            boolean isDirectory = f.isDirectory();
+                            int subTreeIndex = treeIndex;
+                            if (isDirectory && mFileTree != null) {
+                                subTreeIndex = mFileTree.add(treeIndex, f.getName(), true);
+                            }
                             if (isRelation) {
-                                if (f.isDirectory()) {
+                                if (isDirectory) {
                                     List<FileItem> childs = new ArrayList<>();
                                     // 查找文件
-                                    queryFile(f, childs, isRelation);
+                                    queryFile(f, childs, isRelation, subTreeIndex);
                                     // 保存数据
-                                    FileItem fileItem = new FileItem(f);
-                                    fileItem.childrenList = childs;
-                                    lists.add(fileItem);
+                                    if (mFileItemEnabled) {
+                                        FileItem fileItem = new FileItem(f);
+                                        fileItem.childrenList = childs;
+                                        lists.add(fileItem);
+                                    }
                                 } else {
                                     // 属于文件
                                     if (mInnerHandler.isAddToList(f)) {
                                         // 属于文件则直接保存
-                                        lists.add(new FileItem(f));
+                                        saveFile(f, lists, treeIndex);
                                     }
                                 }
                             } else {
                                 // 查找文件
-                                queryFile(f, lists, isRelation);
+                                queryFile(f, lists, isRelation, subTreeIndex);
                             }
                         }
                     } else { // 属于文件
                         if (mInnerHandler.isAddToList(file)) {
                             // 属于文件则直接保存
-                            lists.add(new FileItem(file));
+                            saveFile(file, lists, treeIndex);
                         }
                     }
                 }
@@ -314,4 +395,30 @@ public final class FileDepthFirstSearchUtils {
             LogUtils.e(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 保存搜索到的文件
+     *
+     * @param file      文件
+     * @param lists     保存数据源
+     * @param treeIndex 所在文件夹紧凑文件树节点下标
+     */
+    private void saveFile(
+        final File file,
+        final List<FileItem> lists,
+        final int treeIndex
+    ) {
+        if (mFileItemEnabled) {
+            lists.add(new FileItem(file));
+        }
+        FileTree fileTree = mFileTree;
+        if (fileTree != null) {
+            fileTree.add(treeIndex, file.getName(), false);
+        }
+        FileSearchSink sink = mSink;
+        if (sink != null && !sink.offer(file)) {
+            // 流式输出要求停止
+            mIsStop = true;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package kayroc.java.utils.assist.search;
+
+import java.io.File;
+
+/**
+ * 文件搜索过滤接口
+ *
+ * @author kayroc
+ * <pre>
+ *     {@link FileDepthFirstSearchUtils.SearchHandler}、{@link FileBreadthFirstSearchUtils.SearchHandler}
+ *     均继承此接口, 可直接用于 {@link FileSearchIndex}
+ * </pre>
+ */
+public interface FileSearchFilter {
+
+    /**
+     * 判断是否处理该文件
+     *
+     * @param file 文件
+     *
+     * @return {@code true} 处理该文件, {@code false} 跳过该文件不处理
+     */
+    boolean isHandlerFile(File file);
+
+    /**
+     * 是否添加到集合
+     *
+     * @param file 文件
+     *
+     * @return {@code true} 添加, {@code false} 不添加
+     */
+    boolean isAddToList(File file);
+}
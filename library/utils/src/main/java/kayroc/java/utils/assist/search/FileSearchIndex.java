@@ -0,0 +1,478 @@
+package kayroc.java.utils.assist.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
+import kayroc.java.utils.FileUtils;
+
+/**
+ * 文件搜索持久化索引
+ *
+ * @author kayroc
+ * <pre>
+ *     保存某个根目录下全部文件夹、文件的路径、大小、最后修改时间及 {@link FileSearchFilter} 判断结果
+ *     再次扫描时, 文件夹最后修改时间未变化则直接复用索引中的子文件列表及判断结果 ( 不再 listFiles、不再回调过滤器 )
+ *     仅对子文件夹读取一次最后修改时间继续向下校验, 重复搜索同一大目录只需毫秒级
+ *     <p></p>
+ *     注意事项:
+ *     1. 文件夹最后修改时间仅在增删、重命名子文件时变化, 修改文件内容不会变化
+ *     如需刷新文件大小、最后修改时间, 开启 setCheckFiles ( 每个文件一次 stat, 仍跳过 listFiles 及过滤器 )
+ *     2. 部分文件系统最后修改时间精度为秒, 扫描时刚修改 ( 2 秒内 ) 的文件夹下次扫描强制重新读取
+ *     3. 过滤器逻辑变化时需调用 {@link #clear()} 后重新扫描
+ *     4. WatchService ( java.nio.file ) 需 API 26, 此处采用文件夹修改时间校验方式
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class FileSearchIndex {
+
+    /** 文件头标识 */
+    private static final int  MAGIC       = 0x46534958;
+    /** 版本号 */
+    private static final int  VERSION     = 1;
+    /** 最后修改时间不可信区间 ( 毫秒 ) */
+    private static final long UNSTABLE_MS = 2000L;
+
+    /** 根目录 */
+    private final File                  mRoot;
+    /** 文件夹索引 ( 相对路径, 根目录为 "" ) */
+    private       Map<String, DirEntry> mDirs = new HashMap<>();
+    /** 是否校验文件大小、最后修改时间 */
+    private       boolean               mCheckFiles;
+    /** 上次扫描重新读取文件夹数 */
+    private       int                   mScannedDirs;
+    /** 上次扫描复用文件夹数 */
+    private       int                   mReusedDirs;
+
+    /**
+     * 构造函数
+     *
+     * @param root 根目录
+     */
+    public FileSearchIndex(final File root) {
+        this.mRoot = root.getAbsoluteFile();
+    }
+
+    /**
+     * 索引条目
+     *
+     * @author kayroc
+     */
+    public static final class Entry {
+
+        /** 文件 */
+        public final File    file;
+        /** 文件大小 */
+        public final long    length;
+        /** 最后修改时间 */
+        public final long    lastModified;
+        /** 是否添加到集合 ( 过滤器判断结果 ) */
+        public final boolean isAdd;
+
+        Entry(
+            File file,
+            long length,
+            long lastModified,
+            boolean isAdd
+        ) {
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.isAdd = isAdd;
+        }
+    }
+
+    // ==========
+    // = 配置参数 =
+    // ==========
+
+    /**
+     * 设置是否校验文件大小、最后修改时间
+     *
+     * @param checkFiles {@code true} 复用文件夹时重新读取子文件大小、最后修改时间
+     *
+     * @return {@link FileSearchIndex}
+     */
+    public synchronized FileSearchIndex setCheckFiles(final boolean checkFiles) {
+        this.mCheckFiles = checkFiles;
+        return this;
+    }
+
+    // ==========
+    // = 扫描处理 =
+    // ==========
+
+    /**
+     * 增量扫描 ( 首次为全量扫描 )
+     *
+     * @param filter 过滤器 ( 为 null 则处理全部 )
+     *
+     * @return {@link FileSearchIndex}
+     */
+    public synchronized FileSearchIndex scan(final FileSearchFilter filter) {
+        mScannedDirs = 0;
+        mReusedDirs = 0;
+        Map<String, DirEntry> dirs = new HashMap<>(Math.max(mDirs.size() * 4 / 3 + 1, 16));
+        if (mRoot.isDirectory()) {
+            scanDir("", mRoot, filter, dirs, System.currentTimeMillis() - UNSTABLE_MS);
+        }
+        mDirs = dirs;
+        return this;
+    }
+
+    /**
+     * 清空索引 ( 下次扫描为全量扫描 )
+     */
+    public synchronized void clear() {
+        mDirs = new HashMap<>();
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 获取根目录
+     *
+     * @return 根目录
+     */
+    public File getRoot() {
+        return mRoot;
+    }
+
+    /**
+     * 获取上次扫描重新读取文件夹数
+     *
+     * @return 重新读取文件夹数
+     */
+    public synchronized int getScannedDirs() {
+        return mScannedDirs;
+    }
+
+    /**
+     * 获取上次扫描复用文件夹数
+     *
+     * @return 复用文件夹数
+     */
+    public synchronized int getReusedDirs() {
+        return mReusedDirs;
+    }
+
+    /**
+     * 获取文件夹数 ( 含根目录 )
+     *
+     * @return 文件夹数
+     */
+    public synchronized int getDirCount() {
+        return mDirs.size();
+    }
+
+    /**
+     * 获取添加到集合的文件 ( 过滤器 isAddToList 为 true )
+     *
+     * @return 文件集合
+     */
+    public synchronized List<File> getFiles() {
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, DirEntry> entry : mDirs.entrySet()) {
+            DirEntry dir    = entry.getValue();
+            File     parent = null;
+            for (int i = 0, len = dir.fileNames.length; i < len; i++) {
+                if (dir.adds[i]) {
+                    if (parent == null) {
+                        parent = toFile(entry.getKey());
+                    }
+                    files.add(new File(parent, dir.fileNames[i]));
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 获取全部文件索引条目 ( 含过滤器 isAddToList 为 false 的文件 )
+     *
+     * @return 索引条目集合
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<String, DirEntry> entry : mDirs.entrySet()) {
+            DirEntry dir    = entry.getValue();
+            File     parent = toFile(entry.getKey());
+            for (int i = 0, len = dir.fileNames.length; i < len; i++) {
+                entries.add(new Entry(
+                    new File(parent, dir.fileNames[i]), dir.lengths[i], dir.mtimes[i], dir.adds[i]
+                ));
+            }
+        }
+        return entries;
+    }
+
+    // ==========
+    // = 索引存储 =
+    // ==========
+
+    /**
+     * 保存索引
+     *
+     * @param indexFile 索引文件
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public synchronized boolean save(final File indexFile) {
+        if (indexFile == null || !FileUtils.createOrExistsDir(indexFile.getParentFile())) {
+            return false;
+        }
+        File             tempFile = new File(indexFile.getPath() + ".tmp");
+        DataOutputStream dos      = null;
+        try {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 65536));
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeUTF(mRoot.getPath());
+            dos.writeInt(mDirs.size());
+            for (Map.Entry<String, DirEntry> entry : mDirs.entrySet()) {
+                DirEntry dir = entry.getValue();
+                dos.writeUTF(entry.getKey());
+                dos.writeLong(dir.mtime);
+                dos.writeBoolean(dir.handled);
+                dos.writeInt(dir.dirNames.length);
+                for (String name : dir.dirNames) {
+                    dos.writeUTF(name);
+                }
+                dos.writeInt(dir.fileNames.length);
+                for (int i = 0, len = dir.fileNames.length; i < len; i++) {
+                    dos.writeUTF(dir.fileNames[i]);
+                    dos.writeLong(dir.lengths[i]);
+                    dos.writeLong(dir.mtimes[i]);
+                    dos.writeBoolean(dir.adds[i]);
+                }
+            }
+            dos.close();
+            dos = null;
+            // 先写临时文件再替换, 避免保存中断导致索引损坏
+            return (!indexFile.exists() || indexFile.delete()) && tempFile.renameTo(indexFile);
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            return false;
+        } finally {
+            CloseUtils.closeIOQuietly(dos);
+        }
+    }
+
+    /**
+     * 加载索引
+     *
+     * @param indexFile 索引文件
+     *
+     * @return {@link FileSearchIndex}, 文件不存在或格式不正确返回 null
+     */
+    public static FileSearchIndex load(final File indexFile) {
+        if (indexFile == null || !indexFile.isFile()) {
+            return null;
+        }
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), 65536));
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                return null;
+            }
+            FileSearchIndex index    = new FileSearchIndex(new File(dis.readUTF()));
+            int             dirCount = dis.readInt();
+            Map<String, DirEntry> dirs = new HashMap<>(Math.max(dirCount * 4 / 3 + 1, 16));
+            for (int d = 0; d < dirCount; d++) {
+                String   path     = dis.readUTF();
+                long     mtime    = dis.readLong();
+                boolean  handled  = dis.readBoolean();
+                String[] dirNames = new String[dis.readInt()];
+                for (int i = 0; i < dirNames.length; i++) {
+                    dirNames[i] = dis.readUTF();
+                }
+                int      fileCount = dis.readInt();
+                DirEntry dir       = new DirEntry(mtime, handled, dirNames, fileCount);
+                for (int i = 0; i < fileCount; i++) {
+                    dir.fileNames[i] = dis.readUTF();
+                    dir.lengths[i] = dis.readLong();
+                    dir.mtimes[i] = dis.readLong();
+                    dir.adds[i] = dis.readBoolean();
+                }
+                dirs.put(path, dir);
+            }
+            index.mDirs = dirs;
+            return index;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            return null;
+        } finally {
+            CloseUtils.closeIOQuietly(dis);
+        }
+    }
+
+    /**
+     * 加载索引 ( 不存在或根目录不一致则新建 ), 并增量扫描后保存
+     *
+     * @param root      根目录
+     * @param indexFile 索引文件
+     * @param filter    过滤器 ( 为 null 则处理全部 )
+     *
+     * @return {@link FileSearchIndex}
+     */
+    public static FileSearchIndex loadAndScan(
+        final File root,
+        final File indexFile,
+        final FileSearchFilter filter
+    ) {
+        FileSearchIndex index = load(indexFile);
+        if (index == null || !index.mRoot.equals(root.getAbsoluteFile())) {
+            index = new FileSearchIndex(root);
+        }
+        index.scan(filter);
+        index.save(indexFile);
+        return index;
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 文件夹索引
+     */
+    private static final class DirEntry {
+
+        /** 最后修改时间 ( -1 表示下次需重新读取 ) */
+        final long      mtime;
+        /** 过滤器 isHandlerFile 判断结果 */
+        final boolean   handled;
+        /** 子文件夹名 */
+        final String[]  dirNames;
+        /** 子文件名 */
+        final String[]  fileNames;
+        /** 子文件大小 */
+        final long[]    lengths;
+        /** 子文件最后修改时间 */
+        final long[]    mtimes;
+        /** 子文件过滤器 isAddToList 判断结果 */
+        final boolean[] adds;
+
+        DirEntry(
+            final long mtime,
+            final boolean handled,
+            final String[] dirNames,
+            final int fileCount
+        ) {
+            this.mtime = mtime;
+            this.handled = handled;
+            this.dirNames = dirNames;
+            this.fileNames = new String[fileCount];
+            this.lengths = new long[fileCount];
+            this.mtimes = new long[fileCount];
+            this.adds = new boolean[fileCount];
+        }
+    }
+
+    /**
+     * 扫描文件夹
+     *
+     * @param path         相对路径
+     * @param dir          文件夹
+     * @param filter       过滤器
+     * @param dirs         新文件夹索引
+     * @param stableBefore 最后修改时间可信上限
+     */
+    private void scanDir(
+        final String path,
+        final File dir,
+        final FileSearchFilter filter,
+        final Map<String, DirEntry> dirs,
+        final long stableBefore
+    ) {
+        long     mtime = dir.lastModified();
+        DirEntry old   = mDirs.get(path);
+        DirEntry entry;
+        if (old != null && old.mtime > 0L && old.mtime == mtime) {
+            mReusedDirs++;
+            entry = old;
+            if (mCheckFiles) {
+                for (int i = 0, len = entry.fileNames.length; i < len; i++) {
+                    File file = new File(dir, entry.fileNames[i]);
+                    entry.lengths[i] = file.length();
+                    entry.mtimes[i] = file.lastModified();
+                }
+            }
+        } else {
+            mScannedDirs++;
+            entry = readDir(dir, filter, mtime < stableBefore ? mtime : -1L);
+        }
+        dirs.put(path, entry);
+        for (String name : entry.dirNames) {
+            File sub = new File(dir, name);
+            if (sub.isDirectory()) {
+                scanDir(path.length() == 0 ? name : path + File.separatorChar + name, sub, filter, dirs, stableBefore);
+            }
+        }
+    }
+
+    /**
+     * 读取文件夹
+     *
+     * @param dir    文件夹
+     * @param filter 过滤器
+     * @param mtime  保存的最后修改时间
+     *
+     * @return {@link DirEntry}
+     */
+    private static DirEntry readDir(
+        final File dir,
+        final FileSearchFilter filter,
+        final long mtime
+    ) {
+        boolean handled = filter == null || filter.isHandlerFile(dir);
+        File[]  files   = handled ? dir.listFiles() : null;
+        if (files == null || files.length == 0) {
+            return new DirEntry(mtime, handled, new String[0], 0);
+        }
+        List<String> dirNames  = new ArrayList<>();
+        List<File>   fileItems = new ArrayList<>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                dirNames.add(file.getName());
+            } else {
+                fileItems.add(file);
+            }
+        }
+        DirEntry entry = new DirEntry(
+            mtime, true, dirNames.toArray(new String[0]), fileItems.size()
+        );
+        for (int i = 0, len = fileItems.size(); i < len; i++) {
+            File file = fileItems.get(i);
+            entry.fileNames[i] = file.getName();
+            entry.lengths[i] = file.length();
+            entry.mtimes[i] = file.lastModified();
+            // 与搜索工具一致, 先判断是否处理再判断是否保存
+            entry.adds[i] = filter == null || (filter.isHandlerFile(file) && filter.isAddToList(file));
+        }
+        return entry;
+    }
+
+    /**
+     * 相对路径转文件
+     *
+     * @param path 相对路径
+     *
+     * @return 文件
+     */
+    private File toFile(final String path) {
+        return path.length() == 0 ? mRoot : new File(mRoot, path);
+    }
+}
@@ -0,0 +1,149 @@
+package kayroc.java.utils.assist.search;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import kayroc.android.utils.LogUtils;
+
+/**
+ * 文件搜索结果流式输出
+ *
+ * @author kayroc
+ * <pre>
+ *     搜索线程将符合条件的文件放入有界队列, 由单独的消费线程按顺序回调 {@link OnFileListener}
+ *     消费过慢时队列写满, 搜索线程阻塞等待 ( 背压 ), 内存占用不超过队列容量
+ *     回调返回 false 则停止搜索
+ * </pre>
+ */
+public final class FileSearchSink {
+
+    /** 默认队列容量 */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** 结束标记 */
+    private static final File END = new File("");
+
+    /** 文件回调 */
+    private final    OnFileListener      mListener;
+    /** 结果队列 */
+    private final    BlockingQueue<File> mQueue;
+    /** 消费结束 */
+    private final    CountDownLatch      mDone = new CountDownLatch(1);
+    /** 是否已停止 ( 回调返回 false ) */
+    private volatile boolean             mStopped;
+
+    /**
+     * 文件回调
+     *
+     * @author kayroc
+     */
+    public interface OnFileListener {
+
+        /**
+         * 搜索到符合条件的文件 ( 在消费线程中按顺序触发 )
+         *
+         * @param file 文件
+         *
+         * @return {@code true} 继续搜索, {@code false} 停止搜索
+         */
+        boolean onFile(File file);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param listener 文件回调
+     * @param capacity 队列容量
+     * @param name     消费线程名
+     */
+    @SuppressWarnings("Convert2Lambda")
+    FileSearchSink(
+        final OnFileListener listener,
+        final int capacity,
+        final String name
+    ) {
+        this.mListener = listener;
+        this.mQueue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 输出文件 ( 队列已满时阻塞 )
+     *
+     * @param file 文件
+     *
+     * @return {@code true} 继续搜索, {@code false} 停止搜索
+     */
+    boolean offer(final File file) {
+        if (mStopped) {
+            return false;
+        }
+        try {
+            mQueue.put(file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !mStopped;
+    }
+
+    /**
+     * 结束输出, 等待已入队的文件全部回调完成
+     */
+    void finish() {
+        try {
+            mQueue.put(END);
+            mDone.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogUtils.e(e.getMessage());
+        }
+    }
+
+    /**
+     * 是否已停止
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    boolean isStopped() {
+        return mStopped;
+    }
+
+    /**
+     * 消费队列
+     */
+    private void consume() {
+        try {
+            while (true) {
+                File file = mQueue.take();
+                if (file == END) {
+                    break;
+                }
+                // 停止后继续取出, 避免搜索线程阻塞
+                if (mStopped) {
+                    continue;
+                }
+                try {
+                    if (!mListener.onFile(file)) {
+                        mStopped = true;
+                    }
+                } catch (Exception e) {
+                    LogUtils.e(e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            mDone.countDown();
+        }
+    }
+}
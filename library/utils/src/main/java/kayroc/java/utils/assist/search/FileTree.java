@@ -0,0 +1,288 @@
+package kayroc.java.utils.assist.search;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 紧凑文件树
+ *
+ * @author kayroc
+ * <pre>
+ *     节点以数组下标表示, 仅保存父节点下标、名称下标、是否文件夹 ( 基本类型数组 )
+ *     文件名去重后统一保存 ( 同名文件只保存一份 ), 完整路径按需拼接
+ *     相比 File + HashMap 树, 百万级文件时内存占用大幅降低
+ *     <p></p>
+ *     根节点下标为 0, 添加节点线程安全
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class FileTree {
+
+    /** 根节点下标 */
+    public static final int ROOT = 0;
+
+    /** 初始容量 */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** 根目录路径 */
+    private final String               mRootPath;
+    /** 文件名去重表 */
+    private final Map<String, Integer> mNameIds   = new HashMap<>();
+    /** 文件名 ( 下标为名称下标 ) */
+    private final List<String>         mNames     = new ArrayList<>();
+    /** 父节点下标 */
+    private       int[]                mParents   = new int[INITIAL_CAPACITY];
+    /** 名称下标 */
+    private       int[]                mNameIndex = new int[INITIAL_CAPACITY];
+    /** 是否文件夹 */
+    private       boolean[]            mDirs      = new boolean[INITIAL_CAPACITY];
+    /** 节点数 */
+    private       int                  mSize;
+    /** 子节点索引 ( 按需构建 ) */
+    private       int[]                mChildStart;
+    private       int[]                mChildren;
+
+    /**
+     * 构造函数
+     *
+     * @param root 根目录
+     */
+    public FileTree(final File root) {
+        this.mRootPath = root.getAbsolutePath();
+        mParents[ROOT] = -1;
+        mNameIndex[ROOT] = nameId(root.getName());
+        mDirs[ROOT] = root.isDirectory();
+        mSize = 1;
+    }
+
+    // ==========
+    // = 添加节点 =
+    // ==========
+
+    /**
+     * 添加节点
+     *
+     * @param parent    父节点下标
+     * @param name      文件名
+     * @param directory 是否文件夹
+     *
+     * @return 节点下标
+     */
+    public synchronized int add(
+        final int parent,
+        final String name,
+        final boolean directory
+    ) {
+        if (parent < 0 || parent >= mSize) {
+            throw new IndexOutOfBoundsException("parent: " + parent + ", size: " + mSize);
+        }
+        if (mSize == mParents.length) {
+            int capacity = mSize + (mSize >> 1);
+            mParents = Arrays.copyOf(mParents, capacity);
+            mNameIndex = Arrays.copyOf(mNameIndex, capacity);
+            mDirs = Arrays.copyOf(mDirs, capacity);
+        }
+        int index = mSize++;
+        mParents[index] = parent;
+        mNameIndex[index] = nameId(name);
+        mDirs[index] = directory;
+        mChildStart = null;
+        mChildren = null;
+        return index;
+    }
+
+    /**
+     * 添加节点
+     *
+     * @param parent 父节点下标
+     * @param file   文件
+     *
+     * @return 节点下标
+     */
+    public int add(
+        final int parent,
+        final File file
+    ) {
+        return add(parent, file.getName(), file.isDirectory());
+    }
+
+    // ==========
+    // = 节点信息 =
+    // ==========
+
+    /**
+     * 获取节点数 ( 含根节点 )
+     *
+     * @return 节点数
+     */
+    public synchronized int size() {
+        return mSize;
+    }
+
+    /**
+     * 获取去重后文件名数量
+     *
+     * @return 文件名数量
+     */
+    public synchronized int getNameCount() {
+        return mNames.size();
+    }
+
+    /**
+     * 获取根目录路径
+     *
+     * @return 根目录路径
+     */
+    public String getRootPath() {
+        return mRootPath;
+    }
+
+    /**
+     * 获取父节点下标
+     *
+     * @param index 节点下标
+     *
+     * @return 父节点下标, 根节点返回 -1
+     */
+    public synchronized int getParent(final int index) {
+        checkIndex(index);
+        return mParents[index];
+    }
+
+    /**
+     * 获取文件名
+     *
+     * @param index 节点下标
+     *
+     * @return 文件名
+     */
+    public synchronized String getName(final int index) {
+        checkIndex(index);
+        return mNames.get(mNameIndex[index]);
+    }
+
+    /**
+     * 是否文件夹
+     *
+     * @param index 节点下标
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public synchronized boolean isDirectory(final int index) {
+        checkIndex(index);
+        return mDirs[index];
+    }
+
+    /**
+     * 获取完整路径
+     *
+     * @param index 节点下标
+     *
+     * @return 完整路径
+     */
+    public synchronized String getPath(final int index) {
+        checkIndex(index);
+        if (index == ROOT) {
+            return mRootPath;
+        }
+        // 自底向上收集名称下标, 再正序拼接
+        int   depth = 0;
+        int[] chain = new int[16];
+        for (int i = index; i != ROOT; i = mParents[i]) {
+            if (depth == chain.length) {
+                chain = Arrays.copyOf(chain, depth << 1);
+            }
+            chain[depth++] = mNameIndex[i];
+        }
+        StringBuilder builder = new StringBuilder(mRootPath);
+        for (int i = depth - 1; i >= 0; i--) {
+            builder.append(File.separatorChar).append(mNames.get(chain[i]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 获取文件
+     *
+     * @param index 节点下标
+     *
+     * @return 文件
+     */
+    public File getFile(final int index) {
+        return new File(getPath(index));
+    }
+
+    /**
+     * 获取子节点下标
+     * <pre>
+     *     首次调用时构建子节点索引, 添加节点后失效重建
+     * </pre>
+     *
+     * @param index 节点下标
+     *
+     * @return 子节点下标数组
+     */
+    public synchronized int[] getChildren(final int index) {
+        checkIndex(index);
+        if (mChildStart == null) {
+            buildChildIndex();
+        }
+        return Arrays.copyOfRange(mChildren, mChildStart[index], mChildStart[index + 1]);
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 获取文件名下标 ( 不存在则添加 )
+     *
+     * @param name 文件名
+     *
+     * @return 文件名下标
+     */
+    private int nameId(final String name) {
+        Integer id = mNameIds.get(name);
+        if (id == null) {
+            id = mNames.size();
+            mNames.add(name);
+            mNameIds.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * 构建子节点索引 ( 计数排序 )
+     */
+    private void buildChildIndex() {
+        int[] start = new int[mSize + 1];
+        for (int i = 1; i < mSize; i++) {
+            start[mParents[i] + 1]++;
+        }
+        for (int i = 0; i < mSize; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] children = new int[Math.max(mSize - 1, 0)];
+        int[] offset   = Arrays.copyOf(start, mSize);
+        for (int i = 1; i < mSize; i++) {
+            children[offset[mParents[i]]++] = i;
+        }
+        mChildStart = start;
+        mChildren = children;
+    }
+
+    /**
+     * 校验节点下标
+     *
+     * @param index 节点下标
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+        }
+    }
+}
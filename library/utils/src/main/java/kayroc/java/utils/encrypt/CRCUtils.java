@@ -1,11 +1,9 @@
 package kayroc.java.utils.encrypt;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.File;
 import java.util.zip.CRC32;
 
 import kayroc.android.utils.LogUtils;
-import kayroc.java.utils.CloseUtils;
 
 
 /**
@@ -76,21 +74,7 @@ public final class CRCUtils {
         if (filePath == null) {
             return null;
         }
-        InputStream is = null;
-        try {
-            is = new FileInputStream(filePath);
-            byte[] buffer = new byte[1024];
-            CRC32 crc32 = new CRC32();
-            int numRead;
-            while ((numRead = is.read(buffer)) > 0) {
-                crc32.update(buffer, 0, numRead);
-            }
-            return Long.toHexString(crc32.getValue());
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-        } finally {
-            CloseUtils.closeIOQuietly(is);
-        }
-        return null;
+        HashEngine.Result result = HashEngine.hash(new File(filePath), HashEngine.CRC32);
+        return (result != null) ? result.getHex(HashEngine.CRC32) : null;
     }
 }
\ No newline at end of file
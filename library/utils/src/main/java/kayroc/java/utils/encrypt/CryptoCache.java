@@ -0,0 +1,349 @@
+package kayroc.java.utils.encrypt;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.DESKeySpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 加解密实例缓存
+ *
+ * @author kayroc
+ * <pre>
+ *     MessageDigest、Mac、Cipher 的 getInstance 需查找 Provider, 小数据量时耗时占比最高
+ *     每个线程按算法缓存实例, Mac、Cipher 按密钥 ( 及 IV、加解密模式 ) 缓存已初始化状态, 相同密钥直接复用
+ *     DES 通过 SecretKeyFactory 生成的密钥同样缓存
+ *     GCM 等 AEAD 模式同一密钥 + IV 不允许重复初始化加密, 每次创建新 Cipher, 仅缓存密钥
+ *     CBC、CTR 等模式未传入 IV 加密时由 init 生成随机 IV, 同样每次创建新 Cipher, 避免复用 IV
+ *     <p></p>
+ *     返回的实例仅限当前线程在本次调用中使用, 不可跨线程共享或长期持有
+ *     digest()、doFinal() 完成后实例自动恢复到初始状态; 使用中出现异常需调用 {@link #invalidate()} 丢弃当前线程缓存
+ *     密钥 ( 及持有密钥的 Mac、Cipher ) 会一直保留在线程 ( 含线程池线程 ) 的 ThreadLocal 中,
+ *     直到该线程调用 {@link #invalidate()} 或线程结束
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class CryptoCache {
+
+    private CryptoCache() {
+    }
+
+    /** 每个线程缓存的已初始化 Mac、Cipher 最大数量 */
+    private static final int MAX_KEYED_ENTRIES = 16;
+
+    /** 线程内缓存 */
+    private static final ThreadLocal<Holder> HOLDER = new ThreadLocal<Holder>() {
+        @Override
+        protected Holder initialValue() {
+            return new Holder();
+        }
+    };
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 获取 MessageDigest ( 已重置 )
+     *
+     * @param algorithm 算法
+     *
+     * @return {@link MessageDigest}
+     *
+     * @throws Exception 算法不存在时抛出
+     */
+    public static MessageDigest getDigest(final String algorithm)
+        throws Exception {
+        Map<String, MessageDigest> digests = HOLDER.get().digests;
+        MessageDigest              digest  = digests.get(algorithm);
+        if (digest == null) {
+            digest = MessageDigest.getInstance(algorithm);
+            digests.put(algorithm, digest);
+        } else {
+            digest.reset();
+        }
+        return digest;
+    }
+
+    /**
+     * 获取已初始化的 Mac
+     *
+     * @param algorithm 算法
+     * @param key       密钥
+     *
+     * @return {@link Mac}
+     *
+     * @throws Exception 算法不存在、密钥无效时抛出
+     */
+    public static Mac getMac(
+        final String algorithm,
+        final byte[] key
+    )
+        throws Exception {
+        Map<EntryKey, Mac> macs     = HOLDER.get().macs;
+        EntryKey           entryKey = new EntryKey(algorithm, algorithm, 0, key, null);
+        Mac                mac      = macs.get(entryKey);
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key, algorithm));
+            macs.put(entryKey.copy(), mac);
+        } else {
+            mac.reset();
+        }
+        return mac;
+    }
+
+    /**
+     * 获取已初始化的 Cipher
+     * <pre>
+     *     GCM 等 AEAD 模式不复用 Cipher ( 同一密钥 + IV 重复初始化加密会被拒绝 ), 每次创建并初始化, 仅复用密钥
+     *     非 ECB 模式未传入 IV 加密时不复用 Cipher ( 每次由 init 生成新的随机 IV )
+     * </pre>
+     *
+     * @param transformation {@link Cipher#getInstance} transformation
+     * @param algorithm      算法
+     * @param key            密钥
+     * @param iv             算法参数, 可为 null
+     * @param mode           {@link Cipher#ENCRYPT_MODE}、{@link Cipher#DECRYPT_MODE}
+     *
+     * @return {@link Cipher}
+     *
+     * @throws Exception 算法不存在、密钥无效时抛出
+     */
+    public static Cipher getCipher(
+        final String transformation,
+        final String algorithm,
+        final byte[] key,
+        final byte[] iv,
+        final int mode
+    )
+        throws Exception {
+        Holder holder = HOLDER.get();
+        if (isAead(transformation) || isRandomIv(transformation, iv, mode)) {
+            Cipher    cipher    = Cipher.getInstance(transformation);
+            SecretKey secretKey = getCachedSecretKey(holder, algorithm, key);
+            if (iv == null || iv.length == 0) {
+                cipher.init(mode, secretKey);
+            } else {
+                cipher.init(mode, secretKey, new IvParameterSpec(iv));
+            }
+            return cipher;
+        }
+        EntryKey    entryKey = new EntryKey(transformation, algorithm, mode, key, iv);
+        CipherEntry entry    = holder.ciphers.get(entryKey);
+        if (entry != null) {
+            return entry.cipher;
+        }
+        Cipher    cipher    = Cipher.getInstance(transformation);
+        SecretKey secretKey = getCachedSecretKey(holder, algorithm, key);
+        if (iv == null || iv.length == 0) {
+            cipher.init(mode, secretKey);
+        } else {
+            cipher.init(mode, secretKey, new IvParameterSpec(iv));
+        }
+        holder.ciphers.put(entryKey.copy(), new CipherEntry(cipher));
+        return cipher;
+    }
+
+    /**
+     * 获取 SecretKey ( DES 通过 SecretKeyFactory 生成 )
+     *
+     * @param algorithm 算法
+     * @param key       密钥
+     *
+     * @return {@link SecretKey}
+     *
+     * @throws Exception 算法不存在、密钥无效时抛出
+     */
+    public static SecretKey getSecretKey(
+        final String algorithm,
+        final byte[] key
+    )
+        throws Exception {
+        if ("DES".equals(algorithm)) {
+            return SecretKeyFactory.getInstance(algorithm).generateSecret(new DESKeySpec(key));
+        }
+        return new SecretKeySpec(key, algorithm);
+    }
+
+    /**
+     * 丢弃当前线程全部缓存 ( 使用中出现异常或需清除内存中的密钥时调用 )
+     */
+    public static void invalidate() {
+        HOLDER.remove();
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 是否 AEAD 模式 ( GCM、CCM、ChaCha20-Poly1305 )
+     *
+     * @param transformation {@link Cipher#getInstance} transformation
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isAead(final String transformation) {
+        String upper = transformation.toUpperCase();
+        return upper.contains("GCM") || upper.contains("CCM") || upper.contains("POLY1305");
+    }
+
+    /**
+     * 是否由 init 生成随机 IV ( 非 ECB 模式未传入 IV 加密 )
+     *
+     * @param transformation {@link Cipher#getInstance} transformation
+     * @param iv             算法参数, 可为 null
+     * @param mode           {@link Cipher#ENCRYPT_MODE}、{@link Cipher#DECRYPT_MODE}
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isRandomIv(
+        final String transformation,
+        final byte[] iv,
+        final int mode
+    ) {
+        if (mode != Cipher.ENCRYPT_MODE || (iv != null && iv.length != 0)) {
+            return false;
+        }
+        // 仅算法名 ( 如 AES、DES ) 默认 ECB 模式
+        String[] parts = transformation.split("/");
+        if (parts.length < 2) {
+            return false;
+        }
+        String cipherMode = parts[1].trim().toUpperCase();
+        return !"ECB".equals(cipherMode) && !"NONE".equals(cipherMode);
+    }
+
+    /**
+     * 获取缓存的 SecretKey
+     *
+     * @param holder    线程内缓存
+     * @param algorithm 算法
+     * @param key       密钥
+     *
+     * @return {@link SecretKey}
+     *
+     * @throws Exception 算法不存在、密钥无效时抛出
+     */
+    private static SecretKey getCachedSecretKey(
+        final Holder holder,
+        final String algorithm,
+        final byte[] key
+    )
+        throws Exception {
+        EntryKey  entryKey  = new EntryKey(algorithm, algorithm, 0, key, null);
+        SecretKey secretKey = holder.keys.get(entryKey);
+        if (secretKey == null) {
+            secretKey = getSecretKey(algorithm, key);
+            holder.keys.put(entryKey.copy(), secretKey);
+        }
+        return secretKey;
+    }
+
+    /**
+     * 线程内缓存
+     */
+    private static final class Holder {
+
+        final Map<String, MessageDigest> digests = new HashMap<>();
+        final Map<EntryKey, Mac>         macs    = new LruMap<>();
+        final Map<EntryKey, CipherEntry> ciphers = new LruMap<>();
+        final Map<EntryKey, SecretKey>   keys    = new LruMap<>();
+    }
+
+    /**
+     * 最近最少使用淘汰 Map
+     */
+    private static final class LruMap<K, V>
+        extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 7101858515483641652L;
+
+        LruMap() {
+            super(MAX_KEYED_ENTRIES, 0.75F, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > MAX_KEYED_ENTRIES;
+        }
+    }
+
+    /**
+     * 已初始化 Cipher
+     */
+    private static final class CipherEntry {
+
+        final Cipher cipher;
+
+        CipherEntry(final Cipher cipher) {
+            this.cipher = cipher;
+        }
+    }
+
+    /**
+     * 缓存键 ( 算法 + 密钥算法 + 模式 + 密钥 + IV )
+     */
+    private static final class EntryKey {
+
+        final String name;
+        final String algorithm;
+        final int    mode;
+        final byte[] key;
+        final byte[] iv;
+        final int    hash;
+
+        EntryKey(
+            final String name,
+            final String algorithm,
+            final int mode,
+            final byte[] key,
+            final byte[] iv
+        ) {
+            this.name = name;
+            this.algorithm = algorithm;
+            this.mode = mode;
+            this.key = key;
+            this.iv = (iv == null || iv.length == 0) ? null : iv;
+            this.hash = (((name.hashCode() * 31 + algorithm.hashCode()) * 31 + mode) * 31
+                + Arrays.hashCode(key)) * 31 + Arrays.hashCode(this.iv);
+        }
+
+        /**
+         * 复制键 ( 存入缓存时复制数组, 避免调用方修改 )
+         *
+         * @return {@link EntryKey}
+         */
+        EntryKey copy() {
+            return new EntryKey(name, algorithm, mode, key.clone(), (iv != null) ? iv.clone() : null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey other = (EntryKey) o;
+            return hash == other.hash && mode == other.mode && name.equals(other.name)
+                && algorithm.equals(other.algorithm) && Arrays.equals(key, other.key) && Arrays.equals(iv, other.iv);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,26 +1,16 @@
 package kayroc.java.utils.encrypt;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.security.DigestInputStream;
 import java.security.Key;
 import java.security.KeyFactory;
-import java.security.MessageDigest;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 
 import javax.crypto.Cipher;
-import javax.crypto.Mac;
-import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.DESKeySpec;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
 
 import kayroc.android.utils.LogUtils;
 import kayroc.java.utils.ArrayUtils;
-import kayroc.java.utils.CloseUtils;
 import kayroc.java.utils.ConvertUtils;
 import kayroc.java.utils.StringUtils;
 import kayroc.java.utils.cipher.Base64;
@@ -211,25 +201,8 @@ public final class EncryptUtils {
         if (file == null) {
             return null;
         }
-        DigestInputStream dis = null;
-        try {
-            FileInputStream fis = new FileInputStream(file);
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            dis = new DigestInputStream(fis, digest);
-            byte[] buffer = new byte[256 * 1024];
-            while (true) {
-                if (!(dis.read(buffer) > 0)) {
-                    break;
-                }
-            }
-            digest = dis.getMessageDigest();
-            return digest.digest();
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-            return null;
-        } finally {
-            CloseUtils.closeIOQuietly(dis);
-        }
+        HashEngine.Result result = HashEngine.hash(file, "MD5");
+        return (result != null) ? result.get("MD5") : null;
     }
 
     // =
@@ -438,10 +411,9 @@ public final class EncryptUtils {
             return null;
         }
         try {
-            MessageDigest digest = MessageDigest.getInstance(algorithm);
-            digest.update(data);
-            return digest.digest();
+            return CryptoCache.getDigest(algorithm).digest(data);
         } catch (Exception e) {
+            CryptoCache.invalidate();
             LogUtils.e(e.getMessage());
             return null;
         }
@@ -765,11 +737,9 @@ public final class EncryptUtils {
             return null;
         }
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(key, algorithm);
-            Mac mac = Mac.getInstance(algorithm);
-            mac.init(secretKey);
-            return mac.doFinal(data);
+            return CryptoCache.getMac(algorithm, key).doFinal(data);
         } catch (Exception e) {
+            CryptoCache.invalidate();
             LogUtils.e(e.getMessage());
             return null;
         }
@@ -1153,23 +1123,15 @@ public final class EncryptUtils {
             return null;
         }
         try {
-            SecretKey secretKey;
-            if ("DES".equals(algorithm)) {
-                DESKeySpec desKey = new DESKeySpec(key);
-                SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(algorithm);
-                secretKey = keyFactory.generateSecret(desKey);
-            } else {
-                secretKey = new SecretKeySpec(key, algorithm);
-            }
-            Cipher cipher = Cipher.getInstance(transformation);
-            if (iv == null || iv.length == 0) {
-                cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, secretKey);
-            } else {
-                AlgorithmParameterSpec params = new IvParameterSpec(iv);
-                cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, secretKey, params);
-            }
+            // 复用当前线程已初始化的 Cipher ( 相同算法、密钥、IV、模式 )
+            Cipher cipher = CryptoCache.getCipher(
+                transformation, algorithm, key, iv,
+                isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE
+            );
             return cipher.doFinal(data);
         } catch (Exception e) {
+            // 异常后 Cipher 状态不确定, 丢弃缓存
+            CryptoCache.invalidate();
             LogUtils.e(e.getMessage());
             return null;
         }
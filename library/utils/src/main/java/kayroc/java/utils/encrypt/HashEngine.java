@@ -0,0 +1,490 @@
+package kayroc.java.utils.encrypt;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
+import kayroc.java.utils.ConvertUtils;
+
+/**
+ * 文件哈希计算
+ *
+ * @author kayroc
+ * <pre>
+ *     统一文件哈希计算, 一次读取同时计算多个摘要 ( 如 MD5 + SHA-256 + CRC32 )
+ *     支持多文件并行计算, 以及大文件分块并行计算的树哈希 ( 块摘要拼接后再计算一次摘要 )
+ *     <p></p>
+ *     算法: MessageDigest 支持的算法 ( MD5、SHA-1、SHA-256 等 ) 以及 {@link #CRC32}、{@link #ADLER32}
+ *     HashEngine.Result result = HashEngine.hash(file, "MD5", "SHA-256", HashEngine.CRC32);
+ *     String md5 = result.getHex("MD5");
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class HashEngine {
+
+    private HashEngine() {
+    }
+
+    /** CRC32 校验 */
+    public static final String CRC32   = "CRC32";
+    /** Adler32 校验 */
+    public static final String ADLER32 = "Adler32";
+
+    /** 树哈希默认分块大小 */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /** 读取缓冲区最大大小 */
+    private static final int BUFFER_SIZE     = 1024 * 1024;
+    /** 多文件并行计算单任务文件数 */
+    private static final int FILES_THRESHOLD = 4;
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 计算文件哈希 ( 一次读取计算多个算法 )
+     *
+     * @param file       文件
+     * @param algorithms 算法
+     *
+     * @return {@link Result}, 失败返回 null
+     */
+    public static Result hash(
+        final File file,
+        final String... algorithms
+    ) {
+        if (file == null || algorithms == null || algorithms.length == 0) {
+            return null;
+        }
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            FileChannel channel = fis.getChannel();
+            Hasher      hasher  = new Hasher(algorithms);
+            hasher.update(channel, 0L, channel.size());
+            return new Result(file, algorithms, hasher.finish());
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            return null;
+        } finally {
+            CloseUtils.closeIOQuietly(fis);
+        }
+    }
+
+    /**
+     * 并行计算多个文件哈希
+     *
+     * @param files      文件集合
+     * @param algorithms 算法
+     *
+     * @return 与 files 顺序对应的 {@link Result}, 单个文件失败对应位置为 null
+     */
+    public static List<Result> hashFiles(
+        final List<File> files,
+        final String... algorithms
+    ) {
+        return hashFiles(files, ForkJoinPool.commonPool(), algorithms);
+    }
+
+    /**
+     * 并行计算多个文件哈希
+     *
+     * @param files      文件集合
+     * @param pool       {@link ForkJoinPool}
+     * @param algorithms 算法
+     *
+     * @return 与 files 顺序对应的 {@link Result}, 单个文件失败对应位置为 null
+     */
+    public static List<Result> hashFiles(
+        final List<File> files,
+        final ForkJoinPool pool,
+        final String... algorithms
+    ) {
+        if (files == null || pool == null) {
+            return null;
+        }
+        Result[] results = new Result[files.size()];
+        pool.invoke(new FilesTask(files, algorithms, results, 0, results.length));
+        List<Result> list = new ArrayList<>(results.length);
+        for (Result result : results) {
+            list.add(result);
+        }
+        return list;
+    }
+
+    /**
+     * 计算文件树哈希 ( 分块并行计算 )
+     *
+     * @param file      文件
+     * @param algorithm 算法
+     *
+     * @return 树哈希值, 失败返回 null
+     */
+    public static byte[] treeHash(
+        final File file,
+        final String algorithm
+    ) {
+        return treeHash(file, algorithm, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 计算文件树哈希 ( 分块并行计算 )
+     * <pre>
+     *     每 chunkSize 字节计算一个块摘要, 按顺序拼接后再计算一次摘要作为结果
+     *     结果与整体摘要不同, 仅可与相同算法、相同分块大小的树哈希比较
+     *     文件不超过一个分块时, 结果为块摘要的摘要
+     * </pre>
+     *
+     * @param file      文件
+     * @param algorithm 算法
+     * @param chunkSize 分块大小
+     * @param pool      {@link ForkJoinPool}
+     *
+     * @return 树哈希值, 失败返回 null
+     */
+    public static byte[] treeHash(
+        final File file,
+        final String algorithm,
+        final int chunkSize,
+        final ForkJoinPool pool
+    ) {
+        if (file == null || algorithm == null || chunkSize <= 0 || pool == null) {
+            return null;
+        }
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            FileChannel channel = fis.getChannel();
+            long        size    = channel.size();
+            int         chunks  = (int) Math.max((size + chunkSize - 1) / chunkSize, 1L);
+            byte[][]    digests = new byte[chunks][];
+            pool.invoke(new ChunkTask(channel, algorithm, chunkSize, size, digests, 0, chunks));
+            MessageDigest root = MessageDigest.getInstance(algorithm);
+            for (byte[] digest : digests) {
+                root.update(digest);
+            }
+            return root.digest();
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            return null;
+        } finally {
+            CloseUtils.closeIOQuietly(fis);
+        }
+    }
+
+    /**
+     * 计算文件树哈希 ( 分块并行计算 )
+     *
+     * @param file      文件
+     * @param algorithm 算法
+     *
+     * @return 树哈希值转十六进制字符串
+     */
+    public static String treeHashToHexString(
+        final File file,
+        final String algorithm
+    ) {
+        return ConvertUtils.toHexString(treeHash(file, algorithm));
+    }
+
+    // ==========
+    // = 计算结果 =
+    // ==========
+
+    /**
+     * 哈希计算结果
+     *
+     * @author kayroc
+     */
+    public static final class Result {
+
+        /** 文件 */
+        private final File     mFile;
+        /** 算法 */
+        private final String[] mAlgorithms;
+        /** 计算结果 ( 与算法顺序对应 ) */
+        private final byte[][] mValues;
+
+        private Result(
+            final File file,
+            final String[] algorithms,
+            final byte[][] values
+        ) {
+            this.mFile = file;
+            this.mAlgorithms = algorithms;
+            this.mValues = values;
+        }
+
+        /**
+         * 获取文件
+         *
+         * @return 文件
+         */
+        public File getFile() {
+            return mFile;
+        }
+
+        /**
+         * 获取计算结果
+         *
+         * @param algorithm 算法
+         *
+         * @return 计算结果, 未计算该算法返回 null ( Checksum 为 8 字节大端 long )
+         */
+        public byte[] get(final String algorithm) {
+            for (int i = 0; i < mAlgorithms.length; i++) {
+                if (mAlgorithms[i].equalsIgnoreCase(algorithm)) {
+                    return mValues[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 获取计算结果十六进制字符串
+         * <pre>
+         *     Checksum 算法与 CRCUtils 一致 ( Long.toHexString )
+         * </pre>
+         *
+         * @param algorithm 算法
+         *
+         * @return 计算结果十六进制字符串
+         */
+        public String getHex(final String algorithm) {
+            if (isChecksum(algorithm)) {
+                return Long.toHexString(getValue(algorithm));
+            }
+            return ConvertUtils.toHexString(get(algorithm));
+        }
+
+        /**
+         * 获取 Checksum 计算结果
+         *
+         * @param algorithm {@link #CRC32}、{@link #ADLER32}
+         *
+         * @return Checksum 值, 未计算该算法返回 -1
+         */
+        public long getValue(final String algorithm) {
+            byte[] value = get(algorithm);
+            if (value == null || value.length != 8) {
+                return -1L;
+            }
+            long result = 0L;
+            for (byte b : value) {
+                result = (result << 8) | (b & 0xFFL);
+            }
+            return result;
+        }
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 是否 Checksum 算法
+     *
+     * @param algorithm 算法
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isChecksum(final String algorithm) {
+        return CRC32.equalsIgnoreCase(algorithm) || ADLER32.equalsIgnoreCase(algorithm);
+    }
+
+    /**
+     * 多算法同时计算
+     */
+    private static final class Hasher {
+
+        private final MessageDigest[] digests;
+        private final Checksum[]      checksums;
+
+        Hasher(final String[] algorithms)
+            throws Exception {
+            digests = new MessageDigest[algorithms.length];
+            checksums = new Checksum[algorithms.length];
+            for (int i = 0; i < algorithms.length; i++) {
+                if (CRC32.equalsIgnoreCase(algorithms[i])) {
+                    checksums[i] = new CRC32();
+                } else if (ADLER32.equalsIgnoreCase(algorithms[i])) {
+                    checksums[i] = new Adler32();
+                } else {
+                    digests[i] = MessageDigest.getInstance(algorithms[i]);
+                }
+            }
+        }
+
+        /**
+         * 读取文件区间并更新全部算法 ( 按位置读取, 可多线程共享 FileChannel )
+         *
+         * @param channel  {@link FileChannel}
+         * @param position 起始位置
+         * @param length   读取长度
+         *
+         * @throws Exception 读取失败
+         */
+        void update(
+            final FileChannel channel,
+            final long position,
+            final long length
+        )
+            throws Exception {
+            // 按读取长度分配 ( 堆内存, 可直接传入 Checksum.update(byte[]) ), 不长期占用线程内存
+            byte[]     array  = new byte[(int) Math.max(Math.min(BUFFER_SIZE, length), 1L)];
+            ByteBuffer buffer = ByteBuffer.wrap(array);
+            long       offset = position;
+            long       end    = position + length;
+            while (offset < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(array.length, end - offset));
+                int read = channel.read(buffer, offset);
+                if (read < 0) {
+                    break;
+                }
+                offset += read;
+                for (int i = 0; i < digests.length; i++) {
+                    if (digests[i] != null) {
+                        digests[i].update(array, 0, read);
+                    } else {
+                        checksums[i].update(array, 0, read);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 获取计算结果
+         *
+         * @return 与算法顺序对应的结果
+         */
+        byte[][] finish() {
+            byte[][] values = new byte[digests.length][];
+            for (int i = 0; i < digests.length; i++) {
+                if (digests[i] != null) {
+                    values[i] = digests[i].digest();
+                } else {
+                    long   value = checksums[i].getValue();
+                    byte[] bytes = new byte[8];
+                    for (int j = 7; j >= 0; j--) {
+                        bytes[j] = (byte) value;
+                        value >>>= 8;
+                    }
+                    values[i] = bytes;
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * 多文件并行计算任务
+     */
+    private static final class FilesTask
+        extends RecursiveAction {
+
+        private static final long serialVersionUID = 8729567879140088506L;
+
+        private final List<File> files;
+        private final String[]   algorithms;
+        private final Result[]   results;
+        private final int        from;
+        private final int        to;
+
+        FilesTask(
+            final List<File> files,
+            final String[] algorithms,
+            final Result[] results,
+            final int from,
+            final int to
+        ) {
+            this.files = files;
+            this.algorithms = algorithms;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = hash(files.get(i), algorithms);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new FilesTask(files, algorithms, results, from, middle),
+                new FilesTask(files, algorithms, results, middle, to)
+            );
+        }
+    }
+
+    /**
+     * 分块并行计算任务
+     */
+    private static final class ChunkTask
+        extends RecursiveAction {
+
+        private static final long serialVersionUID = 1347491779211998985L;
+
+        private final FileChannel channel;
+        private final String      algorithm;
+        private final int         chunkSize;
+        private final long        size;
+        private final byte[][]    digests;
+        private final int         from;
+        private final int         to;
+
+        ChunkTask(
+            final FileChannel channel,
+            final String algorithm,
+            final int chunkSize,
+            final long size,
+            final byte[][] digests,
+            final int from,
+            final int to
+        ) {
+            this.channel = channel;
+            this.algorithm = algorithm;
+            this.chunkSize = chunkSize;
+            this.size = size;
+            this.digests = digests;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                try {
+                    long   position = (long) from * chunkSize;
+                    Hasher hasher   = new Hasher(new String[]{algorithm});
+                    hasher.update(channel, position, Math.max(Math.min(chunkSize, size - position), 0L));
+                    digests[from] = hasher.finish()[0];
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new ChunkTask(channel, algorithm, chunkSize, size, digests, from, middle),
+                new ChunkTask(channel, algorithm, chunkSize, size, digests, middle, to)
+            );
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package kayroc.java.utils.encrypt;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 
 import kayroc.android.utils.LogUtils;
-import kayroc.java.utils.CloseUtils;
 import kayroc.java.utils.ConvertUtils;
 import kayroc.java.utils.StringUtils;
 
@@ -158,24 +155,7 @@ public final class MD5Utils {
         if (file == null) {
             return null;
         }
-        DigestInputStream dis = null;
-        try {
-            FileInputStream fis = new FileInputStream(file);
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            dis = new DigestInputStream(fis, digest);
-            byte[] buffer = new byte[256 * 1024];
-            while (true) {
-                if (!(dis.read(buffer) > 0)) {
-                    break;
-                }
-            }
-            digest = dis.getMessageDigest();
-            return digest.digest();
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-            return null;
-        } finally {
-            CloseUtils.closeIOQuietly(dis);
-        }
+        HashEngine.Result result = HashEngine.hash(file, "MD5");
+        return (result != null) ? result.get("MD5") : null;
     }
 }
\ No newline at end of file
@@ -1,12 +1,9 @@
 package kayroc.java.utils.encrypt;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.security.MessageDigest;
 
 import kayroc.android.utils.LogUtils;
-import kayroc.java.utils.CloseUtils;
 import kayroc.java.utils.ConvertUtils;
 import kayroc.java.utils.StringUtils;
 
@@ -171,21 +168,7 @@ public final class SHAUtils {
         if (file == null || algorithm == null) {
             return null;
         }
-        InputStream is = null;
-        try {
-            is = new FileInputStream(file);
-            byte[] buffer = new byte[1024];
-            MessageDigest digest = MessageDigest.getInstance(algorithm);
-            int numRead;
-            while ((numRead = is.read(buffer)) > 0) {
-                digest.update(buffer, 0, numRead);
-            }
-            return ConvertUtils.toHexString(digest.digest(), true);
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-        } finally {
-            CloseUtils.closeIOQuietly(is);
-        }
-        return null;
+        HashEngine.Result result = HashEngine.hash(file, algorithm);
+        return (result != null) ? ConvertUtils.toHexString(result.get(algorithm), true) : null;
     }
 }
\ No newline at end of file
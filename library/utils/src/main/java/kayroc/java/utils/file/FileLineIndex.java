@@ -0,0 +1,719 @@
+package kayroc.java.utils.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
+import kayroc.java.utils.FileUtils;
+import kayroc.java.utils.StringUtils;
+
+/**
+ * 文件行索引
+ *
+ * @author kayroc
+ * <pre>
+ *     通过内存映射 + ForkJoinPool 分段并行统计换行符, 每次读取 8 字节 ( SWAR ) 进行比较
+ *     可构建稀疏行偏移索引 ( 每 step 行记录一次起始位置 ), 并持久化到文件
+ *     按行范围读取时可直接定位到指定行, 无需从头扫描
+ *     <p></p>
+ *     行以 '\n' 分隔 ( "\r\n" 同样适用 ), 行号从 1 开始
+ *     不支持仅以 '\r' 换行的文件 ( BufferedReader.readLine 会将 '\r' 视为换行, 与索引行号不一致 )
+ *     按字节统计换行符, 仅适用于 '\r'、'\n' 编码为单字节的字符编码 ( UTF-8、GBK 等 ), 见 {@link #isSupportedCharset(String)}
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class FileLineIndex {
+
+    /** 索引文件魔数 */
+    private static final int  MAGIC          = 0x4C494458;
+    /** 索引文件版本 */
+    private static final int  VERSION        = 1;
+    /** 默认索引间隔行数 */
+    public static final  int  DEFAULT_STEP   = 1024;
+    /** 分段最小字节数 ( 小于该值不再拆分 ) */
+    private static final long MIN_SEGMENT    = 1048576L;
+    /** 分段最大字节数 ( 单次映射上限 ) */
+    private static final long MAX_SEGMENT    = 268435456L;
+    /** SWAR 常量 */
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /** 源文件 */
+    private final File   mFile;
+    /** 源文件大小 ( 构建时 ) */
+    private final long   mFileLength;
+    /** 源文件修改时间 ( 构建时 ) */
+    private final long   mLastModified;
+    /** 索引间隔行数 */
+    private final int    mStep;
+    /** 换行符数量 */
+    private final long   mNewLineCount;
+    /** 稀疏行偏移 ( 第 i 项为第 i * step + 1 行的起始位置 ) */
+    private final long[] mOffsets;
+
+    private FileLineIndex(
+        final File file,
+        final long fileLength,
+        final long lastModified,
+        final int step,
+        final long newLineCount,
+        final long[] offsets
+    ) {
+        this.mFile = file;
+        this.mFileLength = fileLength;
+        this.mLastModified = lastModified;
+        this.mStep = step;
+        this.mNewLineCount = newLineCount;
+        this.mOffsets = offsets;
+    }
+
+    // ==========
+    // = 行数统计 =
+    // ==========
+
+    /**
+     * 统计文件中指定字节出现次数
+     *
+     * @param file   文件
+     * @param target 目标字节 ( 如 '\n' )
+     *
+     * @return 出现次数, 失败返回 -1
+     */
+    public static long countBytes(
+        final File file,
+        final byte target
+    ) {
+        return countBytes(file, target, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 统计文件中指定字节出现次数 ( 内存映射分段并行 )
+     *
+     * @param file   文件
+     * @param target 目标字节 ( 如 '\n' )
+     * @param pool   {@link ForkJoinPool}
+     *
+     * @return 出现次数, 失败返回 -1
+     */
+    public static long countBytes(
+        final File file,
+        final byte target,
+        final ForkJoinPool pool
+    ) {
+        if (!FileUtils.isFile(file) || pool == null) {
+            return -1L;
+        }
+        RandomAccessFile raf = null;
+        FileChannel channel = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            channel = raf.getChannel();
+            long size = channel.size();
+            if (size == 0L) {
+                return 0L;
+            }
+            return pool.invoke(new CountTask(
+                channel, target, 0L, size, getSegmentSize(size, pool.getParallelism())
+            ));
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(channel, raf);
+        }
+        return -1L;
+    }
+
+    /**
+     * 获取文件行数 ( 换行符数量 + 1, 与 {@link FileUtils#getFileLines(File)} 一致 )
+     *
+     * @param file 文件
+     *
+     * @return 文件行数, 失败返回 -1
+     */
+    public static long countLines(final File file) {
+        byte target = StringUtils.NEW_LINE_STR.endsWith("\n") ? (byte) '\n' : (byte) '\r';
+        long count = countBytes(file, target);
+        return count < 0L ? -1L : count + 1L;
+    }
+
+    // ==========
+    // = 索引构建 =
+    // ==========
+
+    /**
+     * 构建行索引
+     *
+     * @param file 文件
+     *
+     * @return {@link FileLineIndex}
+     */
+    public static FileLineIndex build(final File file) {
+        return build(file, DEFAULT_STEP, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 构建行索引
+     * <pre>
+     *     第一遍并行统计各分段换行数, 第二遍按全局行号并行记录采样行的起始位置
+     *     索引内存占用约为 ( 行数 / step ) * 8 字节
+     * </pre>
+     *
+     * @param file 文件
+     * @param step 索引间隔行数
+     * @param pool {@link ForkJoinPool}
+     *
+     * @return {@link FileLineIndex}
+     */
+    public static FileLineIndex build(
+        final File file,
+        final int step,
+        final ForkJoinPool pool
+    ) {
+        if (!FileUtils.isFile(file) || step <= 0 || pool == null) {
+            return null;
+        }
+        RandomAccessFile raf = null;
+        FileChannel channel = null;
+        try {
+            long lastModified = file.lastModified();
+            raf = new RandomAccessFile(file, "r");
+            channel = raf.getChannel();
+            long size = channel.size();
+            long segment = getSegmentSize(size, pool.getParallelism());
+            int segmentCount = (int) ((size + segment - 1) / segment);
+            // 第一遍: 各分段换行数
+            final long[] counts = new long[segmentCount];
+            List<RecursiveTask<Long>> tasks = new ArrayList<>(segmentCount);
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * segment;
+                tasks.add(new CountTask(channel, (byte) '\n', start, Math.min(segment, size - start), segment));
+            }
+            for (RecursiveTask<Long> task : tasks) {
+                pool.execute(task);
+            }
+            long total = 0L;
+            for (int i = 0; i < segmentCount; i++) {
+                counts[i] = tasks.get(i).join();
+                total += counts[i];
+            }
+            // 第二遍: 采样行起始位置 ( 第 k * step + 1 行, 即第 k * step 个换行符之后 )
+            long[] offsets = new long[(int) (total / step) + 1];
+            offsets[0] = 0L;
+            List<IndexTask> indexTasks = new ArrayList<>(segmentCount);
+            long before = 0L;
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * segment;
+                IndexTask task = new IndexTask(
+                    channel, start, Math.min(segment, size - start), before, step, offsets
+                );
+                indexTasks.add(task);
+                pool.execute(task);
+                before += counts[i];
+            }
+            for (IndexTask task : indexTasks) {
+                task.join();
+            }
+            return new FileLineIndex(file, size, lastModified, step, total, offsets);
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(channel, raf);
+        }
+        return null;
+    }
+
+    // ==========
+    // = 索引存储 =
+    // ==========
+
+    /**
+     * 保存索引到文件
+     *
+     * @param indexFile 索引文件
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public boolean save(final File indexFile) {
+        if (indexFile == null) {
+            return false;
+        }
+        FileUtils.createFolderByPath(indexFile);
+        DataOutputStream dos = null;
+        try {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeLong(mFileLength);
+            dos.writeLong(mLastModified);
+            dos.writeInt(mStep);
+            dos.writeLong(mNewLineCount);
+            dos.writeInt(mOffsets.length);
+            for (long offset : mOffsets) {
+                dos.writeLong(offset);
+            }
+            dos.flush();
+            return true;
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(dos);
+        }
+        return false;
+    }
+
+    /**
+     * 从文件加载索引
+     * <pre>
+     *     源文件大小或修改时间与索引不一致时视为失效, 返回 null
+     * </pre>
+     *
+     * @param file      源文件
+     * @param indexFile 索引文件
+     *
+     * @return {@link FileLineIndex}
+     */
+    public static FileLineIndex load(
+        final File file,
+        final File indexFile
+    ) {
+        if (!FileUtils.isFile(file) || !FileUtils.isFile(indexFile)) {
+            return null;
+        }
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                return null;
+            }
+            long fileLength   = dis.readLong();
+            long lastModified = dis.readLong();
+            if (fileLength != file.length() || lastModified != file.lastModified()) {
+                return null;
+            }
+            int step = dis.readInt();
+            long newLineCount = dis.readLong();
+            int length = dis.readInt();
+            if (step <= 0 || length != (int) (newLineCount / step) + 1) {
+                return null;
+            }
+            long[] offsets = new long[length];
+            for (int i = 0; i < length; i++) {
+                offsets[i] = dis.readLong();
+            }
+            return new FileLineIndex(file, fileLength, lastModified, step, newLineCount, offsets);
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(dis);
+        }
+        return null;
+    }
+
+    /**
+     * 加载索引, 失效或不存在则重新构建并保存
+     *
+     * @param file      源文件
+     * @param indexFile 索引文件
+     *
+     * @return {@link FileLineIndex}
+     */
+    public static FileLineIndex loadOrBuild(
+        final File file,
+        final File indexFile
+    ) {
+        FileLineIndex index = load(file, indexFile);
+        if (index == null) {
+            index = build(file);
+            if (index != null) {
+                index.save(indexFile);
+            }
+        }
+        return index;
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 获取源文件
+     *
+     * @return {@link File}
+     */
+    public File getFile() {
+        return mFile;
+    }
+
+    /**
+     * 获取索引间隔行数
+     *
+     * @return 索引间隔行数
+     */
+    public int getStep() {
+        return mStep;
+    }
+
+    /**
+     * 获取换行符数量
+     *
+     * @return 换行符数量
+     */
+    public long getNewLineCount() {
+        return mNewLineCount;
+    }
+
+    /**
+     * 获取文件行数 ( 换行符数量 + 1 )
+     *
+     * @return 文件行数
+     */
+    public long getLineCount() {
+        return mNewLineCount + 1L;
+    }
+
+    /**
+     * 索引是否仍有效 ( 源文件未修改 )
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isValid() {
+        return mFile != null && mFile.length() == mFileLength
+            && mFile.lastModified() == mLastModified;
+    }
+
+    /**
+     * 获取采样偏移 ( 只读副本 )
+     *
+     * @return 采样偏移数组
+     */
+    public long[] getOffsets() {
+        return Arrays.copyOf(mOffsets, mOffsets.length);
+    }
+
+    /**
+     * 获取指定行起始位置
+     * <pre>
+     *     定位到最近的采样行后, 最多向后扫描 step - 1 行
+     * </pre>
+     *
+     * @param line 行号 ( 从 1 开始 )
+     *
+     * @return 起始位置, 超出范围返回 -1
+     */
+    public long getLineOffset(final long line) {
+        if (line < 1L || line > getLineCount()) {
+            return -1L;
+        }
+        long zeroLine = line - 1L;
+        int sample = (int) (zeroLine / mStep);
+        long offset = mOffsets[sample];
+        long skip = zeroLine - (long) sample * mStep;
+        if (skip == 0L) {
+            return offset;
+        }
+        RandomAccessFile raf = null;
+        FileChannel channel = null;
+        try {
+            raf = new RandomAccessFile(mFile, "r");
+            channel = raf.getChannel();
+            long size = channel.size();
+            while (offset < size) {
+                long length = Math.min(MIN_SEGMENT, size - offset);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n' && --skip == 0L) {
+                        return offset + i + 1;
+                    }
+                }
+                offset += length;
+            }
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        } finally {
+            CloseUtils.closeIOQuietly(channel, raf);
+        }
+        return -1L;
+    }
+
+    /**
+     * 读取指定行范围内容
+     *
+     * @param start       开始行 ( 从 1 开始 )
+     * @param end         结束行 ( 包含 )
+     * @param charsetName 字符编码
+     *
+     * @return 换行 {@link List<String>}, 字符编码不支持 ( 见 {@link #isSupportedCharset(String)} ) 返回 null
+     */
+    public List<String> readLines(
+        final long start,
+        final long end,
+        final String charsetName
+    ) {
+        if (start > end || start < 1L || !isSupportedCharset(charsetName)) {
+            return null;
+        }
+        List<String> list = new ArrayList<>();
+        long offset = getLineOffset(start);
+        if (offset < 0L) {
+            return list;
+        }
+        RandomAccessFile raf = null;
+        BufferedReader br = null;
+        try {
+            raf = new RandomAccessFile(mFile, "r");
+            raf.seek(offset);
+            if (StringUtils.isSpace(charsetName)) {
+                br = new BufferedReader(new InputStreamReader(Channels.newInputStream(raf.getChannel())));
+            } else {
+                br = new BufferedReader(new InputStreamReader(
+                    Channels.newInputStream(raf.getChannel()), charsetName
+                ));
+            }
+            String line;
+            long curLine = start;
+            while (curLine <= end && (line = br.readLine()) != null) {
+                list.add(line);
+                ++curLine;
+            }
+            return list;
+        } catch (IOException e) {
+            LogUtils.e(e.getMessage());
+            return null;
+        } finally {
+            CloseUtils.closeIOQuietly(br, raf);
+        }
+    }
+
+    /**
+     * 字符编码是否支持按字节索引行
+     * <pre>
+     *     '\r'、'\n' 需编码为单字节 0x0D、0x0A ( UTF-8、GBK、ISO-8859-1 等 )
+     *     UTF-16、UTF-32 等换行符为多字节, 定位会落在字符中间
+     * </pre>
+     *
+     * @param charsetName 字符编码, 为空使用默认编码
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public static boolean isSupportedCharset(final String charsetName) {
+        try {
+            Charset charset = StringUtils.isSpace(charsetName)
+                ? Charset.defaultCharset() : Charset.forName(charsetName);
+            return Arrays.equals("\r\n".getBytes(charset), new byte[]{'\r', '\n'});
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 获取分段大小
+     *
+     * @param size        文件大小
+     * @param parallelism 并行数
+     *
+     * @return 分段大小
+     */
+    private static long getSegmentSize(
+        final long size,
+        final int parallelism
+    ) {
+        long segment = size / (Math.max(parallelism, 1) * 4L);
+        return Math.max(MIN_SEGMENT, Math.min(MAX_SEGMENT, segment));
+    }
+
+    /**
+     * 获取 SWAR 匹配掩码 ( 匹配字节最高位为 1 )
+     * <pre>
+     *     word 与 pattern 异或后, 匹配字节为 0
+     *     ( x &amp; 0x7F ) + 0x7F 不会跨字节进位, 因此结果精确无误报
+     * </pre>
+     *
+     * @param word    8 字节数据
+     * @param pattern 目标字节重复 8 次
+     *
+     * @return 匹配掩码
+     */
+    private static long matchMask(
+        final long word,
+        final long pattern
+    ) {
+        long x = word ^ pattern;
+        return ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+    }
+
+    /**
+     * 获取字节重复 8 次的 long
+     *
+     * @param value 字节
+     *
+     * @return 重复值
+     */
+    private static long repeat(final byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
+    /**
+     * 分段统计任务
+     */
+    private static final class CountTask
+        extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 4533482114877628103L;
+
+        private final FileChannel channel;
+        private final byte        target;
+        private final long        start;
+        private final long        length;
+        private final long        segment;
+
+        CountTask(
+            final FileChannel channel,
+            final byte target,
+            final long start,
+            final long length,
+            final long segment
+        ) {
+            this.channel = channel;
+            this.target = target;
+            this.start = start;
+            this.length = length;
+            this.segment = segment;
+        }
+
+        @Override
+        protected Long compute() {
+            if (length > segment) {
+                long half = (length / 2 + 7) & ~7L;
+                CountTask left  = new CountTask(channel, target, start, half, segment);
+                CountTask right = new CountTask(channel, target, start + half, length - half, segment);
+                left.fork();
+                long rightCount = right.compute();
+                return left.join() + rightCount;
+            }
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                long pattern = repeat(target);
+                long count = 0L;
+                int len = (int) length;
+                int i = 0;
+                for (int words = len - 7; i < words; i += 8) {
+                    count += Long.bitCount(matchMask(buffer.getLong(i), pattern));
+                }
+                for (; i < len; i++) {
+                    if (buffer.get(i) == target) {
+                        ++count;
+                    }
+                }
+                return count;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 分段索引任务
+     */
+    private static final class IndexTask
+        extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 496637484853505728L;
+
+        private final FileChannel channel;
+        private final long        start;
+        private final long        length;
+        private final long        before;
+        private final int         step;
+        private final long[]      offsets;
+
+        /**
+         * 构造函数
+         *
+         * @param channel {@link FileChannel}
+         * @param start   分段起始位置
+         * @param length  分段长度
+         * @param before  分段之前的换行符数量
+         * @param step    索引间隔行数
+         * @param offsets 索引存储数组 ( 各分段写入不同下标 )
+         */
+        IndexTask(
+            final FileChannel channel,
+            final long start,
+            final long length,
+            final long before,
+            final int step,
+            final long[] offsets
+        ) {
+            this.channel = channel;
+            this.start = start;
+            this.length = length;
+            this.before = before;
+            this.step = step;
+            this.offsets = offsets;
+        }
+
+        @Override
+        protected Long compute() {
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                long pattern = repeat((byte) '\n');
+                long count = before;
+                int len = (int) length;
+                int i = 0;
+                for (int words = len - 7; i < words; i += 8) {
+                    long mask = matchMask(buffer.getLong(i), pattern);
+                    while (mask != 0L) {
+                        int index = i + (Long.numberOfTrailingZeros(mask) >>> 3);
+                        if (++count % step == 0L) {
+                            offsets[(int) (count / step)] = start + index + 1;
+                        }
+                        mask &= mask - 1L;
+                    }
+                }
+                for (; i < len; i++) {
+                    if (buffer.get(i) == '\n' && ++count % step == 0L) {
+                        offsets[(int) (count / step)] = start + i + 1;
+                    }
+                }
+                return count - before;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileLineIndex{" +
+            "file=" + mFile +
+            ", lineCount=" + getLineCount() +
+            ", step=" + mStep +
+            ", samples=" + mOffsets.length +
+            '}';
+    }
+}
@@ -0,0 +1,145 @@
+package kayroc.java.utils.file;
+
+/**
+ * 文件分片处理结果 ( 并行拆分、合并 )
+ *
+ * @author kayroc
+ */
+@SuppressWarnings("unused")
+public final class FilePartResult {
+
+    /** 分片索引 */
+    public final int partIndex;
+    /** 分片处理字节数 */
+    public final long byteLength;
+    /** 开始处理时间 ( 纳秒 ) */
+    public final long startNanos;
+    /** 结束处理时间 ( 纳秒 ) */
+    public final long endNanos;
+    /** 是否处理成功 */
+    public final boolean success;
+    /** 异常信息 */
+    public final Throwable error;
+
+    public FilePartResult(
+        int partIndex,
+        long byteLength,
+        long startNanos,
+        long endNanos,
+        boolean success,
+        Throwable error
+    ) {
+        this.partIndex = partIndex;
+        this.byteLength = byteLength;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.success = success;
+        this.error = error;
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 获取处理耗时 ( 纳秒 )
+     *
+     * @return 处理耗时 ( 纳秒 )
+     */
+    public long getCostNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * 获取处理耗时 ( 毫秒 )
+     *
+     * @return 处理耗时 ( 毫秒 )
+     */
+    public long getCostMillis() {
+        return getCostNanos() / 1000000L;
+    }
+
+    /**
+     * 获取处理速度 ( 字节 / 秒 )
+     *
+     * @return 处理速度 ( 字节 / 秒 )
+     */
+    public double getBytesPerSecond() {
+        long costNanos = getCostNanos();
+        if (costNanos <= 0L) {
+            return 0D;
+        }
+        return byteLength * 1000000000D / costNanos;
+    }
+
+    // =
+
+    /**
+     * 判断分片结果集合是否全部成功
+     *
+     * @param results 分片处理结果集合
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public static boolean isAllSuccess(final Iterable<FilePartResult> results) {
+        if (results == null) {
+            return false;
+        }
+        for (FilePartResult result : results) {
+            if (result == null || !result.success) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取分片结果集合总字节数
+     *
+     * @param results 分片处理结果集合
+     *
+     * @return 总字节数
+     */
+    public static long getTotalBytes(final Iterable<FilePartResult> results) {
+        long total = 0L;
+        if (results != null) {
+            for (FilePartResult result : results) {
+                if (result != null) {
+                    total += result.byteLength;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 获取分片结果集合整体耗时 ( 纳秒, 最早开始至最晚结束 )
+     *
+     * @param results 分片处理结果集合
+     *
+     * @return 整体耗时 ( 纳秒 )
+     */
+    public static long getWallNanos(final Iterable<FilePartResult> results) {
+        long start = Long.MAX_VALUE;
+        long end   = Long.MIN_VALUE;
+        if (results != null) {
+            for (FilePartResult result : results) {
+                if (result != null) {
+                    start = Math.min(start, result.startNanos);
+                    end = Math.max(end, result.endNanos);
+                }
+            }
+        }
+        return end > start ? end - start : 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "FilePartResult{" +
+            "partIndex=" + partIndex +
+            ", byteLength=" + byteLength +
+            ", costNanos=" + getCostNanos() +
+            ", success=" + success +
+            '}';
+    }
+}
@@ -6,11 +6,19 @@ import java.io.FileOutputStream;
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import kayroc.android.utils.LogUtils;
 import kayroc.java.utils.CloseUtils;
 import kayroc.java.utils.FileUtils;
+import kayroc.java.utils.thread.ThreadPool;
 
 
 /**
@@ -881,4 +889,410 @@ public final class FilePartUtils {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // ==========
+    // = 并行分片 =
+    // ==========
+
+    /**
+     * 并行文件拆分并存储
+     *
+     * @param filePath       文件路径
+     * @param assist         {@link FilePartAssist}
+     * @param destFolderPath 存储目标文件夹地址
+     *
+     * @return 分片处理结果集合 ( 按分片索引排序 )
+     */
+    public static List<FilePartResult> fileSplitSavesParallel(
+        final String filePath,
+        final FilePartAssist assist,
+        final String destFolderPath
+    ) {
+        return fileSplitSavesParallel(FileUtils.getFile(filePath), assist, destFolderPath, null);
+    }
+
+    /**
+     * 并行文件拆分并存储
+     *
+     * @param file           文件
+     * @param assist         {@link FilePartAssist}
+     * @param destFolderPath 存储目标文件夹地址
+     *
+     * @return 分片处理结果集合 ( 按分片索引排序 )
+     */
+    public static List<FilePartResult> fileSplitSavesParallel(
+        final File file,
+        final FilePartAssist assist,
+        final String destFolderPath
+    ) {
+        return fileSplitSavesParallel(file, assist, destFolderPath, null);
+    }
+
+    /**
+     * 并行文件拆分并存储
+     * <pre>
+     *     每个分片独立打开 FileChannel, 通过 transferTo 零拷贝写入, 不经过堆内存
+     *     executor 为 null 则创建临时线程池 ( 分片数与 CPU 线程数取小 ), 处理完成后关闭
+     * </pre>
+     *
+     * @param file           文件
+     * @param assist         {@link FilePartAssist}
+     * @param destFolderPath 存储目标文件夹地址
+     * @param executor       任务执行器
+     *
+     * @return 分片处理结果集合 ( 按分片索引排序 )
+     */
+    public static List<FilePartResult> fileSplitSavesParallel(
+        final File file,
+        final FilePartAssist assist,
+        final String destFolderPath,
+        final Executor executor
+    ) {
+        if (file == null || assist == null || destFolderPath == null) {
+            return null;
+        }
+        if (!assist.existsPart() || !file.exists()) {
+            return null;
+        }
+        final String fileName = FileUtils.getFileName(file);
+        if (fileName == null) {
+            return null;
+        }
+        FileUtils.createFolder(destFolderPath);
+        final List<FilePartItem> items   = assist.getFilePartItems();
+        final FilePartResult[]   results = new FilePartResult[items.size()];
+        final PartTask[]         tasks   = new PartTask[items.size()];
+        for (int i = 0, len = items.size(); i < len; i++) {
+            final FilePartItem item = items.get(i);
+            tasks[i] = new PartTask() {
+                @Override
+                public long run()
+                    throws Exception {
+                    File partFile = new File(destFolderPath, item.getPartName(fileName));
+                    // 删除旧分片, 防止残留数据
+                    FileUtils.deleteFile(partFile);
+                    return transferPart(file, item.start, item.end - item.start, partFile, 0L);
+                }
+            };
+        }
+        runParts(tasks, results, executor);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 并行分片合并
+     *
+     * @param filePath       文件路径
+     * @param assist         {@link FilePartAssist}
+     * @param destFolderPath 分片所在文件夹地址
+     * @param fileName       原文件名
+     *
+     * @return 分片处理结果集合 ( 按分片索引排序 )
+     */
+    public static List<FilePartResult> fileSplitMergeParallel(
+        final String filePath,
+        final FilePartAssist assist,
+        final String destFolderPath,
+        final String fileName
+    ) {
+        return fileSplitMergeParallel(FileUtils.getFile(filePath), assist, destFolderPath, fileName, null);
+    }
+
+    /**
+     * 并行分片合并
+     * <pre>
+     *     按 {@link FilePartItem#start} 定位写入, 每个分片独立打开 FileChannel, 从分片文件 transferTo 至目标文件的指定位置 ( 零拷贝 )
+     *     executor 为 null 则创建临时线程池 ( 分片数与 CPU 线程数取小 ), 处理完成后关闭
+     * </pre>
+     *
+     * @param file           文件
+     * @param assist         {@link FilePartAssist}
+     * @param destFolderPath 分片所在文件夹地址
+     * @param fileName       原文件名
+     * @param executor       任务执行器
+     *
+     * @return 分片处理结果集合 ( 按分片索引排序 )
+     */
+    public static List<FilePartResult> fileSplitMergeParallel(
+        final File file,
+        final FilePartAssist assist,
+        final String destFolderPath,
+        final String fileName,
+        final Executor executor
+    ) {
+        if (file == null || assist == null || destFolderPath == null || fileName == null) {
+            return null;
+        }
+        if (!assist.existsPart()) {
+            return null;
+        }
+        List<File>         files   = new ArrayList<>();
+        List<FilePartItem> items   = assist.getFilePartItems();
+        long[]             offsets = new long[items.size()];
+        for (int i = 0, len = items.size(); i < len; i++) {
+            FilePartItem item = items.get(i);
+            files.add(new File(destFolderPath, item.getPartName(fileName)));
+            offsets[i] = item.start;
+        }
+        return mergeParallel(file, files, offsets, executor);
+    }
+
+    /**
+     * 并行分片合并
+     *
+     * @param file     文件
+     * @param files    待合并文件 ( 按顺序 )
+     * @param executor 任务执行器
+     *
+     * @return 分片处理结果集合 ( 按分片顺序 )
+     */
+    public static List<FilePartResult> fileSplitMergeFilesParallel(
+        final File file,
+        final List<File> files,
+        final Executor executor
+    ) {
+        if (file == null || files == null || files.isEmpty()) {
+            return null;
+        }
+        // 根据分片文件大小计算写入位置
+        long[] offsets = new long[files.size()];
+        long   total   = 0L;
+        for (int i = 0, len = files.size(); i < len; i++) {
+            offsets[i] = total;
+            total += FileUtils.getFileLength(files.get(i));
+        }
+        return mergeParallel(file, files, offsets, executor);
+    }
+
+    // ==========
+    // = 内部方法 =
+    // ==========
+
+    /**
+     * 分片任务
+     */
+    private interface PartTask {
+
+        /**
+         * 执行分片任务
+         *
+         * @return 处理字节数
+         *
+         * @throws Exception 处理异常
+         */
+        long run()
+            throws Exception;
+    }
+
+    /**
+     * 并行合并分片文件到指定位置
+     *
+     * @param file     文件
+     * @param files    待合并文件
+     * @param offsets  各分片写入位置
+     * @param executor 任务执行器
+     *
+     * @return 分片处理结果集合
+     */
+    private static List<FilePartResult> mergeParallel(
+        final File file,
+        final List<File> files,
+        final long[] offsets,
+        final Executor executor
+    ) {
+        long total = 0L;
+        for (int i = 0, len = files.size(); i < len; i++) {
+            File partFile = files.get(i);
+            if (partFile == null || !partFile.exists()) {
+                return null;
+            }
+            total = Math.max(total, offsets[i] + partFile.length());
+        }
+        FileUtils.deleteFile(file);
+        FileUtils.createFolderByPath(file);
+        // 预先分配文件大小, 各分片并行定位写入
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            raf.setLength(total);
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+            FileUtils.deleteFile(file);
+            return null;
+        } finally {
+            CloseUtils.closeIOQuietly(raf);
+        }
+        final FilePartResult[] results = new FilePartResult[files.size()];
+        final PartTask[]       tasks   = new PartTask[files.size()];
+        for (int i = 0, len = files.size(); i < len; i++) {
+            final File partFile = files.get(i);
+            final long position = offsets[i];
+            tasks[i] = new PartTask() {
+                @Override
+                public long run()
+                    throws Exception {
+                    return transferPart(partFile, 0L, partFile.length(), file, position);
+                }
+            };
+        }
+        runParts(tasks, results, executor);
+        if (!FilePartResult.isAllSuccess(Arrays.asList(results))) {
+            FileUtils.deleteFile(file);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 并行执行分片任务并等待全部完成
+     * <pre>
+     *     等待时被中断: 未开始的分片不再执行, 执行中的分片被中断, 等待其全部结束后才返回
+     * </pre>
+     *
+     * @param tasks    分片任务
+     * @param results  分片处理结果存储数组
+     * @param executor 任务执行器
+     */
+    @SuppressWarnings("Convert2Lambda")
+    private static void runParts(
+        final PartTask[] tasks,
+        final FilePartResult[] results,
+        final Executor executor
+    ) {
+        ExecutorService tempPool = null;
+        Executor        exec     = executor;
+        if (exec == null) {
+            tempPool = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(tasks.length, ThreadPool.getThreads()))
+            );
+            exec = tempPool;
+        }
+        final CountDownLatch     latch   = new CountDownLatch(tasks.length);
+        // 分片状态: 0 未开始, 1 执行中, 2 已结束 ( 或不再执行 )
+        final AtomicIntegerArray states  = new AtomicIntegerArray(tasks.length);
+        FutureTask<?>[]          futures = new FutureTask<?>[tasks.length];
+        try {
+            for (int i = 0, len = tasks.length; i < len; i++) {
+                final int index = i;
+                futures[i] = new FutureTask<>(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!states.compareAndSet(index, 0, 1)) {
+                            return;
+                        }
+                        long start = System.nanoTime();
+                        try {
+                            long length = tasks[index].run();
+                            results[index] = new FilePartResult(
+                                index, length, start, System.nanoTime(), true, null
+                            );
+                        } catch (Throwable e) {
+                            LogUtils.e(e.getMessage());
+                            results[index] = new FilePartResult(
+                                index, 0L, start, System.nanoTime(), false, e
+                            );
+                        } finally {
+                            states.set(index, 2);
+                            latch.countDown();
+                        }
+                    }
+                }, null);
+                try {
+                    exec.execute(futures[i]);
+                } catch (Exception e) { // 执行器拒绝任务
+                    if (states.compareAndSet(index, 0, 2)) {
+                        long now = System.nanoTime();
+                        results[index] = new FilePartResult(index, 0L, now, now, false, e);
+                        latch.countDown();
+                    }
+                }
+            }
+            latch.await();
+        } catch (InterruptedException e) {
+            LogUtils.e(e.getMessage());
+            // 未开始的分片不再执行, 中断执行中的分片
+            for (int i = 0, len = futures.length; i < len; i++) {
+                if (states.compareAndSet(i, 0, 2)) {
+                    latch.countDown();
+                }
+                if (futures[i] != null) {
+                    futures[i].cancel(true);
+                }
+            }
+            // 等待执行中的分片结束, 避免返回后仍在写入目标文件及 results
+            boolean waiting = true;
+            while (waiting) {
+                try {
+                    latch.await();
+                    waiting = false;
+                } catch (InterruptedException ignore) {
+                }
+            }
+            Thread.currentThread().interrupt();
+        } finally {
+            if (tempPool != null) {
+                tempPool.shutdown();
+            }
+        }
+        // 未完成的分片 ( 中断 ) 标记失败
+        for (int i = 0, len = results.length; i < len; i++) {
+            if (results[i] == null) {
+                long now = System.nanoTime();
+                results[i] = new FilePartResult(i, 0L, now, now, false, null);
+            }
+        }
+    }
+
+    /**
+     * 通过 FileChannel 零拷贝传输指定区域数据
+     *
+     * @param srcFile      源文件
+     * @param srcPosition  源文件读取位置
+     * @param count        传输字节数
+     * @param destFile     目标文件
+     * @param destPosition 目标文件写入位置
+     *
+     * @return 实际传输字节数
+     *
+     * @throws Exception 传输异常
+     */
+    private static long transferPart(
+        final File srcFile,
+        final long srcPosition,
+        final long count,
+        final File destFile,
+        final long destPosition
+    )
+        throws Exception {
+        RandomAccessFile src    = null;
+        RandomAccessFile dest   = null;
+        FileChannel      input  = null;
+        FileChannel      output = null;
+        try {
+            src = new RandomAccessFile(srcFile, "r");
+            dest = new RandomAccessFile(destFile, "rw");
+            input = src.getChannel();
+            output = dest.getChannel();
+            if (srcPosition + count > input.size()) {
+                throw new IllegalArgumentException("part range out of file length: " + srcFile);
+            }
+            long transferred = 0L;
+            // transferTo 单次调用可能未传输全部数据, 需循环处理
+            while (transferred < count) {
+                long length = input.transferTo(
+                    srcPosition + transferred, count - transferred,
+                    output.position(destPosition + transferred)
+                );
+                if (length <= 0L) {
+                    break;
+                }
+                transferred += length;
+            }
+            if (transferred != count) {
+                throw new IllegalStateException("part transfer incomplete: " + transferred + "/" + count);
+            }
+            return transferred;
+        } finally {
+            CloseUtils.closeIOQuietly(output, input, dest, src);
+        }
+    }
+}
@@ -0,0 +1,669 @@
+package kayroc.java.utils.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.CloseUtils;
+import kayroc.java.utils.FileUtils;
+import kayroc.java.utils.thread.TaskBatch;
+import kayroc.java.utils.thread.ThreadPool;
+
+/**
+ * 目录树并行复制 / 移动
+ *
+ * @author kayroc
+ * <pre>
+ *     惰性遍历源目录 ( 当前线程按顺序创建文件夹 ), 文件提交至线程池并行复制
+ *     执行中任务数受限 ( {@link TaskBatch} 背压 ), 海量文件不会堆积在队列中
+ *     文件内容通过 FileChannel.transferTo 零拷贝传输, 并保留最后修改时间
+ *     移动时优先 renameTo ( 同一文件系统下为原子操作 ), 失败再复制后删除
+ *     <p></p>
+ *     支持带宽限制 ( 字节 / 秒, 全部线程共享 ) 及进度回调 ( 含实时速率 )
+ *     同一实例不支持同时执行多个复制任务
+ *     <p></p>
+ *     new FileTreeCopier().setBandwidth(10 * 1024 * 1024).setProgressListener(listener).copy(src, dest);
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class FileTreeCopier {
+
+    /** 单次传输字节数 */
+    private static final long TRANSFER_SIZE           = 8L * 1024L * 1024L;
+    /** 限速时单次传输字节数 */
+    private static final long THROTTLED_TRANSFER_SIZE = 256L * 1024L;
+    /** 默认进度回调间隔 ( 毫秒 ) */
+    private static final long DEFAULT_INTERVAL        = 500L;
+
+    /** 执行器 ( 为 null 则创建临时线程池 ) */
+    private Executor           mExecutor;
+    /** 并行复制线程数 ( 临时线程池 ) */
+    private int                mThreadNumber     = ThreadPool.getCpuThreads();
+    /** 带宽限制 ( 字节 / 秒, 小于等于 0 不限制 ) */
+    private volatile long      mBandwidth;
+    /** 目标文件存在时是否覆盖 */
+    private boolean            mOverlay          = true;
+    /** 进度回调 */
+    private OnProgressListener mListener;
+    /** 进度回调间隔 ( 毫秒 ) */
+    private long               mProgressInterval = DEFAULT_INTERVAL;
+
+    // 运行数据
+    private final    AtomicLong      mCopiedBytes     = new AtomicLong();
+    private final    AtomicLong      mCopiedFiles     = new AtomicLong();
+    private final    AtomicLong      mSkippedFiles    = new AtomicLong();
+    private final    AtomicLong      mFailedFiles     = new AtomicLong();
+    private final    AtomicLong      mThrottleNanos   = new AtomicLong();
+    private final    AtomicLong      mLastNotifyNanos = new AtomicLong();
+    private volatile long            mTotalBytes;
+    private volatile long            mTotalFiles;
+    private volatile long            mStartNanos;
+    private volatile boolean         mCancelled;
+    private volatile TaskBatch<Long> mBatch;
+
+    /**
+     * 进度回调
+     *
+     * @author kayroc
+     */
+    public interface OnProgressListener {
+
+        /**
+         * 复制进度 ( 可能在复制线程中触发 )
+         *
+         * @param progress {@link Progress}
+         */
+        void onProgress(Progress progress);
+
+        /**
+         * 复制结束 ( 在调用线程中触发 )
+         *
+         * @param success  是否成功
+         * @param progress {@link Progress}
+         */
+        void onEnd(
+            boolean success,
+            Progress progress
+        );
+    }
+
+    // ==========
+    // = 配置参数 =
+    // ==========
+
+    /**
+     * 设置执行器
+     *
+     * @param executor 执行器 ( 为 null 则每次复制创建临时线程池 )
+     *
+     * @return {@link FileTreeCopier}
+     */
+    public FileTreeCopier setExecutor(final Executor executor) {
+        this.mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置并行复制线程数 ( 同时也是执行中文件数上限 )
+     *
+     * @param threadNumber 并行复制线程数
+     *
+     * @return {@link FileTreeCopier}
+     */
+    public FileTreeCopier setThreadNumber(final int threadNumber) {
+        this.mThreadNumber = Math.max(threadNumber, 1);
+        return this;
+    }
+
+    /**
+     * 设置带宽限制 ( 复制过程中可调整 )
+     *
+     * @param bytesPerSecond 字节 / 秒, 小于等于 0 不限制
+     *
+     * @return {@link FileTreeCopier}
+     */
+    public FileTreeCopier setBandwidth(final long bytesPerSecond) {
+        this.mBandwidth = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * 设置目标文件存在时是否覆盖
+     *
+     * @param overlay {@code true} 覆盖, {@code false} 跳过
+     *
+     * @return {@link FileTreeCopier}
+     */
+    public FileTreeCopier setOverlay(final boolean overlay) {
+        this.mOverlay = overlay;
+        return this;
+    }
+
+    /**
+     * 设置进度回调
+     *
+     * @param listener 进度回调
+     *
+     * @return {@link FileTreeCopier}
+     */
+    public FileTreeCopier setProgressListener(final OnProgressListener listener) {
+        this.mListener = listener;
+        return this;
+    }
+
+    /**
+     * 设置进度回调间隔
+     *
+     * @param intervalMillis 进度回调间隔 ( 毫秒 )
+     *
+     * @return {@link FileTreeCopier}
+     */
+    public FileTreeCopier setProgressInterval(final long intervalMillis) {
+        this.mProgressInterval = Math.max(intervalMillis, 0L);
+        return this;
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 复制目录 ( 将 srcDir 下全部文件复制到 destDir 下 )
+     *
+     * @param srcDir  源目录
+     * @param destDir 目标目录
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public boolean copy(
+        final File srcDir,
+        final File destDir
+    ) {
+        return run(srcDir, destDir, false);
+    }
+
+    /**
+     * 移动目录 ( 将 srcDir 下全部文件移动到 destDir 下 )
+     *
+     * @param srcDir  源目录
+     * @param destDir 目标目录
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public boolean move(
+        final File srcDir,
+        final File destDir
+    ) {
+        return run(srcDir, destDir, true);
+    }
+
+    /**
+     * 取消复制
+     * <pre>
+     *     复制开始前调用同样生效 ( 下一次复制直接取消 ), 复制结束时清除取消状态
+     * </pre>
+     */
+    public void cancel() {
+        mCancelled = true;
+        TaskBatch<Long> batch = mBatch;
+        if (batch != null) {
+            batch.cancel();
+        }
+    }
+
+    /**
+     * 获取当前进度
+     *
+     * @return {@link Progress}
+     */
+    public Progress getProgress() {
+        long elapsed = mStartNanos == 0L ? 0L : System.nanoTime() - mStartNanos;
+        long copied  = mCopiedBytes.get();
+        return new Progress(
+            mTotalBytes, mTotalFiles, copied, mCopiedFiles.get(),
+            mSkippedFiles.get(), mFailedFiles.get(), elapsed,
+            elapsed > 0L ? copied * 1000000000D / elapsed : 0D
+        );
+    }
+
+    // ==========
+    // = 进度信息 =
+    // ==========
+
+    /**
+     * 复制进度
+     *
+     * @author kayroc
+     */
+    public static final class Progress {
+
+        /** 总字节数 ( 未设置进度回调时为 0 ) */
+        public final long   totalBytes;
+        /** 总文件数 ( 未设置进度回调时为 0 ) */
+        public final long   totalFiles;
+        /** 已复制字节数 */
+        public final long   copiedBytes;
+        /** 已复制文件数 */
+        public final long   copiedFiles;
+        /** 跳过文件数 ( 目标已存在且不覆盖 ) */
+        public final long   skippedFiles;
+        /** 失败文件数 */
+        public final long   failedFiles;
+        /** 已耗时 ( 纳秒 ) */
+        public final long   elapsedNanos;
+        /** 平均速率 ( 字节 / 秒 ) */
+        public final double bytesPerSecond;
+
+        Progress(
+            long totalBytes,
+            long totalFiles,
+            long copiedBytes,
+            long copiedFiles,
+            long skippedFiles,
+            long failedFiles,
+            long elapsedNanos,
+            double bytesPerSecond
+        ) {
+            this.totalBytes = totalBytes;
+            this.totalFiles = totalFiles;
+            this.copiedBytes = copiedBytes;
+            this.copiedFiles = copiedFiles;
+            this.skippedFiles = skippedFiles;
+            this.failedFiles = failedFiles;
+            this.elapsedNanos = elapsedNanos;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        /**
+         * 获取进度百分比
+         *
+         * @return 进度百分比 ( 0 - 100 ), 总字节数未知返回 -1
+         */
+        public int getPercent() {
+            if (totalBytes <= 0L) {
+                return totalFiles > 0L ? -1 : 100;
+            }
+            return (int) Math.min(100L, copiedBytes * 100L / totalBytes);
+        }
+
+        @Override
+        public String toString() {
+            return "Progress{" +
+                "totalBytes=" + totalBytes +
+                ", totalFiles=" + totalFiles +
+                ", copiedBytes=" + copiedBytes +
+                ", copiedFiles=" + copiedFiles +
+                ", skippedFiles=" + skippedFiles +
+                ", failedFiles=" + failedFiles +
+                ", elapsedNanos=" + elapsedNanos +
+                ", bytesPerSecond=" + bytesPerSecond +
+                '}';
+        }
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 执行复制 / 移动
+     *
+     * @param srcDir  源目录
+     * @param destDir 目标目录
+     * @param isMove  是否移动
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    private boolean run(
+        final File srcDir,
+        final File destDir,
+        final boolean isMove
+    ) {
+        if (srcDir == null || destDir == null || !srcDir.isDirectory()) {
+            return false;
+        }
+        // 目标目录不能位于源目录下
+        String srcPath  = srcDir.getAbsolutePath() + File.separator;
+        String destPath = destDir.getAbsolutePath() + File.separator;
+        if (destPath.startsWith(srcPath)) {
+            return false;
+        }
+        reset();
+        if (mListener != null) {
+            FileTreeWalker.Stat stat = FileTreeWalker.stat(srcDir);
+            mTotalBytes = stat.length;
+            mTotalFiles = stat.fileCount;
+        }
+        if (mCancelled) {
+            return end(false);
+        }
+        // 同一文件系统下直接重命名
+        if (isMove && !destDir.exists() && FileUtils.createOrExistsDir(destDir.getParentFile())
+            && srcDir.renameTo(destDir)) {
+            mCopiedBytes.set(mTotalBytes);
+            mCopiedFiles.set(mTotalFiles);
+            return end(true);
+        }
+        if (!FileUtils.createOrExistsDir(destDir)) {
+            return end(false);
+        }
+        ExecutorService tempPool = null;
+        Executor        executor = mExecutor;
+        if (executor == null) {
+            tempPool = Executors.newFixedThreadPool(mThreadNumber);
+            executor = tempPool;
+        }
+        boolean success = false;
+        try {
+            TaskBatch<Long> batch = new TaskBatch<>(executor, mThreadNumber, true);
+            mBatch = batch;
+            if (mCancelled) {
+                batch.cancel();
+            }
+            CopyIterator iterator = new CopyIterator(srcDir, destDir, srcPath.length(), isMove);
+            success = batch.process(iterator, null) && iterator.success && !mCancelled;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogUtils.e(e.getMessage());
+        } finally {
+            mBatch = null;
+            if (tempPool != null) {
+                tempPool.shutdown();
+            }
+        }
+        if (success && isMove) {
+            if (mSkippedFiles.get() == 0L) {
+                success = FileUtils.deleteDir(srcDir);
+            } else {
+                // 存在跳过 ( 目标已存在未覆盖 ) 的文件, 保留在源目录中, 仅删除已清空的文件夹
+                deleteEmptyDirs(srcDir);
+            }
+        }
+        return end(success);
+    }
+
+    /**
+     * 删除已清空的文件夹 ( 保留仍有文件的文件夹 )
+     *
+     * @param dir 目录
+     */
+    private static void deleteEmptyDirs(final File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    deleteEmptyDirs(file);
+                }
+            }
+        }
+        // 非空文件夹删除失败, 忽略
+        dir.delete();
+    }
+
+    /**
+     * 重置运行数据 ( 不清除取消状态 )
+     */
+    private void reset() {
+        mCopiedBytes.set(0L);
+        mCopiedFiles.set(0L);
+        mSkippedFiles.set(0L);
+        mFailedFiles.set(0L);
+        mThrottleNanos.set(0L);
+        mTotalBytes = 0L;
+        mTotalFiles = 0L;
+        mStartNanos = System.nanoTime();
+        mLastNotifyNanos.set(mStartNanos);
+    }
+
+    /**
+     * 复制结束
+     *
+     * @param success 是否成功
+     *
+     * @return {@code success}
+     */
+    private boolean end(final boolean success) {
+        // 本次复制结束才清除取消状态, 开始前及准备期间的 cancel() 均生效
+        mCancelled = false;
+        OnProgressListener listener = mListener;
+        if (listener != null) {
+            try {
+                listener.onEnd(success, getProgress());
+            } catch (Exception e) {
+                LogUtils.e(e.getMessage());
+            }
+        }
+        return success;
+    }
+
+    /**
+     * 复制 / 移动单个文件
+     *
+     * @param srcFile  源文件
+     * @param destFile 目标文件
+     * @param isMove   是否移动
+     *
+     * @return 复制字节数
+     *
+     * @throws Exception 复制失败
+     */
+    private long copyFile(
+        final File srcFile,
+        final File destFile,
+        final boolean isMove
+    )
+        throws Exception {
+        if (destFile.exists()) {
+            if (!mOverlay) {
+                mSkippedFiles.incrementAndGet();
+                return 0L;
+            }
+            if (!destFile.delete()) {
+                throw new IllegalStateException("delete failed: " + destFile);
+            }
+        }
+        long length = srcFile.length();
+        if (isMove && srcFile.renameTo(destFile)) {
+            onCopied(length);
+            return length;
+        }
+        FileInputStream  fis = null;
+        FileOutputStream fos = null;
+        try {
+            fis = new FileInputStream(srcFile);
+            fos = new FileOutputStream(destFile);
+            FileChannel input    = fis.getChannel();
+            FileChannel output   = fos.getChannel();
+            long        size     = input.size();
+            long        position = 0L;
+            while (position < size) {
+                if (mCancelled) {
+                    throw new InterruptedException("copy cancelled");
+                }
+                long count = Math.min(size - position, mBandwidth > 0L ? THROTTLED_TRANSFER_SIZE : TRANSFER_SIZE);
+                throttle(count);
+                long transferred = input.transferTo(position, count, output);
+                if (transferred <= 0L) {
+                    break;
+                }
+                position += transferred;
+                mCopiedBytes.addAndGet(transferred);
+                notifyProgress();
+            }
+            if (position != size) {
+                throw new IllegalStateException("transfer incomplete: " + position + "/" + size);
+            }
+        } finally {
+            CloseUtils.closeIOQuietly(fos, fis);
+        }
+        destFile.setLastModified(srcFile.lastModified());
+        if (isMove && !srcFile.delete()) {
+            throw new IllegalStateException("delete failed: " + srcFile);
+        }
+        mCopiedFiles.incrementAndGet();
+        notifyProgress();
+        return length;
+    }
+
+    /**
+     * 重命名完成 ( 记录进度 )
+     *
+     * @param length 文件大小
+     */
+    private void onCopied(final long length) {
+        mCopiedBytes.addAndGet(length);
+        mCopiedFiles.incrementAndGet();
+        notifyProgress();
+    }
+
+    /**
+     * 带宽限制 ( 预约传输时间段, 未到时间则等待 )
+     *
+     * @param bytes 将要传输的字节数
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    private void throttle(final long bytes)
+        throws InterruptedException {
+        long bandwidth = mBandwidth;
+        if (bandwidth <= 0L) {
+            return;
+        }
+        long cost = bytes * 1000000000L / bandwidth;
+        long now  = System.nanoTime();
+        long next;
+        long start;
+        do {
+            next = mThrottleNanos.get();
+            start = (next == 0L || next - now < 0L) ? now : next;
+        } while (!mThrottleNanos.compareAndSet(next, start + cost));
+        long wait = start - now;
+        if (wait > 0L) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * 通知进度 ( 按间隔节流 )
+     */
+    private void notifyProgress() {
+        OnProgressListener listener = mListener;
+        if (listener == null) {
+            return;
+        }
+        long now  = System.nanoTime();
+        long last = mLastNotifyNanos.get();
+        if (now - last < TimeUnit.MILLISECONDS.toNanos(mProgressInterval)) {
+            return;
+        }
+        if (mLastNotifyNanos.compareAndSet(last, now)) {
+            try {
+                listener.onProgress(getProgress());
+            } catch (Exception e) {
+                LogUtils.e(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 复制任务迭代器 ( 惰性遍历源目录, 文件夹在当前线程创建, 文件生成复制任务 )
+     */
+    private final class CopyIterator
+        implements Iterator<Callable<Long>> {
+
+        private final Iterator<File> files;
+        private final File           destDir;
+        private final int            prefixLength;
+        private final boolean        isMove;
+        private       Callable<Long> next;
+        private       boolean        success = true;
+
+        CopyIterator(
+            final File srcDir,
+            final File destDir,
+            final int prefixLength,
+            final boolean isMove
+        ) {
+            this.files = FileTreeWalker.iterate(srcDir, null).iterator();
+            this.destDir = destDir;
+            this.prefixLength = prefixLength;
+            this.isMove = isMove;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && success && !mCancelled && files.hasNext()) {
+                File   file     = files.next();
+                String relative = file.getAbsolutePath().substring(prefixLength);
+                File   dest     = new File(destDir, relative);
+                if (file.isDirectory()) {
+                    if (!FileUtils.createOrExistsDir(dest)) {
+                        LogUtils.e("create dir failed: " + dest);
+                        success = false;
+                    }
+                } else {
+                    next = new CopyTask(file, dest, isMove);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Callable<Long> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Callable<Long> task = next;
+            next = null;
+            return task;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    /**
+     * 单个文件复制任务
+     */
+    private final class CopyTask
+        implements Callable<Long> {
+
+        private final File    srcFile;
+        private final File    destFile;
+        private final boolean isMove;
+
+        CopyTask(
+            final File srcFile,
+            final File destFile,
+            final boolean isMove
+        ) {
+            this.srcFile = srcFile;
+            this.destFile = destFile;
+            this.isMove = isMove;
+        }
+
+        @Override
+        public Long call()
+            throws Exception {
+            try {
+                return copyFile(srcFile, destFile, isMove);
+            } catch (Exception e) {
+                mFailedFiles.incrementAndGet();
+                LogUtils.e(e.getMessage());
+                throw e;
+            }
+        }
+    }
+}
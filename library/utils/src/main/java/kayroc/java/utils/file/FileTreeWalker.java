@@ -0,0 +1,467 @@
+package kayroc.java.utils.file;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kayroc.android.utils.LogUtils;
+
+/**
+ * 目录树遍历
+ *
+ * @author kayroc
+ * <pre>
+ *     基于 ForkJoinPool 并行遍历, 每个子目录拆分为一个任务, 由工作窃取均衡负载
+ *     适用于统计目录大小、获取目录下全部文件等大目录树场景
+ *     <p></p>
+ *     java.nio.file ( Files.walkFileTree、DirectoryStream ) 需 API 26, 此处基于 File.listFiles 实现
+ *     每个条目仅一次 isDirectory 判断, 文件再读取一次 length
+ *     <p></p>
+ *     {@link #iterate(File, FileFilter)} 按需逐个目录读取 ( 深度优先, 顺序与 FileUtils.listFilesInDir 一致 )
+ *     不会构建完整 List, 适用于边遍历边处理
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class FileTreeWalker {
+
+    private FileTreeWalker() {
+    }
+
+    /**
+     * 文件回调 ( 并行遍历时可能在多个线程中同时触发 )
+     *
+     * @author kayroc
+     */
+    public interface OnFileCallback {
+
+        /**
+         * 遍历到文件 ( 含文件夹 )
+         *
+         * @param file 文件
+         *
+         * @return {@code true} 继续遍历, {@code false} 停止遍历
+         */
+        boolean onFile(File file);
+    }
+
+    // ==========
+    // = 目录统计 =
+    // ==========
+
+    /**
+     * 获取目录全部文件大小
+     *
+     * @param dir 目录
+     *
+     * @return 目录全部文件大小
+     */
+    public static long getLength(final File dir) {
+        return stat(dir).length;
+    }
+
+    /**
+     * 统计目录 ( 文件大小、文件数、文件夹数 )
+     *
+     * @param dir 目录
+     *
+     * @return {@link Stat}
+     */
+    public static Stat stat(final File dir) {
+        return stat(dir, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 统计目录 ( 文件大小、文件数、文件夹数 )
+     *
+     * @param dir  目录
+     * @param pool {@link ForkJoinPool}
+     *
+     * @return {@link Stat}
+     */
+    public static Stat stat(
+        final File dir,
+        final ForkJoinPool pool
+    ) {
+        if (dir == null || !dir.isDirectory()) {
+            return new Stat(0L, 0L, 0L);
+        }
+        try {
+            long[] result = pool.invoke(new StatTask(dir));
+            return new Stat(result[0], result[1], result[2]);
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        }
+        return new Stat(0L, 0L, 0L);
+    }
+
+    // ==========
+    // = 并行遍历 =
+    // ==========
+
+    /**
+     * 获取目录下全部符合条件的文件 ( 并行, 不保证顺序 )
+     *
+     * @param dir    目录
+     * @param filter 过滤器 ( 为 null 则全部文件 )
+     *
+     * @return 文件链表
+     */
+    public static List<File> listFiles(
+        final File dir,
+        final FileFilter filter
+    ) {
+        return listFiles(dir, filter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 获取目录下全部符合条件的文件 ( 并行, 不保证顺序 )
+     *
+     * @param dir    目录
+     * @param filter 过滤器 ( 为 null 则全部文件 )
+     * @param pool   {@link ForkJoinPool}
+     *
+     * @return 文件链表
+     */
+    @SuppressWarnings("Convert2Lambda")
+    public static List<File> listFiles(
+        final File dir,
+        final FileFilter filter,
+        final ForkJoinPool pool
+    ) {
+        final Collection<File> files = new ConcurrentLinkedQueue<>();
+        walk(dir, filter, new OnFileCallback() {
+            @Override
+            public boolean onFile(File file) {
+                files.add(file);
+                return true;
+            }
+        }, pool);
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * 并行遍历目录, 符合条件的文件通过回调返回
+     *
+     * @param dir      目录
+     * @param filter   过滤器 ( 为 null 则全部文件 )
+     * @param callback 文件回调 ( 需线程安全 )
+     *
+     * @return 回调文件数
+     */
+    public static long walk(
+        final File dir,
+        final FileFilter filter,
+        final OnFileCallback callback
+    ) {
+        return walk(dir, filter, callback, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行遍历目录, 符合条件的文件通过回调返回
+     *
+     * @param dir      目录
+     * @param filter   过滤器 ( 为 null 则全部文件 )
+     * @param callback 文件回调 ( 需线程安全 )
+     * @param pool     {@link ForkJoinPool}
+     *
+     * @return 回调文件数
+     */
+    public static long walk(
+        final File dir,
+        final FileFilter filter,
+        final OnFileCallback callback,
+        final ForkJoinPool pool
+    ) {
+        if (dir == null || !dir.isDirectory() || callback == null || pool == null) {
+            return 0L;
+        }
+        WalkContext context = new WalkContext(filter, callback);
+        try {
+            pool.invoke(new WalkTask(dir, context));
+        } catch (Exception e) {
+            LogUtils.e(e.getMessage());
+        }
+        return context.count.get();
+    }
+
+    // ==========
+    // = 惰性遍历 =
+    // ==========
+
+    /**
+     * 惰性遍历目录 ( 深度优先, 按需读取目录 )
+     *
+     * @param dir    目录
+     * @param filter 过滤器 ( 为 null 则全部文件 )
+     *
+     * @return {@link Iterable}
+     */
+    @SuppressWarnings("Convert2Lambda")
+    public static Iterable<File> iterate(
+        final File dir,
+        final FileFilter filter
+    ) {
+        return new Iterable<File>() {
+            @Override
+            public Iterator<File> iterator() {
+                return new FileIterator(dir, filter);
+            }
+        };
+    }
+
+    // ==========
+    // = 统计结果 =
+    // ==========
+
+    /**
+     * 目录统计结果
+     *
+     * @author kayroc
+     */
+    public static final class Stat {
+
+        /** 全部文件大小 */
+        public final long length;
+        /** 文件数 */
+        public final long fileCount;
+        /** 文件夹数 ( 不含根目录 ) */
+        public final long dirCount;
+
+        Stat(
+            long length,
+            long fileCount,
+            long dirCount
+        ) {
+            this.length = length;
+            this.fileCount = fileCount;
+            this.dirCount = dirCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stat{" +
+                "length=" + length +
+                ", fileCount=" + fileCount +
+                ", dirCount=" + dirCount +
+                '}';
+        }
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 目录统计任务 ( 返回 [ 文件大小, 文件数, 文件夹数 ] )
+     */
+    private static final class StatTask
+        extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 8688442850863157253L;
+
+        private final File dir;
+
+        StatTask(final File dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected long[] compute() {
+            long[] result = new long[3];
+            File[] files = dir.listFiles();
+            if (files == null || files.length == 0) {
+                return result;
+            }
+            List<StatTask> tasks = null;
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    result[2]++;
+                    if (tasks == null) {
+                        tasks = new ArrayList<>();
+                    }
+                    StatTask task = new StatTask(file);
+                    task.fork();
+                    tasks.add(task);
+                } else {
+                    result[0] += file.length();
+                    result[1]++;
+                }
+            }
+            if (tasks != null) {
+                for (StatTask task : tasks) {
+                    long[] sub = task.join();
+                    result[0] += sub[0];
+                    result[1] += sub[1];
+                    result[2] += sub[2];
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 并行遍历共享数据
+     */
+    private static final class WalkContext {
+
+        final FileFilter     filter;
+        final OnFileCallback callback;
+        final AtomicLong     count = new AtomicLong();
+        final AtomicBoolean  stop  = new AtomicBoolean();
+
+        WalkContext(
+            final FileFilter filter,
+            final OnFileCallback callback
+        ) {
+            this.filter = filter;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * 并行遍历任务
+     */
+    private static final class WalkTask
+        extends RecursiveTask<Void> {
+
+        private static final long serialVersionUID = 8946753579121650795L;
+
+        private final File        dir;
+        private final WalkContext context;
+
+        WalkTask(
+            final File dir,
+            final WalkContext context
+        ) {
+            this.dir = dir;
+            this.context = context;
+        }
+
+        @Override
+        protected Void compute() {
+            File[] files = dir.listFiles();
+            if (files == null || files.length == 0) {
+                return null;
+            }
+            List<WalkTask> tasks = null;
+            for (File file : files) {
+                if (context.stop.get()) {
+                    break;
+                }
+                if (context.filter == null || context.filter.accept(file)) {
+                    context.count.incrementAndGet();
+                    if (!context.callback.onFile(file)) {
+                        context.stop.set(true);
+                        break;
+                    }
+                }
+                if (file.isDirectory()) {
+                    if (tasks == null) {
+                        tasks = new ArrayList<>();
+                    }
+                    WalkTask task = new WalkTask(file, context);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            if (tasks != null) {
+                for (WalkTask task : tasks) {
+                    task.join();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 惰性遍历迭代器 ( 深度优先 )
+     */
+    private static final class FileIterator
+        implements Iterator<File> {
+
+        /** 目录栈 ( 每层目录的子文件及读取位置 ) */
+        private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+        private final FileFilter        filter;
+        private       File              next;
+
+        FileIterator(
+            final File dir,
+            final FileFilter filter
+        ) {
+            this.filter = filter;
+            push(dir);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            Frame frame;
+            while ((frame = stack.peek()) != null) {
+                if (frame.index >= frame.files.length) {
+                    stack.pop();
+                    continue;
+                }
+                File file = frame.files[frame.index++];
+                boolean accept = filter == null || filter.accept(file);
+                if (file.isDirectory()) {
+                    push(file);
+                }
+                if (accept) {
+                    next = file;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            File file = next;
+            next = null;
+            return file;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        private void push(final File dir) {
+            if (dir == null) {
+                return;
+            }
+            File[] files = dir.listFiles();
+            if (files != null && files.length != 0) {
+                stack.push(new Frame(files));
+            }
+        }
+    }
+
+    /**
+     * 目录栈帧
+     */
+    private static final class Frame {
+
+        final File[] files;
+        int          index;
+
+        Frame(final File[] files) {
+            this.files = files;
+        }
+    }
+}
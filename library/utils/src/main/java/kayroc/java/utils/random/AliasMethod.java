@@ -13,11 +13,9 @@ package kayroc.java.utils.random;
   http://www.keithschwarz.com/darts-dice-coins/
  */
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 随机概率采样算法
@@ -31,13 +29,22 @@ import java.util.Random;
 @SuppressWarnings({"unused", "CommentedOutCode", "SpellCheckingInspection"})
 public final class AliasMethod {
 
-    /** The random number generator used to sample from the distribution. */
+    /**
+     * The random number generator used to sample from the distribution,
+     * or null to use ThreadLocalRandom ( lock-free, no shared seed ).
+     */
     private final Random random;
 
     /** The probability and alias tables. */
     private final int[] alias;
     private final double[] probability;
 
+    /**
+     * Coin thresholds: probability[i] scaled to 2^32, compared against the
+     * low 32 bits of the same random long that picked the column.
+     */
+    private final long[] threshold;
+
     /**
      * Constructs a new AliasMethod to sample from a discrete distribution and
      * hand back outcomes based on the probability distribution.
@@ -49,7 +56,7 @@ public final class AliasMethod {
      * @param probabilities The list of probabilities.
      */
     public AliasMethod(List<Double> probabilities) {
-        this(probabilities, new Random());
+        this(toArray(probabilities), null);
     }
 
     /**
@@ -67,43 +74,75 @@ public final class AliasMethod {
     public AliasMethod(
         List<Double> probabilities,
         Random random
+    ) {
+        this(toArray(probabilities), random);
+        if (random == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    /**
+     * 构造函数 ( 基本类型数组, 使用 ThreadLocalRandom 采样 )
+     *
+     * @param probabilities 几率数组 ( 总和为 1 )
+     */
+    public AliasMethod(double[] probabilities) {
+        this(probabilities, null);
+    }
+
+    /**
+     * 构造函数 ( 基本类型数组 )
+     *
+     * @param probabilities 几率数组 ( 总和为 1 )
+     * @param random        随机数生成器, 为 null 则使用 ThreadLocalRandom
+     */
+    public AliasMethod(
+        double[] probabilities,
+        Random random
     ) {
         /* Begin by doing basic structural checks on the inputs. */
-        if (probabilities == null || random == null) {
+        if (probabilities == null) {
             throw new NullPointerException();
         }
-        if (probabilities.size() == 0) {
+        if (probabilities.length == 0) {
             throw new IllegalArgumentException("Probability vector must be nonempty.");
         }
 
+        final int size = probabilities.length;
+
         /* Allocate space for the probability and alias tables. */
-        probability = new double[probabilities.size()];
-        alias = new int[probabilities.size()];
+        probability = new double[size];
+        alias = new int[size];
+        threshold = new long[size];
 
         /* Store the underlying generator. */
         this.random = random;
 
         /* Compute the average probability and cache it for later use. */
-        final double average = 1.0 / probabilities.size();
+        final double average = 1.0 / size;
 
-        /* Make a copy of the probabilities list, since we will be making
+        /* Make a copy of the probabilities, since we will be making
          * changes to it.
          */
-        probabilities = new ArrayList<>(probabilities);
+        final double[] work = probabilities.clone();
 
-        /* Create two stacks to act as worklists as we populate the tables. */
-        Deque<Integer> small = new ArrayDeque<>();
-        Deque<Integer> large = new ArrayDeque<>();
+        /* Create two stacks ( primitive arrays ) to act as worklists as we
+         * populate the tables. Each index lives in at most one of them.
+         */
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallSize = 0;
+        int largeSize = 0;
 
         /* Populate the stacks with the input probabilities. */
-        for (int i = 0; i < probabilities.size(); ++i) {
+        for (int i = 0; i < size; ++i) {
             /* If the probability is below the average probability, then we add
              * it to the small list; otherwise we add it to the large list.
              */
-            if (probabilities.get(i) >= average) {
-                large.add(i);
+            if (work[i] >= average) {
+                large[largeSize++] = i;
             } else {
-                small.add(i);
+                small[smallSize++] = i;
             }
         }
 
@@ -113,32 +152,29 @@ public final class AliasMethod {
          * Consequently, this inner loop (which tries to pair small and large
          * elements) will have to check that both lists aren't empty.
          */
-        while (!small.isEmpty() && !large.isEmpty()) {
+        while (smallSize != 0 && largeSize != 0) {
             /* Get the index of the small and the large probabilities. */
-            int less = small.removeLast();
-            int more = large.removeLast();
+            int less = small[--smallSize];
+            int more = large[--largeSize];
 
             /* These probabilities have not yet been scaled up to be such that
              * 1/n is given weight 1.0.  We do this here instead.
              */
-            probability[less] = probabilities.get(less) * probabilities.size();
+            probability[less] = work[less] * size;
             alias[less] = more;
 
             /* Decrease the probability of the larger one by the appropriate
              * amount.
              */
-            probabilities.set(
-                more,
-                (probabilities.get(more) + probabilities.get(less)) - average
-            );
+            work[more] = (work[more] + work[less]) - average;
 
             /* If the new probability is less than the average, add it into the
              * small list; otherwise add it to the large list.
              */
-            if (probabilities.get(more) >= 1.0 / probabilities.size()) {
-                large.add(more);
+            if (work[more] >= average) {
+                large[largeSize++] = more;
             } else {
-                small.add(more);
+                small[smallSize++] = more;
             }
         }
 
@@ -147,31 +183,104 @@ public final class AliasMethod {
          * appropriately.  Due to numerical issues, we can't be sure which
          * stack will hold the entries, so we empty both.
          */
-        while (!small.isEmpty()) {
-            probability[small.removeLast()] = 1.0;
+        while (smallSize != 0) {
+            probability[small[--smallSize]] = 1.0;
         }
-        while (!large.isEmpty()) {
-            probability[large.removeLast()] = 1.0;
+        while (largeSize != 0) {
+            probability[large[--largeSize]] = 1.0;
+        }
+
+        /* Precompute the coin thresholds used by next(). */
+        for (int i = 0; i < size; ++i) {
+            threshold[i] = (probability[i] >= 1.0) ? (1L << 32) : (long) (probability[i] * (1L << 32));
         }
     }
 
     /**
      * 获取随机索引 ( 对应几率索引 )
      * Samples a value from the underlying distribution.
+     * <pre>
+     *     每次仅取一个随机 long: 高 32 位选择列, 低 32 位作为硬币
+     * </pre>
      *
      * @return A random value sampled from the underlying distribution.
      */
     public int next() {
-        /* Generate a fair die roll to determine which column to inspect. */
-        int column = random.nextInt(probability.length);
+        return sample(nextLong());
+    }
+
+    /**
+     * 批量获取随机索引
+     *
+     * @param out 输出数组
+     */
+    public void next(int[] out) {
+        if (random == null) {
+            ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+            for (int i = 0, len = out.length; i < len; i++) {
+                out[i] = sample(threadRandom.nextLong());
+            }
+        } else {
+            for (int i = 0, len = out.length; i < len; i++) {
+                out[i] = sample(random.nextLong());
+            }
+        }
+    }
 
-        /* Generate a biased coin toss to determine which option to pick. */
-        boolean coinToss = random.nextDouble() < probability[column];
+    /**
+     * 获取结果数量
+     *
+     * @return 结果数量
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * 由一个随机 long 采样
+     *
+     * @param word 随机 long
+     *
+     * @return 随机索引
+     */
+    private int sample(long word) {
+        /* Generate a fair die roll ( high 32 bits ) to determine which column to inspect. */
+        int column = (int) (((word >>> 32) * probability.length) >>> 32);
+
+        /* Generate a biased coin toss ( low 32 bits ) to determine which option to pick. */
+        boolean coinToss = (word & 0xFFFFFFFFL) < threshold[column];
 
         /* Based on the outcome, return either the column or its alias. */
         return coinToss ? column : alias[column];
     }
 
+    /**
+     * 获取随机 long
+     *
+     * @return 随机 long
+     */
+    private long nextLong() {
+        return (random != null) ? random.nextLong() : ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * List 转 double[]
+     *
+     * @param probabilities The list of probabilities.
+     *
+     * @return 几率数组
+     */
+    private static double[] toArray(List<Double> probabilities) {
+        if (probabilities == null) {
+            throw new NullPointerException();
+        }
+        double[] array = new double[probabilities.size()];
+        for (int i = 0, len = array.length; i < len; i++) {
+            array[i] = probabilities.get(i);
+        }
+        return array;
+    }
+
 //    public static void main(String[] args) {
 //        // 使用方法
 //        List<Double> lists = new ArrayList<>();
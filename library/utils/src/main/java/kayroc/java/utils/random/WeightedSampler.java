@@ -0,0 +1,297 @@
+package kayroc.java.utils.random;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 可更新权重随机采样
+ *
+ * @author kayroc
+ * <pre>
+ *     基于树状数组 ( Fenwick Tree ) 保存权重前缀和, 更新单个权重、采样均为 O(log n)
+ *     适用于权重频繁变化的场景 ( 如 A/B 流量分配 ), 权重固定时使用 {@link AliasMethod} ( O(1) 采样 )
+ *     <p></p>
+ *     采样使用读锁、更新使用写锁, 线程安全
+ *     WeightedSampler sampler = new WeightedSampler(new double[]{70, 20, 10});
+ *     sampler.set(2, 30); // 调整第三组权重
+ *     int group = sampler.next();
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class WeightedSampler {
+
+    /** 累计更新次数达到后重建树状数组 ( 消除浮点累计误差 ) */
+    private static final int REBUILD_UPDATES = 1 << 16;
+
+    /** 读锁 */
+    private final Lock     mReadLock;
+    /** 写锁 */
+    private final Lock     mWriteLock;
+    /** 权重 */
+    private final double[] mWeights;
+    /** 树状数组 ( 下标从 1 开始 ) */
+    private final double[] mTree;
+    /** 二分查找起始步长 ( 不超过 size 的最大 2 的幂 ) */
+    private final int      mTopBit;
+    /** 权重总和 */
+    private       double   mTotal;
+    /** 累计更新次数 */
+    private       int      mUpdates;
+
+    /**
+     * 构造函数
+     *
+     * @param size 结果数量 ( 初始权重均为 0 )
+     */
+    public WeightedSampler(final int size) {
+        this(new double[size]);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param weights 初始权重 ( 非负 )
+     */
+    public WeightedSampler(final double[] weights) {
+        if (weights == null) {
+            throw new NullPointerException();
+        }
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("Weight vector must be nonempty.");
+        }
+        for (double weight : weights) {
+            checkWeight(weight);
+        }
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.mReadLock = lock.readLock();
+        this.mWriteLock = lock.writeLock();
+        this.mWeights = weights.clone();
+        this.mTree = new double[weights.length + 1];
+        this.mTopBit = Integer.highestOneBit(weights.length);
+        rebuild();
+    }
+
+    // ==========
+    // = 更新权重 =
+    // ==========
+
+    /**
+     * 设置权重
+     *
+     * @param index  索引
+     * @param weight 权重 ( 非负 )
+     */
+    public void set(
+        final int index,
+        final double weight
+    ) {
+        checkWeight(weight);
+        mWriteLock.lock();
+        try {
+            double delta = weight - mWeights[index];
+            mWeights[index] = weight;
+            if (++mUpdates >= REBUILD_UPDATES) {
+                rebuild();
+            } else {
+                for (int i = index + 1, len = mTree.length; i < len; i += i & -i) {
+                    mTree[i] += delta;
+                }
+                mTotal += delta;
+            }
+        } finally {
+            mWriteLock.unlock();
+        }
+    }
+
+    /**
+     * 增加权重
+     *
+     * @param index 索引
+     * @param delta 增加值 ( 结果需非负 )
+     */
+    public void add(
+        final int index,
+        final double delta
+    ) {
+        mWriteLock.lock();
+        try {
+            set(index, mWeights[index] + delta);
+        } finally {
+            mWriteLock.unlock();
+        }
+    }
+
+    /**
+     * 批量设置全部权重
+     *
+     * @param weights 权重 ( 长度需与结果数量一致 )
+     */
+    public void setAll(final double[] weights) {
+        if (weights == null || weights.length != mWeights.length) {
+            throw new IllegalArgumentException("Weight vector length mismatch.");
+        }
+        for (double weight : weights) {
+            checkWeight(weight);
+        }
+        mWriteLock.lock();
+        try {
+            System.arraycopy(weights, 0, mWeights, 0, weights.length);
+            rebuild();
+        } finally {
+            mWriteLock.unlock();
+        }
+    }
+
+    // ==========
+    // = 获取信息 =
+    // ==========
+
+    /**
+     * 获取结果数量
+     *
+     * @return 结果数量
+     */
+    public int size() {
+        return mWeights.length;
+    }
+
+    /**
+     * 获取权重
+     *
+     * @param index 索引
+     *
+     * @return 权重
+     */
+    public double getWeight(final int index) {
+        mReadLock.lock();
+        try {
+            return mWeights[index];
+        } finally {
+            mReadLock.unlock();
+        }
+    }
+
+    /**
+     * 获取权重总和
+     *
+     * @return 权重总和
+     */
+    public double getTotal() {
+        mReadLock.lock();
+        try {
+            return mTotal;
+        } finally {
+            mReadLock.unlock();
+        }
+    }
+
+    // ==========
+    // = 随机采样 =
+    // ==========
+
+    /**
+     * 获取随机索引 ( 按权重 )
+     *
+     * @return 随机索引, 权重总和为 0 返回 -1
+     */
+    public int next() {
+        mReadLock.lock();
+        try {
+            return sample(ThreadLocalRandom.current().nextDouble());
+        } finally {
+            mReadLock.unlock();
+        }
+    }
+
+    /**
+     * 批量获取随机索引 ( 按权重, 同一权重快照 )
+     *
+     * @param out 输出数组
+     */
+    public void next(final int[] out) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        mReadLock.lock();
+        try {
+            for (int i = 0, len = out.length; i < len; i++) {
+                out[i] = sample(random.nextDouble());
+            }
+        } finally {
+            mReadLock.unlock();
+        }
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 采样 ( 需持有锁 )
+     * <pre>
+     *     按步长从大到小下降, 查找前缀和大于 target 的最小下标
+     * </pre>
+     *
+     * @param unit [0, 1) 随机数
+     *
+     * @return 随机索引
+     */
+    private int sample(final double unit) {
+        if (mTotal <= 0D) {
+            return -1;
+        }
+        double target = unit * mTotal;
+        int    pos    = 0;
+        for (int step = mTopBit; step != 0; step >>= 1) {
+            int next = pos + step;
+            if (next < mTree.length && mTree[next] <= target) {
+                pos = next;
+                target -= mTree[next];
+            }
+        }
+        // 浮点误差可能落在权重为 0 的结果上, 回退到最近的非 0 权重
+        if (pos >= mWeights.length || mWeights[pos] <= 0D) {
+            for (int i = Math.min(pos, mWeights.length - 1); i >= 0; i--) {
+                if (mWeights[i] > 0D) {
+                    return i;
+                }
+            }
+            for (int i = pos + 1, len = mWeights.length; i < len; i++) {
+                if (mWeights[i] > 0D) {
+                    return i;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * 重建树状数组 ( O(n), 需持有写锁或在构造函数中调用 )
+     */
+    private void rebuild() {
+        double[] tree  = mTree;
+        double   total = 0D;
+        for (int i = 1, len = tree.length; i < len; i++) {
+            tree[i] = mWeights[i - 1];
+            total += mWeights[i - 1];
+        }
+        for (int i = 1, len = tree.length; i < len; i++) {
+            int parent = i + (i & -i);
+            if (parent < len) {
+                tree[parent] += tree[i];
+            }
+        }
+        mTotal = total;
+        mUpdates = 0;
+    }
+
+    /**
+     * 校验权重
+     *
+     * @param weight 权重
+     */
+    private static void checkWeight(final double weight) {
+        if (!(weight >= 0D) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be non-negative and finite: " + weight);
+        }
+    }
+}
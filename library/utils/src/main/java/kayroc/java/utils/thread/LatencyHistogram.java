@@ -0,0 +1,163 @@
+package kayroc.java.utils.thread;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图 ( 无锁, 对数线性分桶 )
+ *
+ * @author kayroc
+ * <pre>
+ *     参考 HdrHistogram 分桶思路: 每个 2 的幂区间再均分 8 个子桶, 相对误差不超过 12.5%
+ *     记录只需一次原子自增, 适用于热点路径
+ *     0 - 15 单独分桶, 覆盖 0 至 Long.MAX_VALUE 纳秒
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class LatencyHistogram {
+
+    /** 子桶位数 ( 2^3 = 8 个子桶 ) */
+    private static final int SUB_BITS     = 3;
+    /** 子桶数 */
+    private static final int SUB_COUNT    = 1 << SUB_BITS;
+    /** 线性分桶上限 */
+    private static final int LINEAR_COUNT = 16;
+    /** 线性分桶上限对应指数 */
+    private static final int LINEAR_EXP   = 4;
+    /** 分桶总数 */
+    private static final int BUCKET_COUNT = LINEAR_COUNT + (63 - LINEAR_EXP) * SUB_COUNT;
+
+    /** 分桶计数 */
+    private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+    /** 记录次数 */
+    private final AtomicLong      mCount   = new AtomicLong();
+    /** 记录总和 */
+    private final AtomicLong      mSum     = new AtomicLong();
+    /** 记录最大值 */
+    private final AtomicLong      mMax     = new AtomicLong();
+
+    /**
+     * 记录数值
+     *
+     * @param value 数值 ( 如纳秒耗时, 小于 0 按 0 处理 )
+     */
+    public void record(final long value) {
+        long v = Math.max(value, 0L);
+        mBuckets.incrementAndGet(bucketIndex(v));
+        mCount.incrementAndGet();
+        mSum.addAndGet(v);
+        long max;
+        while (v > (max = mMax.get())) {
+            if (mMax.compareAndSet(max, v)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 重置数据
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets.set(i, 0L);
+        }
+        mCount.set(0L);
+        mSum.set(0L);
+        mMax.set(0L);
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 记录次数
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * 获取平均值
+     *
+     * @return 平均值
+     */
+    public double getMean() {
+        long count = mCount.get();
+        return count == 0L ? 0D : (double) mSum.get() / count;
+    }
+
+    /**
+     * 获取最大值
+     *
+     * @return 最大值
+     */
+    public long getMax() {
+        return mMax.get();
+    }
+
+    /**
+     * 获取百分位数值 ( 返回所在桶的中间值 )
+     *
+     * @param percentile 百分位 ( 0 - 100 )
+     *
+     * @return 百分位数值
+     */
+    public long getPercentile(final double percentile) {
+        long[] buckets = new long[BUCKET_COUNT];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = mBuckets.get(i);
+            total += buckets[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        double p = Math.max(0D, Math.min(percentile, 100D));
+        long target = Math.max(1L, (long) Math.ceil(total * p / 100D));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min(bucketMiddle(i), mMax.get());
+            }
+        }
+        return mMax.get();
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 获取数值所在桶索引
+     *
+     * @param value 数值
+     *
+     * @return 桶索引
+     */
+    private static int bucketIndex(final long value) {
+        if (value < LINEAR_COUNT) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return LINEAR_COUNT + (exp - LINEAR_EXP) * SUB_COUNT + sub;
+    }
+
+    /**
+     * 获取桶中间值
+     *
+     * @param index 桶索引
+     *
+     * @return 桶中间值
+     */
+    private static long bucketMiddle(final int index) {
+        if (index < LINEAR_COUNT) {
+            return index;
+        }
+        int exp = (index - LINEAR_COUNT) / SUB_COUNT + LINEAR_EXP;
+        int sub = (index - LINEAR_COUNT) % SUB_COUNT;
+        long width = 1L << (exp - SUB_BITS);
+        long lower = (SUB_COUNT + sub) * width;
+        return lower + width / 2;
+    }
+}
@@ -0,0 +1,82 @@
+package kayroc.java.utils.thread;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 命名线程工厂
+ *
+ * @author kayroc
+ * <pre>
+ *     线程名格式: 名称前缀-序号, 便于 jstack、日志中定位线程池
+ *     同时支持 {@link ThreadFactory} 与 ForkJoinPool 工作线程
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class NamedThreadFactory
+    implements ThreadFactory,
+    ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+    /** 线程序号 */
+    private final AtomicInteger mNumber = new AtomicInteger(1);
+    /** 线程名前缀 */
+    private final String        mNamePrefix;
+    /** 是否守护线程 */
+    private final boolean       mDaemon;
+    /** 线程优先级 */
+    private final int           mPriority;
+
+    /**
+     * 构造函数
+     *
+     * @param namePrefix 线程名前缀
+     */
+    public NamedThreadFactory(final String namePrefix) {
+        this(namePrefix, false, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param namePrefix 线程名前缀
+     * @param daemon     是否守护线程
+     * @param priority   线程优先级
+     */
+    public NamedThreadFactory(
+        final String namePrefix,
+        final boolean daemon,
+        final int priority
+    ) {
+        this.mNamePrefix = namePrefix != null ? namePrefix : "pool";
+        this.mDaemon = daemon;
+        this.mPriority = Math.max(Thread.MIN_PRIORITY, Math.min(priority, Thread.MAX_PRIORITY));
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, mNamePrefix + "-" + mNumber.getAndIncrement());
+        thread.setDaemon(mDaemon);
+        thread.setPriority(mPriority);
+        return thread;
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(mNamePrefix + "-" + mNumber.getAndIncrement());
+        thread.setDaemon(mDaemon);
+        thread.setPriority(mPriority);
+        return thread;
+    }
+
+    /**
+     * 获取线程名前缀
+     *
+     * @return 线程名前缀
+     */
+    public String getNamePrefix() {
+        return mNamePrefix;
+    }
+}
@@ -0,0 +1,482 @@
+package kayroc.java.utils.thread;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 批量任务提交 ( 背压 + 完成顺序获取结果 )
+ *
+ * @author kayroc
+ * <pre>
+ *     通过 {@link ThreadPool#newBatch(int, boolean)} 创建
+ *     1. 同时执行中的任务数不超过 maxInFlight, 超过时 {@link #submit(Callable)} 阻塞等待 ( Semaphore 背压 )
+ *     2. 通过 {@link #take()}、{@link #poll(long, TimeUnit)} 按完成顺序获取结果
+ *     3. cancelOnFailure 为 true 时, 首个任务失败后取消所有执行中任务, 并拒绝后续提交
+ *     <p></p>
+ *     已完成但未获取的结果会保留在完成队列中, 生产与消费在同一线程时
+ *     建议使用 {@link #process(Iterator, OnResultCallback)} 边提交边消费
+ *     <p></p>
+ *     ThreadPoolExecutor 使用 JDK DiscardPolicy、DiscardOldestPolicy 时, 被丢弃的任务永不执行也不会完成
+ *     创建时将其替换为等效策略, 丢弃批量任务时以 RejectedExecutionException 结束该任务并释放许可
+ *     自定义拒绝策略丢弃任务时需对其调用 cancel, 否则许可无法释放
+ * </pre>
+ *
+ * @param <T> 泛型
+ */
+@SuppressWarnings("unused")
+public final class TaskBatch<T> {
+
+    /** 任务执行器 */
+    private final Executor                   mExecutor;
+    /** 最大同时执行任务数 */
+    private final int                        mMaxInFlight;
+    /** 首个任务失败后是否取消全部 */
+    private final boolean                    mCancelOnFailure;
+    /** 执行许可 */
+    private final Semaphore                  mPermits;
+    /** 执行中任务 */
+    private final Set<BatchFuture>           mInFlight  = Collections.newSetFromMap(
+        new ConcurrentHashMap<BatchFuture, Boolean>()
+    );
+    /** 已完成任务 ( 按完成顺序 ) */
+    private final BlockingQueue<Future<T>>   mCompleted = new LinkedBlockingQueue<>();
+    /** 首个失败异常 */
+    private final AtomicReference<Throwable> mFailure   = new AtomicReference<>();
+    /** 是否已取消 */
+    private volatile boolean                 mCancelled;
+
+    /**
+     * 构造函数
+     *
+     * @param executor        任务执行器
+     * @param maxInFlight     最大同时执行任务数
+     * @param cancelOnFailure 首个任务失败后是否取消全部
+     */
+    public TaskBatch(
+        final Executor executor,
+        final int maxInFlight,
+        final boolean cancelOnFailure
+    ) {
+        if (executor == null) {
+            throw new NullPointerException("executor is null");
+        }
+        this.mExecutor = executor;
+        this.mMaxInFlight = Math.max(maxInFlight, 1);
+        this.mCancelOnFailure = cancelOnFailure;
+        this.mPermits = new Semaphore(mMaxInFlight);
+        guardDiscard(executor);
+    }
+
+    /**
+     * 结果回调
+     *
+     * @param <T> 泛型
+     * @author kayroc
+     */
+    public interface OnResultCallback<T> {
+
+        /**
+         * 任务执行成功
+         *
+         * @param result 执行结果
+         */
+        void onSuccess(T result);
+
+        /**
+         * 任务执行失败 ( 含取消 )
+         *
+         * @param throwable 异常信息
+         */
+        void onFailure(Throwable throwable);
+    }
+
+    // ==========
+    // = 任务提交 =
+    // ==========
+
+    /**
+     * 提交任务 ( 执行中任务数达到上限时阻塞 )
+     *
+     * @param task 任务
+     *
+     * @return 任务 Future, 已取消或已失败 ( cancelOnFailure ) 返回 null
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public Future<T> submit(final Callable<T> task)
+        throws InterruptedException {
+        if (task == null || isStopped()) {
+            return null;
+        }
+        mPermits.acquire();
+        return dispatch(task);
+    }
+
+    /**
+     * 尝试提交任务 ( 执行中任务数达到上限时等待指定时间 )
+     *
+     * @param task    任务
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     *
+     * @return 任务 Future, 超时、已取消或已失败返回 null
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public Future<T> trySubmit(
+        final Callable<T> task,
+        final long timeout,
+        final TimeUnit unit
+    )
+        throws InterruptedException {
+        if (task == null || unit == null || isStopped()) {
+            return null;
+        }
+        if (!mPermits.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return dispatch(task);
+    }
+
+    /**
+     * 在当前线程边提交边消费结果, 直到任务全部完成
+     * <pre>
+     *     执行中任务数达到上限时, 先消费已完成结果再继续提交
+     *     回调在当前线程触发
+     * </pre>
+     *
+     * @param tasks    任务迭代器 ( 可为惰性生成 )
+     * @param callback 结果回调
+     *
+     * @return {@code true} 全部成功, {@code false} 存在失败或被取消
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean process(
+        final Iterator<? extends Callable<T>> tasks,
+        final OnResultCallback<T> callback
+    )
+        throws InterruptedException {
+        boolean success = true;
+        if (tasks != null) {
+            while (tasks.hasNext() && !isStopped()) {
+                Callable<T> task = tasks.next();
+                if (task == null) {
+                    continue;
+                }
+                // 无可用许可时, 先消费已完成结果, 无结果可消费则阻塞等待许可
+                while (!mPermits.tryAcquire()) {
+                    Future<T> future = mCompleted.poll();
+                    if (future == null) {
+                        mPermits.acquire();
+                        break;
+                    }
+                    success &= deliver(future, callback);
+                }
+                dispatch(task);
+                Future<T> future;
+                while ((future = mCompleted.poll()) != null) {
+                    success &= deliver(future, callback);
+                }
+            }
+        }
+        // 消费剩余结果
+        while (!mInFlight.isEmpty() || !mCompleted.isEmpty()) {
+            Future<T> future = mCompleted.poll(10L, TimeUnit.MILLISECONDS);
+            if (future != null) {
+                success &= deliver(future, callback);
+            }
+        }
+        return success && !isStopped();
+    }
+
+    // ==========
+    // = 结果获取 =
+    // ==========
+
+    /**
+     * 获取下一个完成的任务 ( 阻塞 )
+     *
+     * @return 任务 Future
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public Future<T> take()
+        throws InterruptedException {
+        return mCompleted.take();
+    }
+
+    /**
+     * 获取下一个完成的任务
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     *
+     * @return 任务 Future, 超时返回 null
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public Future<T> poll(
+        final long timeout,
+        final TimeUnit unit
+    )
+        throws InterruptedException {
+        return mCompleted.poll(timeout, unit);
+    }
+
+    /**
+     * 获取下一个完成的任务 ( 不等待 )
+     *
+     * @return 任务 Future, 没有则返回 null
+     */
+    public Future<T> poll() {
+        return mCompleted.poll();
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 取消全部执行中任务, 并拒绝后续提交
+     */
+    public void cancel() {
+        mCancelled = true;
+        for (BatchFuture future : mInFlight) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 是否已停止提交 ( 已取消或 cancelOnFailure 下已失败 )
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isStopped() {
+        return mCancelled || (mCancelOnFailure && mFailure.get() != null);
+    }
+
+    /**
+     * 获取首个失败异常
+     *
+     * @return 首个失败异常, 没有则返回 null
+     */
+    public Throwable getFailure() {
+        return mFailure.get();
+    }
+
+    /**
+     * 获取执行中任务数
+     *
+     * @return 执行中任务数
+     */
+    public int getInFlightCount() {
+        return mInFlight.size();
+    }
+
+    /**
+     * 获取最大同时执行任务数
+     *
+     * @return 最大同时执行任务数
+     */
+    public int getMaxInFlight() {
+        return mMaxInFlight;
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 提交任务 ( 已获取许可 )
+     *
+     * @param task 任务
+     *
+     * @return 任务 Future
+     */
+    private Future<T> dispatch(final Callable<T> task) {
+        BatchFuture future = new BatchFuture(task);
+        mInFlight.add(future);
+        // 获取许可期间被取消
+        if (isStopped()) {
+            future.cancel(false);
+            future.release();
+            return future;
+        }
+        try {
+            mExecutor.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.reject(e);
+        }
+        return future;
+    }
+
+    /**
+     * 替换线程池丢弃策略, 使被丢弃的批量任务能够结束并释放许可
+     *
+     * @param executor 任务执行器
+     */
+    static void guardDiscard(final Executor executor) {
+        if (!(executor instanceof ThreadPoolExecutor)) {
+            return;
+        }
+        ThreadPoolExecutor       tpe     = (ThreadPoolExecutor) executor;
+        RejectedExecutionHandler handler = ThreadPoolMetrics.getRejectedHandler(tpe);
+        // 仅替换 JDK 策略 ( 子类可能有自定义处理 )
+        if (handler != null && handler.getClass() == ThreadPoolExecutor.DiscardPolicy.class) {
+            ThreadPoolMetrics.replaceRejectedHandler(tpe, handler, new DiscardHandler(false));
+        } else if (handler != null && handler.getClass() == ThreadPoolExecutor.DiscardOldestPolicy.class) {
+            ThreadPoolMetrics.replaceRejectedHandler(tpe, handler, new DiscardHandler(true));
+        }
+    }
+
+    /**
+     * 结束被丢弃的批量任务 ( 非批量任务忽略 )
+     *
+     * @param runnable 被丢弃的任务
+     */
+    static void rejectDiscarded(final Runnable runnable) {
+        Runnable task = ThreadPoolMetrics.unwrap(runnable);
+        if (task instanceof TaskBatch.BatchFuture) {
+            ((TaskBatch<?>.BatchFuture) task).reject(new RejectedExecutionException("task discarded"));
+        }
+    }
+
+    /**
+     * 分发结果至回调
+     *
+     * @param future   任务 Future
+     * @param callback 结果回调
+     *
+     * @return {@code true} 成功, {@code false} 失败
+     */
+    private boolean deliver(
+        final Future<T> future,
+        final OnResultCallback<T> callback
+    ) {
+        try {
+            T result = future.get();
+            if (callback != null) {
+                callback.onSuccess(result);
+            }
+            return true;
+        } catch (ExecutionException e) {
+            if (callback != null) {
+                callback.onFailure(e.getCause());
+            }
+        } catch (CancellationException | InterruptedException e) {
+            if (callback != null) {
+                callback.onFailure(e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 批量任务 Future
+     * <pre>
+     *     完成时加入完成队列, 执行线程结束 run() 时才释放许可
+     *     cancel(true) 仅中断执行线程, 任务可能仍在运行, 此时释放许可会超出 maxInFlight
+     * </pre>
+     */
+    private final class BatchFuture
+        extends FutureTask<T> {
+
+        /** 许可是否已释放 */
+        private final AtomicBoolean mReleased = new AtomicBoolean();
+        /** 执行线程是否已开始 run() */
+        private volatile boolean    mStarted;
+
+        BatchFuture(final Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            mStarted = true;
+            try {
+                super.run();
+            } finally {
+                release();
+            }
+        }
+
+        void reject(final Throwable throwable) {
+            setException(throwable);
+            release();
+        }
+
+        void release() {
+            if (mReleased.compareAndSet(false, true)) {
+                mPermits.release();
+            }
+        }
+
+        @Override
+        protected void done() {
+            // 开始执行前被取消 ( 含被拒绝策略取消 ), 之后 run() 也不会执行任务, 直接释放许可
+            if (isCancelled() && !mStarted) {
+                release();
+            }
+            if (!isCancelled()) {
+                try {
+                    get();
+                } catch (ExecutionException e) {
+                    if (mFailure.compareAndSet(null, e.getCause()) && mCancelOnFailure) {
+                        for (BatchFuture future : mInFlight) {
+                            future.cancel(true);
+                        }
+                    }
+                } catch (Exception ignore) {
+                }
+            }
+            // 先加入完成队列再移除, 避免 process() 误判全部完成
+            mCompleted.add(this);
+            mInFlight.remove(this);
+        }
+    }
+
+    /**
+     * 丢弃策略 ( 等效 JDK DiscardPolicy、DiscardOldestPolicy, 丢弃批量任务时结束该任务 )
+     */
+    static final class DiscardHandler
+        implements RejectedExecutionHandler {
+
+        /** 是否丢弃最早的任务 */
+        private final boolean discardOldest;
+
+        DiscardHandler(final boolean discardOldest) {
+            this.discardOldest = discardOldest;
+        }
+
+        @Override
+        public void rejectedExecution(
+            final Runnable runnable,
+            final ThreadPoolExecutor executor
+        ) {
+            if (discardOldest && !executor.isShutdown()) {
+                rejectDiscarded(executor.getQueue().poll());
+                executor.execute(runnable);
+                return;
+            }
+            rejectDiscarded(runnable);
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package kayroc.java.utils.thread;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -41,10 +45,13 @@ import java.util.concurrent.TimeoutException;
 @SuppressWarnings({"AlibabaThreadPoolCreation", "unused", "SpellCheckingInspection"})
 public final class ThreadPool {
 
+    /** 默认线程池名 ( 线程名前缀 ) */
+    private static final String POOL_NAME = "ThreadPool";
+
     /** 线程池对象 */
     private final ExecutorService mThreadPool;
-    /** 定时任务线程池 */
-    private ScheduledExecutorService mScheduleExec;
+    /** 线程池监控统计 ( null 表示未开启 ) */
+    private volatile ThreadPoolMetrics mMetrics;
 
     /**
      * 构造函数
@@ -56,9 +63,7 @@ public final class ThreadPool {
         if (threadNumber <= 0) {
             threadNumber = 1;
         }
-        this.mThreadPool = Executors.newFixedThreadPool(threadNumber);
-        // 初始化定时器任务
-        this.mScheduleExec = Executors.newScheduledThreadPool(threadNumber);
+        this.mThreadPool = ThreadPoolConfig.fixed(POOL_NAME, threadNumber).createExecutor();
     }
 
     /**
@@ -68,8 +73,16 @@ public final class ThreadPool {
      */
     public ThreadPool(final ExecutorService threadPool) {
         this.mThreadPool = threadPool;
-        // 初始化定时器任务
-        this.mScheduleExec = Executors.newScheduledThreadPool(getThreads());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config 线程池配置信息 {@link ThreadPoolConfig}
+     */
+    public ThreadPool(final ThreadPoolConfig config) {
+        this.mThreadPool = (config != null ? config : ThreadPoolConfig.fixed(POOL_NAME, getThreads()))
+            .createExecutor();
     }
 
     /**
@@ -77,27 +90,27 @@ public final class ThreadPool {
      *
      * @param threadPoolType 线程初始化类型 {@link ThreadPoolType}
      */
-    @SuppressWarnings({"AlibabaRemoveCommentedCode"})
     public ThreadPool(final ThreadPoolType threadPoolType) {
-        // 初始化定时器任务
-        this.mScheduleExec = Executors.newScheduledThreadPool(getThreads());
-        // =
         if (threadPoolType != null) {
             if (threadPoolType == ThreadPoolType.SINGLE) {
-                mThreadPool = Executors.newSingleThreadExecutor();
-                // 初始化定时器任务
-                this.mScheduleExec = Executors.newScheduledThreadPool(1);
-            // } else if (threadPoolType == ThreadPoolType.AUTO_CPU) {
-            //     mThreadPool = Executors.newWorkStealingPool();
+                mThreadPool = Executors.newSingleThreadExecutor(new NamedThreadFactory(POOL_NAME + "-single"));
+            } else if (threadPoolType == ThreadPoolType.AUTO_CPU) {
+                mThreadPool = ThreadPoolConfig.workStealing(POOL_NAME + "-steal").createExecutor();
             } else if (threadPoolType == ThreadPoolType.CALC_CPU) {
-                mThreadPool = Executors.newFixedThreadPool(getThreads());
+                mThreadPool = ThreadPoolConfig.fixed(POOL_NAME, getThreads()).createExecutor();
             } else if (threadPoolType == ThreadPoolType.CACHE) {
-                mThreadPool = Executors.newCachedThreadPool();
+                mThreadPool = ThreadPoolConfig.cached(POOL_NAME + "-cache").createExecutor();
+            } else if (threadPoolType == ThreadPoolType.CPU) {
+                mThreadPool = ThreadPoolConfig.cpu(POOL_NAME + "-cpu").createExecutor();
+            } else if (threadPoolType == ThreadPoolType.IO) {
+                mThreadPool = ThreadPoolConfig.io(POOL_NAME + "-io").createExecutor();
+            } else if (threadPoolType == ThreadPoolType.VIRTUAL) {
+                mThreadPool = ThreadPoolConfig.virtual(POOL_NAME + "-virtual").createExecutor();
             } else {
-                mThreadPool = Executors.newFixedThreadPool(getThreads());
+                mThreadPool = ThreadPoolConfig.fixed(POOL_NAME, getThreads()).createExecutor();
             }
         } else {
-            mThreadPool = Executors.newFixedThreadPool(getThreads());
+            mThreadPool = ThreadPoolConfig.fixed(POOL_NAME, getThreads()).createExecutor();
         }
     }
 
@@ -115,12 +128,18 @@ public final class ThreadPool {
         // 如果当前线程意外终止, 会创建一个新线程继续执行任务, 这和我们直接创建线程不同, 也和 newFixedThreadPool(1) 不同
         SINGLE, // newSingleThreadExecutor 获取的是一个单个的线程, 这个线程会保证你的任务执行完成
 
-        AUTO_CPU, // 根据 CPU 来创建 ( 自定义创建 )
+        AUTO_CPU, // 根据 CPU 来创建 ( 工作窃取 ForkJoinPool, 并行数 = CPU 核心数 )
 
-        CALC_CPU, // 手动计算 CPU 来创建
+        CALC_CPU, // 手动计算 CPU 来创建 ( 最多 10 个线程, 适用于移动端 )
 
         CACHE, // 可缓存线程池
 
+        CPU, // CPU 密集型 ( 线程数 = CPU 核心数, 不设上限 )
+
+        IO, // IO 密集型 ( 线程数 = CPU 核心数 * 2, 不设上限, 空闲回收 )
+
+        VIRTUAL, // 虚拟线程 ( JDK 21+ 每个任务一个虚拟线程, 适用于阻塞 IO, 不支持则退回 CACHE )
+
         // 1 newCachedThreadPool: 创建一个可缓存线程池, 如果线程池长度超过处理需要, 可灵活回收空闲线程, 若无可回收, 则新建线程
         // 2 newFixedThreadPool: 创建一个固定数目的、可重用的线程池
         // 3 newScheduledThreadPool: 创建一个定长线程池, 支持定时及周期性任务执行
@@ -161,6 +180,140 @@ public final class ThreadPool {
         }
     }
 
+    /**
+     * 运行环境是否支持虚拟线程 ( JDK 21+ )
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public static boolean isVirtualThreadSupported() {
+        return ThreadPoolConfig.isVirtualThreadSupported();
+    }
+
+    /**
+     * 获取 CPU 密集型线程数
+     *
+     * @return CPU 核心数
+     */
+    public static int getCpuThreads() {
+        return Math.max(Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    /**
+     * 获取 IO 密集型线程数
+     *
+     * @return CPU 核心数 * 2
+     */
+    public static int getIoThreads() {
+        return getCpuThreads() * 2;
+    }
+
+    // ==========
+    // = 动态调整 =
+    // ==========
+
+    /**
+     * 获取线程池对象
+     *
+     * @return {@link ExecutorService}
+     */
+    public ExecutorService getExecutorService() {
+        return mThreadPool;
+    }
+
+    /**
+     * 是否工作窃取线程池 ( ForkJoinPool )
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isWorkStealing() {
+        return mThreadPool instanceof ForkJoinPool;
+    }
+
+    /**
+     * 获取核心线程数 ( 工作窃取线程池返回并行数 )
+     *
+     * @return 核心线程数, 未知返回 -1
+     */
+    public int getCorePoolSize() {
+        if (mThreadPool instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) mThreadPool).getCorePoolSize();
+        } else if (mThreadPool instanceof ForkJoinPool) {
+            return ((ForkJoinPool) mThreadPool).getParallelism();
+        }
+        return -1;
+    }
+
+    /**
+     * 获取最大线程数 ( 工作窃取线程池返回并行数 )
+     *
+     * @return 最大线程数, 未知返回 -1
+     */
+    public int getMaximumPoolSize() {
+        if (mThreadPool instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) mThreadPool).getMaximumPoolSize();
+        } else if (mThreadPool instanceof ForkJoinPool) {
+            return ((ForkJoinPool) mThreadPool).getParallelism();
+        }
+        return -1;
+    }
+
+    /**
+     * 运行时调整线程数
+     * <pre>
+     *     仅支持 ThreadPoolExecutor 实现, 扩大时先调整最大线程数, 缩小时先调整核心线程数
+     *     缩小后多余线程在空闲时回收, 不影响正在执行的任务
+     * </pre>
+     *
+     * @param corePoolSize    核心线程数
+     * @param maximumPoolSize 最大线程数
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public boolean resize(
+        final int corePoolSize,
+        final int maximumPoolSize
+    ) {
+        if (!(mThreadPool instanceof ThreadPoolExecutor)) {
+            return false;
+        }
+        if (corePoolSize < 0 || maximumPoolSize <= 0 || maximumPoolSize < corePoolSize) {
+            return false;
+        }
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) mThreadPool;
+        synchronized (executor) {
+            if (maximumPoolSize >= executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(maximumPoolSize);
+                executor.setCorePoolSize(corePoolSize);
+            } else {
+                executor.setCorePoolSize(corePoolSize);
+                executor.setMaximumPoolSize(maximumPoolSize);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 运行时调整核心线程数 ( 超过最大线程数则同时扩大最大线程数 )
+     *
+     * @param corePoolSize 核心线程数
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public boolean setCorePoolSize(final int corePoolSize) {
+        return resize(corePoolSize, Math.max(corePoolSize, getMaximumPoolSize()));
+    }
+
+    /**
+     * 运行时调整最大线程数 ( 小于核心线程数则同时缩小核心线程数 )
+     *
+     * @param maximumPoolSize 最大线程数
+     *
+     * @return {@code true} success, {@code false} fail
+     */
+    public boolean setMaximumPoolSize(final int maximumPoolSize) {
+        return resize(Math.min(getCorePoolSize(), maximumPoolSize), maximumPoolSize);
+    }
+
     // =
 
     /**
@@ -170,7 +323,7 @@ public final class ThreadPool {
      */
     public void execute(final Runnable runnable) {
         if (mThreadPool != null && runnable != null) {
-            mThreadPool.execute(runnable);
+            mThreadPool.execute(wrap(runnable));
         }
     }
 
@@ -183,7 +336,7 @@ public final class ThreadPool {
         if (mThreadPool != null && runnables != null) {
             for (Runnable command : runnables) {
                 if (command != null) {
-                    mThreadPool.execute(command);
+                    mThreadPool.execute(wrap(command));
                 }
             }
         }
@@ -201,7 +354,7 @@ public final class ThreadPool {
         final Object object
     ) {
         if (mThreadPool != null && method != null && object != null) {
-            mThreadPool.execute(new Runnable() {
+            mThreadPool.execute(wrap(new Runnable() {
                 @Override
                 public void run() {
                     try {
@@ -209,7 +362,7 @@ public final class ThreadPool {
                     } catch (Exception ignore) {
                     }
                 }
-            });
+            }));
         }
     }
 
@@ -300,7 +453,7 @@ public final class ThreadPool {
      */
     public <T> Future<T> submit(final Callable<T> task) {
         if (mThreadPool != null && task != null) {
-            return mThreadPool.submit(task);
+            return mThreadPool.submit(wrap(task));
         }
         return null;
     }
@@ -319,7 +472,7 @@ public final class ThreadPool {
         final T result
     ) {
         if (mThreadPool != null && task != null) {
-            return mThreadPool.submit(task, result);
+            return mThreadPool.submit(wrap(task), result);
         }
         return null;
     }
@@ -333,7 +486,7 @@ public final class ThreadPool {
      */
     public Future<?> submit(final Runnable task) {
         if (mThreadPool != null && task != null) {
-            return mThreadPool.submit(task);
+            return mThreadPool.submit(wrap(task));
         }
         return null;
     }
@@ -355,7 +508,7 @@ public final class ThreadPool {
     public <T> List<Future<T>> invokeAll(final Collection<? extends Callable<T>> tasks)
         throws InterruptedException {
         if (mThreadPool != null && tasks != null) {
-            return mThreadPool.invokeAll(tasks);
+            return mThreadPool.invokeAll(wrap(tasks));
         }
         return null;
     }
@@ -385,7 +538,7 @@ public final class ThreadPool {
     )
         throws InterruptedException {
         if (mThreadPool != null && tasks != null && unit != null) {
-            return mThreadPool.invokeAll(tasks, timeout, unit);
+            return mThreadPool.invokeAll(wrap(tasks), timeout, unit);
         }
         return null;
     }
@@ -407,7 +560,7 @@ public final class ThreadPool {
     public <T> T invokeAny(final Collection<? extends Callable<T>> tasks)
         throws InterruptedException, ExecutionException {
         if (mThreadPool != null && tasks != null) {
-            return mThreadPool.invokeAny(tasks);
+            return mThreadPool.invokeAny(wrap(tasks));
         }
         return null;
     }
@@ -436,11 +589,159 @@ public final class ThreadPool {
     )
         throws InterruptedException, ExecutionException, TimeoutException {
         if (mThreadPool != null && tasks != null && unit != null) {
-            return mThreadPool.invokeAny(tasks, timeout, unit);
+            return mThreadPool.invokeAny(wrap(tasks), timeout, unit);
         }
         return null;
     }
 
+    // ==========
+    // = 批量提交 =
+    // ==========
+
+    /**
+     * 创建批量任务提交器
+     * <pre>
+     *     同时执行中的任务数不超过 maxInFlight, 避免海量任务堆积在队列中耗尽内存
+     *     结果按完成顺序获取, 详见 {@link TaskBatch}
+     * </pre>
+     *
+     * @param maxInFlight     最大同时执行任务数
+     * @param cancelOnFailure 首个任务失败后是否取消全部
+     * @param <T>             泛型
+     *
+     * @return {@link TaskBatch}
+     */
+    @SuppressWarnings("Convert2Lambda")
+    public <T> TaskBatch<T> newBatch(
+        final int maxInFlight,
+        final boolean cancelOnFailure
+    ) {
+        TaskBatch.guardDiscard(mThreadPool);
+        return new TaskBatch<>(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                if (mThreadPool == null) {
+                    throw new RejectedExecutionException("thread pool is null");
+                }
+                mThreadPool.execute(wrap(runnable));
+            }
+        }, maxInFlight, cancelOnFailure);
+    }
+
+    /**
+     * 创建批量任务提交器 ( 最大同时执行任务数为线程数的 2 倍 )
+     * <pre>
+     *     无界线程池 ( CACHE、VIRTUAL 等 ) 按 IO 线程数计算
+     * </pre>
+     *
+     * @param <T> 泛型
+     *
+     * @return {@link TaskBatch}
+     */
+    public <T> TaskBatch<T> newBatch() {
+        int threads = getMaximumPoolSize();
+        if (threads <= 0 || threads > getIoThreads()) {
+            threads = getIoThreads();
+        }
+        return newBatch(threads * 2, false);
+    }
+
+    // ==========
+    // = 监控统计 =
+    // ==========
+
+    /**
+     * 开启监控统计
+     * <pre>
+     *     开启后提交的任务才会被统计, 重复调用返回已有统计对象
+     * </pre>
+     *
+     * @param name 线程池名
+     *
+     * @return {@link ThreadPoolMetrics}
+     */
+    public synchronized ThreadPoolMetrics enableMetrics(final String name) {
+        if (mMetrics == null && mThreadPool != null) {
+            mMetrics = new ThreadPoolMetrics(name, mThreadPool);
+        }
+        return mMetrics;
+    }
+
+    /**
+     * 关闭监控统计 ( 已包装的任务仍会记录至原统计对象, 拒绝策略还原为原策略 )
+     */
+    public synchronized void disableMetrics() {
+        if (mMetrics != null) {
+            mMetrics.detach();
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * 获取监控统计
+     *
+     * @return {@link ThreadPoolMetrics}, 未开启返回 null
+     */
+    public ThreadPoolMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 获取监控统计数据快照
+     *
+     * @return {@link ThreadPoolMetrics.Snapshot}, 未开启返回 null
+     */
+    public ThreadPoolMetrics.Snapshot getMetricsSnapshot() {
+        ThreadPoolMetrics metrics = mMetrics;
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    /**
+     * 包装 Runnable 任务 ( 未开启统计则直接返回 )
+     *
+     * @param runnable 任务
+     *
+     * @return 任务
+     */
+    private Runnable wrap(final Runnable runnable) {
+        ThreadPoolMetrics metrics = mMetrics;
+        return metrics != null ? metrics.wrap(runnable) : runnable;
+    }
+
+    /**
+     * 包装 Callable 任务 ( 未开启统计则直接返回 )
+     *
+     * @param callable 任务
+     * @param <T>      泛型
+     *
+     * @return 任务
+     */
+    private <T> Callable<T> wrap(final Callable<T> callable) {
+        ThreadPoolMetrics metrics = mMetrics;
+        return metrics != null ? metrics.wrap(callable) : callable;
+    }
+
+    /**
+     * 包装 Callable 任务集合 ( 未开启统计则直接返回 )
+     *
+     * @param tasks 任务集合
+     * @param <T>   泛型
+     *
+     * @return 任务集合
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Collection<? extends Callable<T>> wrap(final Collection<? extends Callable<T>> tasks) {
+        ThreadPoolMetrics metrics = mMetrics;
+        if (metrics == null) {
+            return tasks;
+        }
+        List<Callable<T>> list = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            list.add(task != null ? metrics.wrap(task) : null);
+        }
+        return list;
+    }
+
     // =
 
     /**
@@ -457,8 +758,8 @@ public final class ThreadPool {
         final long delay,
         final TimeUnit unit
     ) {
-        if (mScheduleExec != null && command != null && unit != null) {
-            return mScheduleExec.schedule(command, delay, unit);
+        if (command != null && unit != null) {
+            return WheelTimer.getDefault().schedule(command, delay, unit, mThreadPool);
         }
         return null;
     }
@@ -478,8 +779,8 @@ public final class ThreadPool {
         final long delay,
         final TimeUnit unit
     ) {
-        if (mScheduleExec != null && callable != null && unit != null) {
-            return mScheduleExec.schedule(callable, delay, unit);
+        if (callable != null && unit != null) {
+            return WheelTimer.getDefault().schedule(callable, delay, unit, mThreadPool);
         }
         return null;
     }
@@ -500,8 +801,8 @@ public final class ThreadPool {
         final long period,
         final TimeUnit unit
     ) {
-        if (mScheduleExec != null && command != null && unit != null) {
-            return mScheduleExec.scheduleAtFixedRate(command, initialDelay, period, unit);
+        if (command != null && unit != null) {
+            return WheelTimer.getDefault().scheduleAtFixedRate(command, initialDelay, period, unit, mThreadPool);
         }
         return null;
     }
@@ -522,8 +823,8 @@ public final class ThreadPool {
         final long delay,
         final TimeUnit unit
     ) {
-        if (mScheduleExec != null && command != null && unit != null) {
-            return mScheduleExec.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+        if (command != null && unit != null) {
+            return WheelTimer.getDefault().scheduleWithFixedDelay(command, initialDelay, delay, unit, mThreadPool);
         }
         return null;
     }
@@ -0,0 +1,545 @@
+package kayroc.java.utils.thread;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池配置信息
+ *
+ * @author kayroc
+ * <pre>
+ *     通过 {@link ThreadPool#ThreadPool(ThreadPoolConfig)} 创建线程池
+ *     <p></p>
+ *     队列容量:
+ *     0 使用 SynchronousQueue ( 直接移交, 无排队 )
+ *     小于 0 使用无界 LinkedBlockingQueue
+ *     大于 0 使用有界 ArrayBlockingQueue, 队列满后扩容至最大线程数, 仍满则触发拒绝策略
+ *     <p></p>
+ *     workStealing 为 true 时使用 ForkJoinPool ( 并行数为最大线程数 ), 队列、拒绝策略不生效
+ *     virtual 为 true 且运行环境支持虚拟线程时, 每个任务一个虚拟线程, 其余配置不生效
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class ThreadPoolConfig {
+
+    /** 线程池名 ( 线程名前缀 ) */
+    private String       mName;
+    /** 核心线程数 */
+    private int          mCorePoolSize;
+    /** 最大线程数 */
+    private int          mMaximumPoolSize;
+    /** 空闲线程存活时间 ( 毫秒 ) */
+    private long         mKeepAliveTime          = 60000L;
+    /** 队列容量 */
+    private int          mQueueCapacity          = -1;
+    /** 拒绝策略 */
+    private RejectPolicy mRejectPolicy           = RejectPolicy.ABORT;
+    /** 是否允许核心线程超时回收 */
+    private boolean      mAllowCoreThreadTimeOut = false;
+    /** 是否守护线程 */
+    private boolean      mDaemon                 = false;
+    /** 线程优先级 */
+    private int          mPriority               = Thread.NORM_PRIORITY;
+    /** 是否使用工作窃取线程池 ( ForkJoinPool ) */
+    private boolean      mWorkStealing           = false;
+    /** 是否使用虚拟线程 ( JDK 21+, 不支持则退回可缓存线程池 ) */
+    private boolean      mVirtual                = false;
+
+    // =======
+    // = 枚举 =
+    // =======
+
+    /**
+     * 拒绝策略
+     *
+     * @author kayroc
+     */
+    public enum RejectPolicy {
+
+        // 抛出 RejectedExecutionException
+        ABORT,
+
+        // 由提交任务的线程执行 ( 自然形成背压 )
+        CALLER_RUNS,
+
+        // 直接丢弃任务
+        DISCARD,
+
+        // 丢弃队列中最早的任务, 并重新提交
+        DISCARD_OLDEST
+    }
+
+    // ==========
+    // = 构造函数 =
+    // ==========
+
+    /**
+     * 构造函数
+     *
+     * @param name            线程池名 ( 线程名前缀 )
+     * @param corePoolSize    核心线程数
+     * @param maximumPoolSize 最大线程数
+     */
+    private ThreadPoolConfig(
+        final String name,
+        final int corePoolSize,
+        final int maximumPoolSize
+    ) {
+        this.mName = name;
+        this.mCorePoolSize = Math.max(corePoolSize, 0);
+        this.mMaximumPoolSize = Math.max(Math.max(maximumPoolSize, 1), mCorePoolSize);
+    }
+
+    /**
+     * 获取配置信息
+     *
+     * @param name            线程池名 ( 线程名前缀 )
+     * @param corePoolSize    核心线程数
+     * @param maximumPoolSize 最大线程数
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig get(
+        final String name,
+        final int corePoolSize,
+        final int maximumPoolSize
+    ) {
+        return new ThreadPoolConfig(name, corePoolSize, maximumPoolSize);
+    }
+
+    /**
+     * 获取固定线程数配置信息 ( 无界队列 )
+     *
+     * @param name         线程池名 ( 线程名前缀 )
+     * @param threadNumber 线程数量
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig fixed(
+        final String name,
+        final int threadNumber
+    ) {
+        int number = Math.max(threadNumber, 1);
+        return new ThreadPoolConfig(name, number, number).setKeepAliveTime(0L);
+    }
+
+    /**
+     * 获取可缓存线程池配置信息 ( 无核心线程, 直接移交 )
+     *
+     * @param name 线程池名 ( 线程名前缀 )
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig cached(final String name) {
+        return new ThreadPoolConfig(name, 0, Integer.MAX_VALUE).setQueueCapacity(0);
+    }
+
+    /**
+     * 获取 CPU 密集型配置信息 ( 线程数 = CPU 核心数 )
+     *
+     * @param name 线程池名 ( 线程名前缀 )
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig cpu(final String name) {
+        return fixed(name, ThreadPool.getCpuThreads());
+    }
+
+    /**
+     * 获取 IO 密集型配置信息 ( 核心线程数 = CPU 核心数 * 2, 不设上限 )
+     *
+     * @param name 线程池名 ( 线程名前缀 )
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig io(final String name) {
+        return fixed(name, ThreadPool.getIoThreads()).setKeepAliveTime(60000L)
+            .setAllowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 获取工作窃取配置信息 ( ForkJoinPool, 并行数 = CPU 核心数 )
+     *
+     * @param name 线程池名 ( 线程名前缀 )
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig workStealing(final String name) {
+        int parallelism = ThreadPool.getCpuThreads();
+        return new ThreadPoolConfig(name, parallelism, parallelism).setWorkStealing(true);
+    }
+
+    /**
+     * 获取虚拟线程配置信息 ( 每个任务一个虚拟线程, 不支持则退回可缓存线程池 )
+     *
+     * @param name 线程池名 ( 线程名前缀 )
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public static ThreadPoolConfig virtual(final String name) {
+        return cached(name).setVirtual(true);
+    }
+
+    // ===========
+    // = get/set =
+    // ===========
+
+    /**
+     * 获取线程池名 ( 线程名前缀 )
+     *
+     * @return 线程池名
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * 设置线程池名 ( 线程名前缀 )
+     *
+     * @param name 线程池名
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setName(final String name) {
+        this.mName = name;
+        return this;
+    }
+
+    /**
+     * 获取核心线程数
+     *
+     * @return 核心线程数
+     */
+    public int getCorePoolSize() {
+        return mCorePoolSize;
+    }
+
+    /**
+     * 获取最大线程数
+     *
+     * @return 最大线程数
+     */
+    public int getMaximumPoolSize() {
+        return mMaximumPoolSize;
+    }
+
+    /**
+     * 获取空闲线程存活时间 ( 毫秒 )
+     *
+     * @return 空闲线程存活时间
+     */
+    public long getKeepAliveTime() {
+        return mKeepAliveTime;
+    }
+
+    /**
+     * 设置空闲线程存活时间 ( 毫秒 )
+     *
+     * @param keepAliveTime 空闲线程存活时间
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setKeepAliveTime(final long keepAliveTime) {
+        this.mKeepAliveTime = Math.max(keepAliveTime, 0L);
+        return this;
+    }
+
+    /**
+     * 获取队列容量
+     *
+     * @return 队列容量
+     */
+    public int getQueueCapacity() {
+        return mQueueCapacity;
+    }
+
+    /**
+     * 设置队列容量
+     *
+     * @param queueCapacity 队列容量 ( 0 直接移交, 小于 0 无界 )
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setQueueCapacity(final int queueCapacity) {
+        this.mQueueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * 获取拒绝策略
+     *
+     * @return {@link RejectPolicy}
+     */
+    public RejectPolicy getRejectPolicy() {
+        return mRejectPolicy;
+    }
+
+    /**
+     * 设置拒绝策略
+     *
+     * @param rejectPolicy {@link RejectPolicy}
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setRejectPolicy(final RejectPolicy rejectPolicy) {
+        this.mRejectPolicy = rejectPolicy != null ? rejectPolicy : RejectPolicy.ABORT;
+        return this;
+    }
+
+    /**
+     * 是否允许核心线程超时回收
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isAllowCoreThreadTimeOut() {
+        return mAllowCoreThreadTimeOut;
+    }
+
+    /**
+     * 设置是否允许核心线程超时回收
+     *
+     * @param allowCoreThreadTimeOut 是否允许核心线程超时回收
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setAllowCoreThreadTimeOut(final boolean allowCoreThreadTimeOut) {
+        this.mAllowCoreThreadTimeOut = allowCoreThreadTimeOut;
+        return this;
+    }
+
+    /**
+     * 是否守护线程
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isDaemon() {
+        return mDaemon;
+    }
+
+    /**
+     * 设置是否守护线程
+     *
+     * @param daemon 是否守护线程
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setDaemon(final boolean daemon) {
+        this.mDaemon = daemon;
+        return this;
+    }
+
+    /**
+     * 获取线程优先级
+     *
+     * @return 线程优先级
+     */
+    public int getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * 设置线程优先级
+     *
+     * @param priority 线程优先级
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setPriority(final int priority) {
+        this.mPriority = priority;
+        return this;
+    }
+
+    /**
+     * 是否使用工作窃取线程池
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isWorkStealing() {
+        return mWorkStealing;
+    }
+
+    /**
+     * 设置是否使用工作窃取线程池
+     *
+     * @param workStealing 是否使用工作窃取线程池
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setWorkStealing(final boolean workStealing) {
+        this.mWorkStealing = workStealing;
+        return this;
+    }
+
+    /**
+     * 是否使用虚拟线程
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    public boolean isVirtual() {
+        return mVirtual;
+    }
+
+    /**
+     * 设置是否使用虚拟线程 ( 运行环境不支持时按其余配置创建 )
+     *
+     * @param virtual 是否使用虚拟线程
+     *
+     * @return {@link ThreadPoolConfig}
+     */
+    public ThreadPoolConfig setVirtual(final boolean virtual) {
+        this.mVirtual = virtual;
+        return this;
+    }
+
+    // ==========
+    // = 创建处理 =
+    // ==========
+
+    /**
+     * 创建线程池
+     *
+     * @return {@link ExecutorService}
+     */
+    ExecutorService createExecutor() {
+        if (mVirtual) {
+            ExecutorService executor = createVirtualExecutor(mName);
+            if (executor != null) {
+                return executor;
+            }
+        }
+        NamedThreadFactory factory = new NamedThreadFactory(mName, mDaemon, mPriority);
+        if (mWorkStealing) {
+            return new ForkJoinPool(mMaximumPoolSize, factory, null, true);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            mCorePoolSize, mMaximumPoolSize, mKeepAliveTime, TimeUnit.MILLISECONDS,
+            createQueue(), factory, createRejectHandler()
+        );
+        if (mAllowCoreThreadTimeOut && mKeepAliveTime > 0L) {
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * 运行环境是否支持虚拟线程
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    static boolean isVirtualThreadSupported() {
+        return VirtualHolder.SUPPORTED;
+    }
+
+    /**
+     * 创建虚拟线程线程池 ( 每个任务一个虚拟线程 )
+     * <pre>
+     *     编译目标为 Java 8, 通过反射调用 Thread.ofVirtual()、Executors.newThreadPerTaskExecutor()
+     * </pre>
+     *
+     * @param name 线程名前缀
+     *
+     * @return {@link ExecutorService}, 不支持返回 null
+     */
+    static ExecutorService createVirtualExecutor(final String name) {
+        if (!isVirtualThreadSupported()) {
+            return null;
+        }
+        try {
+            Object builder = VirtualHolder.OF_VIRTUAL.invoke(null);
+            builder = VirtualHolder.BUILDER_NAME.invoke(builder, (name != null ? name : "virtual") + "-", 1L);
+            Object factory = VirtualHolder.BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) VirtualHolder.NEW_THREAD_PER_TASK.invoke(null, factory);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 虚拟线程反射方法 ( 首次使用时加载 )
+     * <pre>
+     *     JDK 19/20 未开启 --enable-preview 时方法存在但调用抛出 UnsupportedOperationException
+     *     因此加载时实际创建一次 ThreadFactory 及线程, 成功才视为支持
+     * </pre>
+     */
+    private static final class VirtualHolder {
+
+        /** Thread.ofVirtual() */
+        static final Method OF_VIRTUAL;
+        /** Thread.Builder.name(String, long) */
+        static final Method BUILDER_NAME;
+        /** Thread.Builder.factory() */
+        static final Method BUILDER_FACTORY;
+        /** Executors.newThreadPerTaskExecutor(ThreadFactory) */
+        static final Method NEW_THREAD_PER_TASK;
+        /** 是否支持虚拟线程 */
+        static final boolean SUPPORTED;
+
+        static {
+            Method  ofVirtual = null, builderName = null, builderFactory = null, newThreadPerTask = null;
+            boolean supported = false;
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                builderName = builderClass.getMethod("name", String.class, long.class);
+                builderFactory = builderClass.getMethod("factory");
+                newThreadPerTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                // 实际创建 ThreadFactory 及线程 ( 不启动 ), 预览特性未开启时在此抛出异常
+                ThreadFactory factory = (ThreadFactory) builderFactory.invoke(ofVirtual.invoke(null));
+                supported = factory.newThread(new Runnable() {
+                    @Override
+                    public void run() {
+                    }
+                }) != null;
+            } catch (Throwable ignore) {
+                supported = false;
+            }
+            OF_VIRTUAL = ofVirtual;
+            BUILDER_NAME = builderName;
+            BUILDER_FACTORY = builderFactory;
+            NEW_THREAD_PER_TASK = newThreadPerTask;
+            SUPPORTED = supported;
+        }
+    }
+
+    /**
+     * 创建任务队列
+     *
+     * @return {@link BlockingQueue}
+     */
+    private BlockingQueue<Runnable> createQueue() {
+        if (mQueueCapacity == 0) {
+            return new SynchronousQueue<>();
+        } else if (mQueueCapacity < 0) {
+            return new LinkedBlockingQueue<>();
+        }
+        return new ArrayBlockingQueue<>(mQueueCapacity);
+    }
+
+    /**
+     * 创建拒绝策略处理
+     *
+     * @return {@link RejectedExecutionHandler}
+     */
+    private RejectedExecutionHandler createRejectHandler() {
+        switch (mRejectPolicy) {
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD:
+                return new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST:
+                return new ThreadPoolExecutor.DiscardOldestPolicy();
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
+    }
+}
@@ -14,6 +14,8 @@ public final class ThreadPoolManager {
     private ThreadPoolManager() {
     }
 
+    /** 默认通用线程池 key */
+    private static final String DEV_KEY = "dev";
     /** 默认通用线程池 ( 通过 CPU 自动处理 ) */
     private static final ThreadPool DEV_THREAD_POOL = new ThreadPool(ThreadPool.ThreadPoolType.CALC_CPU);
     /** 线程池数据 */
@@ -44,7 +46,7 @@ public final class ThreadPoolManager {
     /**
      * 获取 ThreadManager 实例
      *
-     * @param key 线程配置 key {@link ThreadPool.ThreadPoolType} or int-Integer
+     * @param key 线程配置 key {@link ThreadPool.ThreadPoolType}, {@link ThreadPoolConfig} or int-Integer
      *
      * @return {@link ThreadPool}
      */
@@ -60,6 +62,8 @@ public final class ThreadPoolManager {
                 // 判断是否属于线程池类型
                 if (object instanceof ThreadPool.ThreadPoolType) {
                     threadPool = new ThreadPool((ThreadPool.ThreadPoolType) object);
+                } else if (object instanceof ThreadPoolConfig) {
+                    threadPool = new ThreadPool((ThreadPoolConfig) object);
                 } else if (object instanceof Integer) {
                     threadPool = new ThreadPool((Integer) object);
                 } else { // 其他类型, 统一转换 Integer
@@ -108,4 +112,36 @@ public final class ThreadPoolManager {
     public static void removeConfig(final String key) {
         CONFIG_MAPS.remove(key);
     }
-}
\ No newline at end of file
+
+    // =
+
+    /**
+     * 获取全部已开启监控统计的线程池数据快照
+     *
+     * @return 线程池 key - {@link ThreadPoolMetrics.Snapshot}
+     */
+    public static synchronized Map<String, ThreadPoolMetrics.Snapshot> getMetricsSnapshots() {
+        Map<String, ThreadPoolMetrics.Snapshot> snapshots = new LinkedHashMap<>();
+        ThreadPoolMetrics.Snapshot devSnapshot = DEV_THREAD_POOL.getMetricsSnapshot();
+        if (devSnapshot != null) {
+            snapshots.put(DEV_KEY, devSnapshot);
+        }
+        for (Map.Entry<String, ThreadPool> entry : THREAD_POOL_MAP.entrySet()) {
+            ThreadPoolMetrics.Snapshot snapshot = entry.getValue().getMetricsSnapshot();
+            if (snapshot != null) {
+                snapshots.put(entry.getKey(), snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 开启全部线程池监控统计 ( 包含默认通用线程池, 统计名为线程池 key )
+     */
+    public static synchronized void enableMetrics() {
+        DEV_THREAD_POOL.enableMetrics(DEV_KEY);
+        for (Map.Entry<String, ThreadPool> entry : THREAD_POOL_MAP.entrySet()) {
+            entry.getValue().enableMetrics(entry.getKey());
+        }
+    }
+}
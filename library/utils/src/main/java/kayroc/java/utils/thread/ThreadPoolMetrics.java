@@ -0,0 +1,512 @@
+package kayroc.java.utils.thread;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程池监控统计
+ *
+ * @author kayroc
+ * <pre>
+ *     通过 {@link ThreadPool#enableMetrics(String)} 开启, 开启后提交的任务会被包装以记录:
+ *     排队等待耗时、执行耗时 ( 直方图 )、提交数、完成数、失败数、拒绝数、吞吐量
+ *     未开启时 ThreadPool 仅多一次 null 判断, 不包装任务
+ *     <p></p>
+ *     通过 {@link #snapshot()} 获取当前数据快照, 可定时采集上报
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class ThreadPoolMetrics {
+
+    /** 线程池名 */
+    private final String           mName;
+    /** 线程池对象 */
+    private final ExecutorService  mExecutor;
+    /** 排队等待耗时 ( 纳秒 ) */
+    private final LatencyHistogram mWaitHistogram = new LatencyHistogram();
+    /** 执行耗时 ( 纳秒 ) */
+    private final LatencyHistogram mRunHistogram  = new LatencyHistogram();
+    /** 提交数 */
+    private final AtomicLong       mSubmitted     = new AtomicLong();
+    /** 完成数 ( 含失败 ) */
+    private final AtomicLong       mCompleted     = new AtomicLong();
+    /** 失败数 */
+    private final AtomicLong       mFailed        = new AtomicLong();
+    /** 拒绝数 */
+    private final AtomicLong       mRejected      = new AtomicLong();
+    /** 统计开始时间 ( 纳秒 ) */
+    private volatile long          mStartNanos    = System.nanoTime();
+
+    /**
+     * 构造函数
+     *
+     * @param name     线程池名
+     * @param executor {@link ExecutorService}
+     */
+    ThreadPoolMetrics(
+        final String name,
+        final ExecutorService executor
+    ) {
+        this.mName = name;
+        this.mExecutor = executor;
+        // 包装拒绝策略, 统计拒绝数 ( 含 CallerRuns、Discard 等不抛异常的策略 )
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
+            synchronized (tpe) {
+                RejectedExecutionHandler handler = tpe.getRejectedExecutionHandler();
+                if (handler instanceof CountingRejectedHandler) {
+                    // 已包装 ( 重复开启或多个 ThreadPool 共用线程池 ), 改为统计至当前对象
+                    ((CountingRejectedHandler) handler).metrics = this;
+                } else {
+                    tpe.setRejectedExecutionHandler(new CountingRejectedHandler(handler, this));
+                }
+            }
+        }
+    }
+
+    /**
+     * 解除拒绝策略包装 ( 仅当前对象仍为统计目标时还原原拒绝策略 )
+     */
+    void detach() {
+        if (mExecutor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor) mExecutor;
+            synchronized (tpe) {
+                RejectedExecutionHandler handler = tpe.getRejectedExecutionHandler();
+                if (handler instanceof CountingRejectedHandler
+                    && ((CountingRejectedHandler) handler).metrics == this) {
+                    tpe.setRejectedExecutionHandler(((CountingRejectedHandler) handler).handler);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取线程池原拒绝策略 ( 去除统计包装 )
+     *
+     * @param executor {@link ThreadPoolExecutor}
+     *
+     * @return {@link RejectedExecutionHandler}
+     */
+    static RejectedExecutionHandler getRejectedHandler(final ThreadPoolExecutor executor) {
+        synchronized (executor) {
+            RejectedExecutionHandler handler = executor.getRejectedExecutionHandler();
+            if (handler instanceof CountingRejectedHandler) {
+                return ((CountingRejectedHandler) handler).handler;
+            }
+            return handler;
+        }
+    }
+
+    /**
+     * 替换线程池原拒绝策略 ( 保留统计包装 )
+     *
+     * @param executor {@link ThreadPoolExecutor}
+     * @param expect   期望的当前原拒绝策略
+     * @param update   新拒绝策略
+     *
+     * @return {@code true} 替换成功, {@code false} 原拒绝策略已变更
+     */
+    static boolean replaceRejectedHandler(
+        final ThreadPoolExecutor executor,
+        final RejectedExecutionHandler expect,
+        final RejectedExecutionHandler update
+    ) {
+        synchronized (executor) {
+            RejectedExecutionHandler handler = executor.getRejectedExecutionHandler();
+            if (handler instanceof CountingRejectedHandler) {
+                CountingRejectedHandler counting = (CountingRejectedHandler) handler;
+                if (counting.handler != expect) {
+                    return false;
+                }
+                counting.handler = update;
+            } else {
+                if (handler != expect) {
+                    return false;
+                }
+                executor.setRejectedExecutionHandler(update);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 获取统计包装前的原任务
+     *
+     * @param runnable 任务
+     *
+     * @return 原任务
+     */
+    static Runnable unwrap(final Runnable runnable) {
+        if (runnable instanceof ThreadPoolMetrics.MetricsRunnable) {
+            return ((ThreadPoolMetrics.MetricsRunnable) runnable).runnable;
+        }
+        return runnable;
+    }
+
+    // ==========
+    // = 任务包装 =
+    // ==========
+
+    /**
+     * 包装 Runnable 任务
+     *
+     * @param runnable 任务
+     *
+     * @return 包装后任务
+     */
+    Runnable wrap(final Runnable runnable) {
+        mSubmitted.incrementAndGet();
+        return new MetricsRunnable(runnable, System.nanoTime());
+    }
+
+    /**
+     * 包装 Callable 任务
+     *
+     * @param callable 任务
+     * @param <T>      泛型
+     *
+     * @return 包装后任务
+     */
+    <T> Callable<T> wrap(final Callable<T> callable) {
+        mSubmitted.incrementAndGet();
+        return new MetricsCallable<>(callable, System.nanoTime());
+    }
+
+    /**
+     * 记录任务开始执行
+     *
+     * @param enqueueNanos 提交时间 ( 纳秒 )
+     *
+     * @return 开始执行时间 ( 纳秒 )
+     */
+    private long onStart(final long enqueueNanos) {
+        long start = System.nanoTime();
+        mWaitHistogram.record(start - enqueueNanos);
+        return start;
+    }
+
+    /**
+     * 记录任务执行结束
+     *
+     * @param startNanos 开始执行时间 ( 纳秒 )
+     * @param failed     是否失败
+     */
+    private void onEnd(
+        final long startNanos,
+        final boolean failed
+    ) {
+        mRunHistogram.record(System.nanoTime() - startNanos);
+        mCompleted.incrementAndGet();
+        if (failed) {
+            mFailed.incrementAndGet();
+        }
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 获取线程池名
+     *
+     * @return 线程池名
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * 重置统计数据
+     */
+    public void reset() {
+        mWaitHistogram.reset();
+        mRunHistogram.reset();
+        mSubmitted.set(0L);
+        mCompleted.set(0L);
+        mFailed.set(0L);
+        mRejected.set(0L);
+        mStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取当前数据快照
+     *
+     * @return {@link Snapshot}
+     */
+    public Snapshot snapshot() {
+        int queueSize   = 0;
+        int activeCount = 0;
+        int poolSize    = 0;
+        if (mExecutor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor) mExecutor;
+            queueSize = tpe.getQueue().size();
+            activeCount = tpe.getActiveCount();
+            poolSize = tpe.getPoolSize();
+        } else if (mExecutor instanceof ForkJoinPool) {
+            ForkJoinPool fjp = (ForkJoinPool) mExecutor;
+            queueSize = (int) Math.min(
+                fjp.getQueuedSubmissionCount() + fjp.getQueuedTaskCount(), Integer.MAX_VALUE
+            );
+            activeCount = fjp.getActiveThreadCount();
+            poolSize = fjp.getPoolSize();
+        }
+        long completed = mCompleted.get();
+        long elapsed   = System.nanoTime() - mStartNanos;
+        double throughput = elapsed > 0L ? completed * 1000000000D / elapsed : 0D;
+        return new Snapshot(
+            mName, queueSize, activeCount, poolSize,
+            mSubmitted.get(), completed, mFailed.get(), mRejected.get(), throughput,
+            new Latency(mWaitHistogram), new Latency(mRunHistogram)
+        );
+    }
+
+    // ==========
+    // = 数据快照 =
+    // ==========
+
+    /**
+     * 线程池数据快照
+     *
+     * @author kayroc
+     */
+    public static final class Snapshot {
+
+        /** 线程池名 */
+        public final String  name;
+        /** 队列中等待任务数 */
+        public final int     queueSize;
+        /** 正在执行任务的线程数 */
+        public final int     activeCount;
+        /** 当前线程数 */
+        public final int     poolSize;
+        /** 提交数 */
+        public final long    submitted;
+        /** 完成数 ( 含失败 ) */
+        public final long    completed;
+        /** 失败数 */
+        public final long    failed;
+        /** 拒绝数 */
+        public final long    rejected;
+        /** 吞吐量 ( 完成数 / 秒, 自开启或重置起 ) */
+        public final double  throughput;
+        /** 排队等待耗时 */
+        public final Latency wait;
+        /** 执行耗时 */
+        public final Latency run;
+
+        Snapshot(
+            String name,
+            int queueSize,
+            int activeCount,
+            int poolSize,
+            long submitted,
+            long completed,
+            long failed,
+            long rejected,
+            double throughput,
+            Latency wait,
+            Latency run
+        ) {
+            this.name = name;
+            this.queueSize = queueSize;
+            this.activeCount = activeCount;
+            this.poolSize = poolSize;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.rejected = rejected;
+            this.throughput = throughput;
+            this.wait = wait;
+            this.run = run;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                "name='" + name + '\'' +
+                ", queueSize=" + queueSize +
+                ", activeCount=" + activeCount +
+                ", poolSize=" + poolSize +
+                ", submitted=" + submitted +
+                ", completed=" + completed +
+                ", failed=" + failed +
+                ", rejected=" + rejected +
+                ", throughput=" + throughput +
+                ", wait=" + wait +
+                ", run=" + run +
+                '}';
+        }
+    }
+
+    /**
+     * 耗时统计 ( 纳秒 )
+     *
+     * @author kayroc
+     */
+    public static final class Latency {
+
+        /** 记录次数 */
+        public final long   count;
+        /** 平均值 */
+        public final double mean;
+        /** 50 百分位 */
+        public final long   p50;
+        /** 90 百分位 */
+        public final long   p90;
+        /** 99 百分位 */
+        public final long   p99;
+        /** 99.9 百分位 */
+        public final long   p999;
+        /** 最大值 */
+        public final long   max;
+
+        Latency(final LatencyHistogram histogram) {
+            this.count = histogram.getCount();
+            this.mean = histogram.getMean();
+            this.p50 = histogram.getPercentile(50D);
+            this.p90 = histogram.getPercentile(90D);
+            this.p99 = histogram.getPercentile(99D);
+            this.p999 = histogram.getPercentile(99.9D);
+            this.max = histogram.getMax();
+        }
+
+        @Override
+        public String toString() {
+            return "Latency{" +
+                "count=" + count +
+                ", mean=" + mean +
+                ", p50=" + p50 +
+                ", p90=" + p90 +
+                ", p99=" + p99 +
+                ", p999=" + p999 +
+                ", max=" + max +
+                '}';
+        }
+    }
+
+    // ==========
+    // = 包装任务 =
+    // ==========
+
+    /**
+     * 统计 Runnable
+     */
+    private final class MetricsRunnable
+        implements Runnable {
+
+        private final Runnable runnable;
+        private final long     enqueueNanos;
+
+        MetricsRunnable(
+            final Runnable runnable,
+            final long enqueueNanos
+        ) {
+            this.runnable = runnable;
+            this.enqueueNanos = enqueueNanos;
+        }
+
+        @Override
+        public void run() {
+            long start = onStart(enqueueNanos);
+            boolean failed = true;
+            try {
+                runnable.run();
+                failed = isFailed(runnable);
+            } finally {
+                onEnd(start, failed);
+            }
+        }
+    }
+
+    /**
+     * 判断 Future 类任务是否执行失败
+     * <pre>
+     *     FutureTask 等会吞掉任务异常, 需通过执行结果判断
+     * </pre>
+     *
+     * @param runnable 任务
+     *
+     * @return {@code true} 失败, {@code false} 成功或非 Future 任务
+     */
+    private static boolean isFailed(final Runnable runnable) {
+        if (runnable instanceof Future) {
+            Future<?> future = (Future<?>) runnable;
+            if (future.isDone() && !future.isCancelled()) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    return true;
+                } catch (Exception ignore) {
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 统计 Callable
+     */
+    private final class MetricsCallable<T>
+        implements Callable<T> {
+
+        private final Callable<T> callable;
+        private final long        enqueueNanos;
+
+        MetricsCallable(
+            final Callable<T> callable,
+            final long enqueueNanos
+        ) {
+            this.callable = callable;
+            this.enqueueNanos = enqueueNanos;
+        }
+
+        @Override
+        public T call()
+            throws Exception {
+            long start = onStart(enqueueNanos);
+            boolean failed = true;
+            try {
+                T result = callable.call();
+                failed = false;
+                return result;
+            } finally {
+                onEnd(start, failed);
+            }
+        }
+    }
+
+    /**
+     * 拒绝统计处理
+     */
+    private static final class CountingRejectedHandler
+        implements RejectedExecutionHandler {
+
+        private volatile RejectedExecutionHandler handler;
+        private volatile ThreadPoolMetrics        metrics;
+
+        CountingRejectedHandler(
+            final RejectedExecutionHandler handler,
+            final ThreadPoolMetrics metrics
+        ) {
+            this.handler = handler;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void rejectedExecution(
+            final Runnable runnable,
+            final ThreadPoolExecutor executor
+        ) {
+            metrics.mRejected.incrementAndGet();
+            if (handler != null) {
+                handler.rejectedExecution(runnable, executor);
+            }
+        }
+    }
+}
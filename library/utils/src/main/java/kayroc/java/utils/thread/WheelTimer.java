@@ -0,0 +1,610 @@
+package kayroc.java.utils.thread;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间轮定时器 ( 共享 )
+ *
+ * @author kayroc
+ * <pre>
+ *     参考 Netty HashedWheelTimer:
+ *     单个工作线程按 tick 推进时间轮, 每个槽位为双向链表, 添加、取消均为 O(1)
+ *     到期任务交由提交时指定的 Executor 执行, 工作线程不执行任务代码
+ *     <p></p>
+ *     延迟精度为 tick 时长 ( 默认 10ms ), 适合大量超时、延迟任务, 不适合高精度定时
+ *     工作线程在首次调度时才创建, 没有待处理任务时挂起, 不会空转
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public final class WheelTimer {
+
+    /** 默认 tick 时长 ( 毫秒 ) */
+    public static final long DEFAULT_TICK_MILLIS = 10L;
+    /** 默认时间轮槽位数 */
+    public static final int  DEFAULT_WHEEL_SIZE  = 512;
+
+    /** 状态 - 未启动 */
+    private static final int STATE_INIT    = 0;
+    /** 状态 - 已启动 */
+    private static final int STATE_STARTED = 1;
+    /** 状态 - 已停止 */
+    private static final int STATE_STOPPED = 2;
+
+    /** 共享定时器 */
+    private static volatile WheelTimer      sDefault;
+    /** 未指定 Executor 时使用的执行线程池 */
+    private static volatile ExecutorService sFallbackExecutor;
+
+    /** 定时器名 ( 线程名 ) */
+    private final String                            mName;
+    /** tick 时长 ( 纳秒 ) */
+    private final long                              mTickNanos;
+    /** 时间轮 */
+    private final Bucket[]                          mWheel;
+    /** 槽位掩码 */
+    private final int                               mMask;
+    /** 待加入时间轮的任务 */
+    private final ConcurrentLinkedQueue<Timeout<?>> mPendingQueue   = new ConcurrentLinkedQueue<>();
+    /** 待移除的已取消任务 */
+    private final ConcurrentLinkedQueue<Timeout<?>> mCancelledQueue = new ConcurrentLinkedQueue<>();
+    /** 未到期任务数 */
+    private final AtomicLong                        mPendingCount   = new AtomicLong();
+    /** 定时器状态 */
+    private final AtomicInteger                     mState          = new AtomicInteger(STATE_INIT);
+    /** 挂起锁 */
+    private final Object                            mLock           = new Object();
+    /** 工作线程 */
+    private final Thread                            mWorker;
+    /** 开始时间 ( 纳秒 ) */
+    private volatile long                           mStartNanos;
+    /** 工作线程是否挂起 */
+    private volatile boolean                        mIdle;
+    /** 当前 tick ( 仅工作线程访问 ) */
+    private long                                    mTick;
+
+    /**
+     * 构造函数
+     *
+     * @param name       定时器名 ( 线程名 )
+     * @param tickMillis tick 时长 ( 毫秒 )
+     * @param wheelSize  时间轮槽位数 ( 向上取 2 的幂 )
+     */
+    public WheelTimer(
+        final String name,
+        final long tickMillis,
+        final int wheelSize
+    ) {
+        this.mName = name != null ? name : "WheelTimer";
+        this.mTickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(tickMillis, 1L));
+        int size = 1;
+        while (size < Math.max(wheelSize, 1) && size < (1 << 30)) {
+            size <<= 1;
+        }
+        this.mWheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            mWheel[i] = new Bucket();
+        }
+        this.mMask = size - 1;
+        this.mWorker = new Thread(new Worker(), mName);
+        this.mWorker.setDaemon(true);
+    }
+
+    /**
+     * 获取共享定时器 ( 首次调用时创建 )
+     *
+     * @return {@link WheelTimer}
+     */
+    public static WheelTimer getDefault() {
+        if (sDefault == null) {
+            synchronized (WheelTimer.class) {
+                if (sDefault == null) {
+                    sDefault = new WheelTimer("WheelTimer", DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+                }
+            }
+        }
+        return sDefault;
+    }
+
+    // ==========
+    // = 任务调度 =
+    // ==========
+
+    /**
+     * 延迟执行 Runnable 命令
+     *
+     * @param command  命令
+     * @param delay    延迟时间
+     * @param unit     时间单位
+     * @param executor 执行任务的 Executor ( null 则使用共享执行线程池 )
+     *
+     * @return {@link ScheduledFuture}
+     */
+    public ScheduledFuture<?> schedule(
+        final Runnable command,
+        final long delay,
+        final TimeUnit unit,
+        final Executor executor
+    ) {
+        if (command == null || unit == null) {
+            return null;
+        }
+        return add(new Timeout<Void>(command, null, executor, unit.toNanos(delay), 0L));
+    }
+
+    /**
+     * 延迟执行 Callable 命令
+     *
+     * @param callable 命令
+     * @param delay    延迟时间
+     * @param unit     时间单位
+     * @param executor 执行任务的 Executor ( null 则使用共享执行线程池 )
+     * @param <V>      泛型
+     *
+     * @return {@link ScheduledFuture}
+     */
+    public <V> ScheduledFuture<V> schedule(
+        final Callable<V> callable,
+        final long delay,
+        final TimeUnit unit,
+        final Executor executor
+    ) {
+        if (callable == null || unit == null) {
+            return null;
+        }
+        return add(new Timeout<>(callable, executor, unit.toNanos(delay), 0L));
+    }
+
+    /**
+     * 延迟并以固定频率循环执行命令 ( 上次执行未结束时不会重叠执行 )
+     *
+     * @param command      命令
+     * @param initialDelay 首次执行的延迟时间
+     * @param period       连续执行之间的周期
+     * @param unit         时间单位
+     * @param executor     执行任务的 Executor ( null 则使用共享执行线程池 )
+     *
+     * @return {@link ScheduledFuture}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(
+        final Runnable command,
+        final long initialDelay,
+        final long period,
+        final TimeUnit unit,
+        final Executor executor
+    ) {
+        if (command == null || unit == null || period <= 0L) {
+            return null;
+        }
+        return add(new Timeout<Void>(
+            command, null, executor, unit.toNanos(initialDelay), unit.toNanos(period)
+        ));
+    }
+
+    /**
+     * 延迟并以固定间隔循环执行命令
+     *
+     * @param command      命令
+     * @param initialDelay 首次执行的延迟时间
+     * @param delay        每一次执行终止和下一次执行开始之间的延迟
+     * @param unit         时间单位
+     * @param executor     执行任务的 Executor ( null 则使用共享执行线程池 )
+     *
+     * @return {@link ScheduledFuture}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        final Runnable command,
+        final long initialDelay,
+        final long delay,
+        final TimeUnit unit,
+        final Executor executor
+    ) {
+        if (command == null || unit == null || delay <= 0L) {
+            return null;
+        }
+        return add(new Timeout<Void>(
+            command, null, executor, unit.toNanos(initialDelay), -unit.toNanos(delay)
+        ));
+    }
+
+    // =============
+    // = 对外公开方法 =
+    // =============
+
+    /**
+     * 获取未到期任务数 ( 含尚未移除的已取消任务 )
+     *
+     * @return 未到期任务数
+     */
+    public long getPendingCount() {
+        return mPendingCount.get();
+    }
+
+    /**
+     * 停止定时器 ( 未到期任务将被取消 )
+     * <pre>
+     *     共享定时器 {@link #getDefault()} 不允许停止
+     * </pre>
+     */
+    public void stop() {
+        if (this == sDefault) {
+            return;
+        }
+        if (mState.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            mWorker.interrupt();
+        }
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 添加任务
+     *
+     * @param timeout 任务
+     * @param <V>     泛型
+     *
+     * @return 任务
+     */
+    private <V> Timeout<V> add(final Timeout<V> timeout) {
+        start();
+        if (mState.get() == STATE_STOPPED) {
+            timeout.cancel(false);
+            return timeout;
+        }
+        timeout.mDeadline = triggerTime(timeout.mDelay);
+        enqueue(timeout);
+        return timeout;
+    }
+
+    /**
+     * 计算触发时间 ( 相对 mStartNanos )
+     * <pre>
+     *     延迟上限为 Long.MAX_VALUE >> 1 ( 约 146 年 ), 避免超大延迟 ( 如 toNanos 饱和 ) 溢出后立即触发
+     * </pre>
+     *
+     * @param delay 延迟时间 ( 纳秒 )
+     *
+     * @return 触发时间 ( 纳秒 )
+     */
+    private long triggerTime(final long delay) {
+        return System.nanoTime() - mStartNanos + Math.min(Math.max(delay, 0L), Long.MAX_VALUE >> 1);
+    }
+
+    /**
+     * 加入待处理队列并唤醒工作线程
+     *
+     * @param timeout 任务
+     */
+    private void enqueue(final Timeout<?> timeout) {
+        mPendingCount.incrementAndGet();
+        mPendingQueue.add(timeout);
+        if (mIdle) {
+            synchronized (mLock) {
+                mLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 启动工作线程 ( 仅首次 )
+     */
+    private void start() {
+        if (mState.get() == STATE_INIT && mState.compareAndSet(STATE_INIT, STATE_STARTED)) {
+            mStartNanos = System.nanoTime();
+            mWorker.start();
+        }
+    }
+
+    /**
+     * 获取未指定 Executor 时使用的执行线程池
+     *
+     * @return {@link ExecutorService}
+     */
+    private static Executor getFallbackExecutor() {
+        if (sFallbackExecutor == null) {
+            synchronized (WheelTimer.class) {
+                if (sFallbackExecutor == null) {
+                    sFallbackExecutor = ThreadPoolConfig.cached("WheelTimer-exec")
+                        .setDaemon(true).createExecutor();
+                }
+            }
+        }
+        return sFallbackExecutor;
+    }
+
+    /**
+     * 工作线程
+     */
+    private final class Worker
+        implements Runnable {
+
+        @Override
+        public void run() {
+            while (mState.get() == STATE_STARTED) {
+                if (!awaitTimeouts()) {
+                    break;
+                }
+                long deadline = waitForNextTick();
+                if (deadline < 0L) {
+                    break;
+                }
+                processCancelled();
+                transferPending();
+                mWheel[(int) (mTick & mMask)].expire(deadline);
+                mTick++;
+            }
+            // 停止后取消全部未到期任务
+            for (Bucket bucket : mWheel) {
+                bucket.cancelAll();
+            }
+            Timeout<?> timeout;
+            while ((timeout = mPendingQueue.poll()) != null) {
+                timeout.cancel(false);
+            }
+        }
+
+        /**
+         * 无待处理任务时挂起
+         *
+         * @return {@code true} 继续运行, {@code false} 已停止
+         */
+        private boolean awaitTimeouts() {
+            if (mPendingCount.get() != 0L) {
+                return true;
+            }
+            synchronized (mLock) {
+                mIdle = true;
+                try {
+                    while (mPendingCount.get() == 0L && mState.get() == STATE_STARTED) {
+                        mLock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    return false;
+                } finally {
+                    mIdle = false;
+                }
+            }
+            // 挂起期间时间轮为空, 直接跳至当前 tick
+            mTick = Math.max(mTick, (System.nanoTime() - mStartNanos) / mTickNanos);
+            return mState.get() == STATE_STARTED;
+        }
+
+        /**
+         * 等待至下一个 tick
+         *
+         * @return 当前 tick 截止时间 ( 相对开始时间, 纳秒 ), 被停止返回 -1
+         */
+        private long waitForNextTick() {
+            long deadline = mTickNanos * (mTick + 1);
+            while (true) {
+                long current = System.nanoTime() - mStartNanos;
+                long sleepMillis = (deadline - current + 999999L) / 1000000L;
+                if (sleepMillis <= 0L) {
+                    return current;
+                }
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    if (mState.get() == STATE_STOPPED) {
+                        return -1L;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 移除已取消任务 ( O(1) )
+         */
+        private void processCancelled() {
+            Timeout<?> timeout;
+            while ((timeout = mCancelledQueue.poll()) != null) {
+                if (timeout.mBucket != null) {
+                    timeout.mBucket.remove(timeout);
+                    mPendingCount.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * 将待处理任务加入时间轮
+         */
+        private void transferPending() {
+            // 每个 tick 最多处理 100000 个, 防止添加过快导致工作线程无法推进
+            for (int i = 0; i < 100000; i++) {
+                Timeout<?> timeout = mPendingQueue.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.isCancelled()) {
+                    mPendingCount.decrementAndGet();
+                    continue;
+                }
+                long calculated = timeout.mDeadline / mTickNanos;
+                timeout.mRemainingRounds = (calculated - mTick) / mWheel.length;
+                long ticks = Math.max(calculated, mTick);
+                mWheel[(int) (ticks & mMask)].add(timeout);
+            }
+        }
+    }
+
+    /**
+     * 时间轮槽位 ( 双向链表, 仅工作线程访问 )
+     */
+    private final class Bucket {
+
+        private Timeout<?> head;
+        private Timeout<?> tail;
+
+        void add(final Timeout<?> timeout) {
+            timeout.mBucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.mNext = timeout;
+                timeout.mPrev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(final Timeout<?> timeout) {
+            Timeout<?> next = timeout.mNext;
+            if (timeout.mPrev != null) {
+                timeout.mPrev.mNext = next;
+            }
+            if (timeout.mNext != null) {
+                timeout.mNext.mPrev = timeout.mPrev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.mPrev;
+            }
+            timeout.mPrev = null;
+            timeout.mNext = null;
+            timeout.mBucket = null;
+        }
+
+        void expire(final long deadline) {
+            Timeout<?> timeout = head;
+            while (timeout != null) {
+                Timeout<?> next = timeout.mNext;
+                if (timeout.mRemainingRounds <= 0L) {
+                    if (timeout.mDeadline <= deadline) {
+                        remove(timeout);
+                        mPendingCount.decrementAndGet();
+                        timeout.dispatch();
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                    mPendingCount.decrementAndGet();
+                } else {
+                    timeout.mRemainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void cancelAll() {
+            Timeout<?> timeout = head;
+            while (timeout != null) {
+                Timeout<?> next = timeout.mNext;
+                remove(timeout);
+                mPendingCount.decrementAndGet();
+                timeout.cancel(false);
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * 定时任务
+     */
+    private final class Timeout<V>
+        extends FutureTask<V>
+        implements ScheduledFuture<V> {
+
+        /** 执行任务的 Executor */
+        private final Executor   mExecutor;
+        /** 首次延迟 ( 纳秒 ) */
+        private final long       mDelay;
+        /** 周期 ( 纳秒, 0 单次, 大于 0 固定频率, 小于 0 固定间隔 ) */
+        private final long       mPeriod;
+        /** 到期时间 ( 相对开始时间, 纳秒 ) */
+        private volatile long    mDeadline;
+        /** 剩余轮数 ( 仅工作线程访问 ) */
+        private long             mRemainingRounds;
+        /** 所在槽位 ( 仅工作线程访问 ) */
+        private Bucket           mBucket;
+        private Timeout<?>       mPrev;
+        private Timeout<?>       mNext;
+
+        Timeout(
+            final Runnable runnable,
+            final V result,
+            final Executor executor,
+            final long delay,
+            final long period
+        ) {
+            super(runnable, result);
+            this.mExecutor = executor;
+            this.mDelay = delay;
+            this.mPeriod = period;
+        }
+
+        Timeout(
+            final Callable<V> callable,
+            final Executor executor,
+            final long delay,
+            final long period
+        ) {
+            super(callable);
+            this.mExecutor = executor;
+            this.mDelay = delay;
+            this.mPeriod = period;
+        }
+
+        /**
+         * 到期后交由 Executor 执行
+         */
+        void dispatch() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                (mExecutor != null ? mExecutor : getFallbackExecutor()).execute(this);
+            } catch (RejectedExecutionException e) {
+                setException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (mPeriod == 0L) {
+                super.run();
+            } else if (runAndReset() && mState.get() == STATE_STARTED) {
+                // 执行结束后再计算下次时间, 保证不会重叠执行
+                if (mPeriod > 0L) {
+                    mDeadline += Math.min(mPeriod, Long.MAX_VALUE >> 1);
+                } else {
+                    mDeadline = triggerTime(-mPeriod);
+                }
+                enqueue(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                mCancelledQueue.add(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(mDeadline - (System.nanoTime() - mStartNanos), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+            return diff < 0L ? -1 : (diff > 0L ? 1 : 0);
+        }
+    }
+}
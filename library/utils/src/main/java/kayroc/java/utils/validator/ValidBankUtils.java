@@ -1,5 +1,7 @@
 package kayroc.java.utils.validator;
 
+import java.util.Arrays;
+
 import kayroc.android.utils.LogUtils;
 
 /**
@@ -37,19 +39,7 @@ public final class ValidBankUtils {
      */
     @SuppressWarnings("AlibabaUndefineMagicConstant")
     public static boolean checkBankCard(final String cardId) {
-        if (cardId == null || cardId.trim().length() == 0) {
-            return false;
-        }
-        try {
-            char bit = getBankCardCheckCode(cardId.substring(0, cardId.length() - 1));
-            if (bit == 'N') {
-                return false;
-            }
-            return (cardId.charAt(cardId.length() - 1) == bit);
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-            return false;
-        }
+        return isBankCard(cardId);
     }
 
     /**
@@ -61,23 +51,12 @@ public final class ValidBankUtils {
      */
     public static char getBankCardCheckCode(final String nonCheckCodeCardId) {
         try {
-            if (nonCheckCodeCardId == null
-                || nonCheckCodeCardId.trim().length() == 0
-                || !nonCheckCodeCardId.matches("\\d+")) {
+            int len = (nonCheckCodeCardId != null) ? nonCheckCodeCardId.length() : 0;
+            if (len == 0 || !isDigits(nonCheckCodeCardId, 0, len)) {
                 // 如果传的不是数据返回 N
                 return 'N';
             }
-            char[] chs = nonCheckCodeCardId.trim().toCharArray();
-            int luhnSum = 0;
-            int len = chs.length;
-            for (int i = len - 1, j = 0; i >= 0; i--, j++) {
-                int k = chs[i] - '0';
-                if (j % 2 == 0) {
-                    k *= 2;
-                    k = k / 10 + k % 10;
-                }
-                luhnSum += k;
-            }
+            int luhnSum = luhnSum(nonCheckCodeCardId, 0, len, true);
             return (luhnSum % 10 == 0) ? '0' : (char) ((10 - luhnSum % 10) + '0');
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
@@ -93,25 +72,228 @@ public final class ValidBankUtils {
      * @return 银行开户行及卡种
      */
     public static String getNameOfBank(final String cardBin) {
-        if (cardBin == null || cardBin.trim().length() < 6) {
+        if (cardBin == null) {
             return "";
         }
-        try {
-            // 通过银行卡的前六位确定
-            String cardBin6 = cardBin.trim().substring(0, 6);
-            int index = -1;
-            for (int i = 0, len = BANK_BIN.length; i < len; i++) {
-                if (cardBin6.equals(BANK_BIN[i])) {
-                    index = i;
+        return findNameOfBank(cardBin);
+    }
+
+    /**
+     * 批量校验银行卡卡号并获取银行开户行及卡种
+     * <pre>
+     *     Luhn 校验与 BIN 查找直接遍历字符, 不创建子字符串
+     *     valid[i] 与 {@link #checkBankCard(String)} 一致, bankNames[i] 与 {@link #getNameOfBank(String)} 一致
+     * </pre>
+     *
+     * @param cardIds   待校验银行卡号数组
+     * @param valid     校验结果输出数组
+     * @param bankNames 银行开户行及卡种输出数组, 传入 null 则不查找
+     *
+     * @return 校验通过数量
+     */
+    public static int checkBankCards(
+        final CharSequence[] cardIds,
+        final boolean[] valid,
+        final String[] bankNames
+    ) {
+        int length = cardIds.length;
+        if (valid.length < length || (bankNames != null && bankNames.length < length)) {
+            throw new IllegalArgumentException("Output arrays shorter than input array.");
+        }
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            CharSequence cardId = cardIds[i];
+            boolean      result = isBankCard(cardId);
+            valid[i] = result;
+            if (result) {
+                count++;
+            }
+            if (bankNames != null) {
+                bankNames[i] = (cardId != null) ? findNameOfBank(cardId) : "";
+            }
+        }
+        return count;
+    }
+
+    // ==========
+    // = 内部处理 =
+    // ==========
+
+    /**
+     * 校验银行卡卡号是否合法 ( 全部为数字且通过 Luhn 校验 )
+     *
+     * @param cardId 待校验银行卡号
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isBankCard(final CharSequence cardId) {
+        int len = (cardId != null) ? cardId.length() : 0;
+        // 至少一位卡号 + 一位校验位
+        return len >= 2 && isDigits(cardId, 0, len) && luhnSum(cardId, 0, len, false) % 10 == 0;
+    }
+
+    /**
+     * 通过银行卡的前几位确定银行开户行及卡种
+     * <pre>
+     *     去除首尾空白 ( 与 trim 一致, 不创建新字符串 ) 后按 BIN 号最长前缀匹配
+     * </pre>
+     *
+     * @param cardBin 待校验银行卡号
+     *
+     * @return 银行开户行及卡种
+     */
+    private static String findNameOfBank(final CharSequence cardBin) {
+        int start = 0;
+        int end   = cardBin.length();
+        while (start < end && cardBin.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && cardBin.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return BinIndex.INSTANCE.get(cardBin, start, end);
+    }
+
+    /**
+     * 是否全部为数字 ( 0 - 9 )
+     *
+     * @param content 内容
+     * @param start   开始位置
+     * @param end     结束位置
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean isDigits(
+        final CharSequence content,
+        final int start,
+        final int end
+    ) {
+        for (int i = start; i < end; i++) {
+            char c = content.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 计算 Luhn 校验和
+     *
+     * @param content    卡号 ( 需全部为数字 )
+     * @param start      开始位置
+     * @param end        结束位置
+     * @param doubleLast 末位是否乘以 2 ( 不含校验位时为 true )
+     *
+     * @return Luhn 校验和
+     */
+    private static int luhnSum(
+        final CharSequence content,
+        final int start,
+        final int end,
+        final boolean doubleLast
+    ) {
+        int     sum     = 0;
+        boolean doubled = doubleLast;
+        for (int i = end - 1; i >= start; i--) {
+            int k = content.charAt(i) - '0';
+            if (doubled) {
+                k *= 2;
+                if (k > 9) {
+                    k -= 9;
+                }
+            }
+            sum += k;
+            doubled = !doubled;
+        }
+        return sum;
+    }
+
+    /**
+     * BIN 号索引
+     * <pre>
+     *     按 BIN 号位数 ( 6 - 9 位 ) 分组, 每组为有序 int[], 二分查找
+     *     查找时按最长前缀匹配, 同一 BIN 号重复时与原遍历一致取最后一个
+     * </pre>
+     */
+    private static final class BinIndex {
+
+        /** 最短 BIN 号位数 */
+        static final int MIN_LENGTH = 6;
+        /** 最长 BIN 号位数 */
+        static final int MAX_LENGTH = 9;
+
+        /** BIN 号索引 ( 首次使用时生成 ) */
+        static final BinIndex INSTANCE = new BinIndex(BANK_BIN);
+
+        /** 各位数 BIN 号 ( 有序 ) */
+        private final int[][] mKeys  = new int[MAX_LENGTH - MIN_LENGTH + 1][];
+        /** 各位数 BIN 号对应 BANK_NAME 下标 */
+        private final int[][] mNames = new int[MAX_LENGTH - MIN_LENGTH + 1][];
+
+        BinIndex(final String[] bins) {
+            for (int length = MIN_LENGTH; length <= MAX_LENGTH; length++) {
+                // 高 32 位 BIN 号、低 32 位下标, 排序后相同 BIN 号下标最大的在最后
+                long[] entries = new long[bins.length];
+                int    count   = 0;
+                for (int i = 0; i < bins.length; i++) {
+                    String bin = bins[i];
+                    if (bin.length() == length && isDigits(bin, 0, length)) {
+                        entries[count++] = ((long) Integer.parseInt(bin) << 32) | i;
+                    }
                 }
+                Arrays.sort(entries, 0, count);
+                int[] keys  = new int[count];
+                int[] names = new int[count];
+                int   size  = 0;
+                for (int i = 0; i < count; i++) {
+                    int key = (int) (entries[i] >>> 32);
+                    if (size > 0 && keys[size - 1] == key) {
+                        size--;
+                    }
+                    keys[size] = key;
+                    names[size] = (int) entries[i];
+                    size++;
+                }
+                mKeys[length - MIN_LENGTH] = Arrays.copyOf(keys, size);
+                mNames[length - MIN_LENGTH] = Arrays.copyOf(names, size);
             }
-            if (index == -1) {
+        }
+
+        /**
+         * 查找银行开户行及卡种
+         *
+         * @param cardBin 银行卡号
+         * @param start   开始位置
+         * @param end     结束位置
+         *
+         * @return 银行开户行及卡种, 未找到返回 ""
+         */
+        String get(
+            final CharSequence cardBin,
+            final int start,
+            final int end
+        ) {
+            if (end - start < MIN_LENGTH) {
                 return "";
             }
-            return BANK_NAME[index];
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
-            return "";
+            String name  = "";
+            int    value = 0;
+            for (int length = 1, max = Math.min(end - start, MAX_LENGTH); length <= max; length++) {
+                char c = cardBin.charAt(start + length - 1);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                if (length >= MIN_LENGTH) {
+                    int group = length - MIN_LENGTH;
+                    int index = Arrays.binarySearch(mKeys[group], value);
+                    if (index >= 0) {
+                        name = BANK_NAME[mNames[group][index]];
+                    }
+                }
+            }
+            return name;
         }
     }
 
@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import kayroc.android.utils.LogUtils;
+import kayroc.java.utils.RegexUtils;
 import kayroc.java.utils.StringUtils;
 
 
@@ -32,8 +33,14 @@ public final class ValidIDCardUtils {
     public static final int CHINA_ID_MIN_LENGTH = 15;
     /** 身份证最大位数 */
     public static final int CHINA_ID_MAX_LENGTH = 18;
-    /** 省份编码 */
-    private static final Map<String, String> CITY_CODE_MAPS = new HashMap<>();
+    /** 18 位身份证校验位 ( 下标为加权和与 11 取模 ) */
+    private static final char[] CHECK_CODES = {
+        '1', '0', 'x', '9', '8', '7', '6', '5', '4', '3', '2'
+    };
+    /** 省份名称 ( 下标为省份编码 ) */
+    private static final String[] PROVINCE_NAMES = new String[100];
+    /** 当前年份缓存 */
+    private static volatile YearCache sYearCache;
     /** 台湾身份首字母对应数字 */
     private static final Map<String, Integer> TW_FIRST_CODE_MAPS = new HashMap<>();
     /** 香港身份首字母对应数字 */
@@ -41,42 +48,42 @@ public final class ValidIDCardUtils {
     private static final Map<String, Integer> HK_FIRST_CODE_MAPS = new HashMap<>();
 
     static {
-        CITY_CODE_MAPS.put("11", "北京");
-        CITY_CODE_MAPS.put("12", "天津");
-        CITY_CODE_MAPS.put("13", "河北");
-        CITY_CODE_MAPS.put("14", "山西");
-        CITY_CODE_MAPS.put("15", "内蒙古");
-        CITY_CODE_MAPS.put("21", "辽宁");
-        CITY_CODE_MAPS.put("22", "吉林");
-        CITY_CODE_MAPS.put("23", "黑龙江");
-        CITY_CODE_MAPS.put("31", "上海");
-        CITY_CODE_MAPS.put("32", "江苏");
-        CITY_CODE_MAPS.put("33", "浙江");
-        CITY_CODE_MAPS.put("34", "安徽");
-        CITY_CODE_MAPS.put("35", "福建");
-        CITY_CODE_MAPS.put("36", "江西");
-        CITY_CODE_MAPS.put("37", "山东");
-        CITY_CODE_MAPS.put("41", "河南");
-        CITY_CODE_MAPS.put("42", "湖北");
-        CITY_CODE_MAPS.put("43", "湖南");
-        CITY_CODE_MAPS.put("44", "广东");
-        CITY_CODE_MAPS.put("45", "广西");
-        CITY_CODE_MAPS.put("46", "海南");
-        CITY_CODE_MAPS.put("50", "重庆");
-        CITY_CODE_MAPS.put("51", "四川");
-        CITY_CODE_MAPS.put("52", "贵州");
-        CITY_CODE_MAPS.put("53", "云南");
-        CITY_CODE_MAPS.put("54", "西藏");
-        CITY_CODE_MAPS.put("61", "陕西");
-        CITY_CODE_MAPS.put("62", "甘肃");
-        CITY_CODE_MAPS.put("63", "青海");
-        CITY_CODE_MAPS.put("64", "宁夏");
-        CITY_CODE_MAPS.put("65", "新疆");
-        CITY_CODE_MAPS.put("71", "台湾");
-        CITY_CODE_MAPS.put("81", "香港");
-        CITY_CODE_MAPS.put("82", "澳门");
-        CITY_CODE_MAPS.put("83", "台湾");
-        CITY_CODE_MAPS.put("91", "国外");
+        PROVINCE_NAMES[11] = "北京";
+        PROVINCE_NAMES[12] = "天津";
+        PROVINCE_NAMES[13] = "河北";
+        PROVINCE_NAMES[14] = "山西";
+        PROVINCE_NAMES[15] = "内蒙古";
+        PROVINCE_NAMES[21] = "辽宁";
+        PROVINCE_NAMES[22] = "吉林";
+        PROVINCE_NAMES[23] = "黑龙江";
+        PROVINCE_NAMES[31] = "上海";
+        PROVINCE_NAMES[32] = "江苏";
+        PROVINCE_NAMES[33] = "浙江";
+        PROVINCE_NAMES[34] = "安徽";
+        PROVINCE_NAMES[35] = "福建";
+        PROVINCE_NAMES[36] = "江西";
+        PROVINCE_NAMES[37] = "山东";
+        PROVINCE_NAMES[41] = "河南";
+        PROVINCE_NAMES[42] = "湖北";
+        PROVINCE_NAMES[43] = "湖南";
+        PROVINCE_NAMES[44] = "广东";
+        PROVINCE_NAMES[45] = "广西";
+        PROVINCE_NAMES[46] = "海南";
+        PROVINCE_NAMES[50] = "重庆";
+        PROVINCE_NAMES[51] = "四川";
+        PROVINCE_NAMES[52] = "贵州";
+        PROVINCE_NAMES[53] = "云南";
+        PROVINCE_NAMES[54] = "西藏";
+        PROVINCE_NAMES[61] = "陕西";
+        PROVINCE_NAMES[62] = "甘肃";
+        PROVINCE_NAMES[63] = "青海";
+        PROVINCE_NAMES[64] = "宁夏";
+        PROVINCE_NAMES[65] = "新疆";
+        PROVINCE_NAMES[71] = "台湾";
+        PROVINCE_NAMES[81] = "香港";
+        PROVINCE_NAMES[82] = "澳门";
+        PROVINCE_NAMES[83] = "台湾";
+        PROVINCE_NAMES[91] = "国外";
         TW_FIRST_CODE_MAPS.put("A", 10);
         TW_FIRST_CODE_MAPS.put("B", 11);
         TW_FIRST_CODE_MAPS.put("C", 12);
@@ -127,8 +134,7 @@ public final class ValidIDCardUtils {
         // 属于数字, 并且长度为 15 位数
         if (isNumber(idCard) && idCard.length() == CHINA_ID_MIN_LENGTH) {
             // 获取省份编码
-            String provinceCode = idCard.substring(0, 2);
-            if (CITY_CODE_MAPS.get(provinceCode) == null) {
+            if (getProvinceName(idCard) == null) {
                 return false;
             }
             // 获取出生日期
@@ -161,28 +167,7 @@ public final class ValidIDCardUtils {
      * @return {@code true} yes, {@code false} no
      */
     public static boolean validateIdCard18(final String idCard) {
-        if (idCard != null && idCard.length() == CHINA_ID_MAX_LENGTH) {
-            // 前 17 位
-            String code17 = idCard.substring(0, 17);
-            // 第 18 位
-            String code18 = idCard.substring(17, CHINA_ID_MAX_LENGTH);
-            // 判断前 17 位是否数字
-            if (isNumber(code17)) {
-                try {
-                    int[] cardArrays = convertCharToInt(code17.toCharArray());
-                    int sum17 = getPowerSum(cardArrays);
-                    // 获取校验位
-                    String str = getCheckCode18(sum17);
-                    // 判断最后一位是否一样
-                    if (str.length() > 0 && str.equalsIgnoreCase(code18)) {
-                        return true;
-                    }
-                } catch (Exception e) {
-                    LogUtils.e(e.getMessage());
-                }
-            }
-        }
-        return false;
+        return idCard != null && idCard.length() == CHINA_ID_MAX_LENGTH && checkCode18(idCard);
     }
 
     /**
@@ -403,11 +388,12 @@ public final class ValidIDCardUtils {
             // 属于 18 位身份证才处理
             assert idCardStr != null;
             if (idCardStr.length() == CHINA_ID_MAX_LENGTH) {
-                String year = idCardStr.substring(6, 10);
-                // 获取当前年份
-                int currentYear = Calendar.getInstance().get(Calendar.YEAR);
-                // 当前年份 ( 出生年份 )
-                return currentYear - Integer.parseInt(year);
+                int year = parseDigits(idCardStr, 6, 10);
+                if (year == -1) {
+                    return 0;
+                }
+                // 当前年份 - 出生年份
+                return getCurrentYear() - year;
             }
         } catch (Exception e) {
             LogUtils.e(e.getMessage());
@@ -538,25 +524,27 @@ public final class ValidIDCardUtils {
         if (StringUtils.isEmpty(idCard)) {
             return null;
         }
-        try {
-            String idCardStr = idCard;
-            // 属于 15 位身份证, 则转换为 18 位
-            if (idCardStr.length() == CHINA_ID_MIN_LENGTH) {
-                idCardStr = convert15CardTo18(idCard);
-            }
-            // 属于 18 位身份证才处理
-            assert idCardStr != null;
-            if (idCardStr.length() == CHINA_ID_MAX_LENGTH) {
-                // 获取第 17 位性别信息
-                String cardNumber = idCardStr.substring(16, 17);
-                // 奇数为男, 偶数为女
-                return (Integer.parseInt(cardNumber) % 2 == 0) ? "F" : "M";
-            }
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
+        int index;
+        switch (idCard.length()) {
+            case CHINA_ID_MIN_LENGTH:
+                // 15 位身份证转换 18 位后的第 17 位, 即第 15 位
+                index = RegexUtils.isNumber(idCard) ? 14 : -1;
+                break;
+            case CHINA_ID_MAX_LENGTH:
+                // 第 17 位性别信息
+                index = 16;
+                break;
+            default:
+                index = -1;
+                break;
+        }
+        int digit = (index != -1) ? parseDigits(idCard, index, index + 1) : -1;
+        if (digit == -1) {
+            // 默认未知
+            return "N";
         }
-        // 默认未知
-        return "N";
+        // 奇数为男, 偶数为女
+        return (digit % 2 == 0) ? "F" : "M";
     }
 
     /**
@@ -570,15 +558,11 @@ public final class ValidIDCardUtils {
         if (StringUtils.isEmpty(idCard)) {
             return null;
         }
-        try {
-            // 身份证长度
-            int idCardLength = idCard.length();
-            // 属于 15 位身份证、或 18 位身份证
-            if (idCardLength == CHINA_ID_MIN_LENGTH || idCardLength == CHINA_ID_MAX_LENGTH) {
-                return CITY_CODE_MAPS.get(idCard.substring(0, 2));
-            }
-        } catch (Exception e) {
-            LogUtils.e(e.getMessage());
+        // 身份证长度
+        int idCardLength = idCard.length();
+        // 属于 15 位身份证、或 18 位身份证
+        if (idCardLength == CHINA_ID_MIN_LENGTH || idCardLength == CHINA_ID_MAX_LENGTH) {
+            return getProvinceName(idCard);
         }
         return null;
     }
@@ -602,11 +586,7 @@ public final class ValidIDCardUtils {
         int sum = 0;
         if (powerLength == len) {
             for (int i = 0; i < len; i++) {
-                for (int j = 0; j < powerLength; j++) {
-                    if (i == j) {
-                        sum = sum + data[i] * POWER[j];
-                    }
-                }
+                sum = sum + data[i] * POWER[i];
             }
         }
         return sum;
@@ -647,10 +627,290 @@ public final class ValidIDCardUtils {
         return code;
     }
 
+    // ==========
+    // = 单次解析 =
+    // ==========
+
+    /**
+     * 解析身份证 ( 15、18 位 )
+     * <pre>
+     *     一次遍历完成校验并提取地区、出生日期、性别, 结果写入调用方复用的 {@link IdCardInfo}, 不产生中间字符串
+     *     18 位: 前 17 位为数字且校验位正确; 15 位: 全部为数字, 出生年份为 19xx
+     *     有效需同时满足: 校验通过、省份编码存在、出生日期为 1900 年至今年的有效日期
+     * </pre>
+     *
+     * @param idCard 身份证号码
+     * @param info   解析结果 ( 复用 )
+     *
+     * @return {@code true} 有效, {@code false} 无效
+     */
+    public static boolean parse(
+        final CharSequence idCard,
+        final IdCardInfo info
+    ) {
+        return parse(idCard, info, getCurrentYear());
+    }
+
+    /**
+     * 批量解析身份证 ( 15、18 位 )
+     * <pre>
+     *     所有号码复用同一个 {@link IdCardInfo}, 回调中需立即读取结果, 不可保存引用
+     * </pre>
+     *
+     * @param idCards  身份证号码数组
+     * @param callback 解析回调
+     *
+     * @return 有效数量
+     */
+    public static int parse(
+        final CharSequence[] idCards,
+        final ParseCallback callback
+    ) {
+        IdCardInfo info        = new IdCardInfo();
+        int        currentYear = getCurrentYear();
+        int        count       = 0;
+        for (int i = 0, len = idCards.length; i < len; i++) {
+            if (parse(idCards[i], info, currentYear)) {
+                count++;
+            }
+            if (callback != null) {
+                callback.onParsed(i, idCards[i], info);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 批量校验身份证 ( 15、18 位, 规则同 {@link #parse(CharSequence, IdCardInfo)} )
+     *
+     * @param idCards 身份证号码数组
+     * @param valid   校验结果输出数组
+     *
+     * @return 有效数量
+     */
+    public static int validate(
+        final CharSequence[] idCards,
+        final boolean[] valid
+    ) {
+        int length = idCards.length;
+        if (valid.length < length) {
+            throw new IllegalArgumentException("Output array shorter than input array.");
+        }
+        IdCardInfo info        = new IdCardInfo();
+        int        currentYear = getCurrentYear();
+        int        count       = 0;
+        for (int i = 0; i < length; i++) {
+            boolean result = parse(idCards[i], info, currentYear);
+            valid[i] = result;
+            if (result) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     // ==========
     // = 私有方法 =
     // ==========
 
+    /**
+     * 解析身份证 ( 15、18 位 )
+     *
+     * @param idCard      身份证号码
+     * @param info        解析结果 ( 复用 )
+     * @param currentYear 当前年份
+     *
+     * @return {@code true} 有效, {@code false} 无效
+     */
+    private static boolean parse(
+        final CharSequence idCard,
+        final IdCardInfo info,
+        final int currentYear
+    ) {
+        info.reset();
+        int length = (idCard != null) ? idCard.length() : 0;
+        if (length != CHINA_ID_MIN_LENGTH && length != CHINA_ID_MAX_LENGTH) {
+            return false;
+        }
+        boolean is18      = length == CHINA_ID_MAX_LENGTH;
+        // 18 位最后一位为校验位
+        int     digits    = is18 ? CHINA_ID_MAX_LENGTH - 1 : CHINA_ID_MIN_LENGTH;
+        // 出生年、月、日结束位置 ( 地区编码 6 位 + 年 4 / 2 位 + 月 2 位 + 日 2 位 )
+        int     yearEnd   = is18 ? 10 : 8;
+        int     monthEnd  = yearEnd + 2;
+        int     dayEnd    = monthEnd + 2;
+        int     region    = 0;
+        int     year      = 0;
+        int     month     = 0;
+        int     day       = 0;
+        int     digit     = 0;
+        int     sum       = 0;
+        for (int i = 0; i < digits; i++) {
+            char c = idCard.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            digit = c - '0';
+            if (is18) {
+                sum += digit * POWER[i];
+            }
+            if (i < 6) {
+                region = region * 10 + digit;
+            } else if (i < yearEnd) {
+                year = year * 10 + digit;
+            } else if (i < monthEnd) {
+                month = month * 10 + digit;
+            } else if (i < dayEnd) {
+                day = day * 10 + digit;
+            }
+        }
+        if (!is18) {
+            year += 1900;
+        }
+        // 最后一位数字为性别位 ( 18 位第 17 位、15 位第 15 位 ), 奇数为男, 偶数为女
+        char    gender    = (digit % 2 == 0) ? 'F' : 'M';
+        boolean checksum  = true;
+        if (is18) {
+            char code = CHECK_CODES[sum % 11];
+            char last = idCard.charAt(CHINA_ID_MAX_LENGTH - 1);
+            checksum = last == code || (code == 'x' && last == 'X');
+        }
+        String  province  = PROVINCE_NAMES[region / 10000];
+        boolean birthDate = year >= 1900 && year <= currentYear && month >= 1 && month <= 12
+            && day >= 1 && day <= getDaysOfMonth(year, month);
+        info.set(
+            length, checksum && province != null && birthDate, checksum,
+            region, province, year, month, day, gender
+        );
+        return info.isValid();
+    }
+
+    /**
+     * 校验 18 位身份证校验位 ( 前 17 位需为数字 )
+     *
+     * @param idCard 18 位身份证号码
+     *
+     * @return {@code true} yes, {@code false} no
+     */
+    private static boolean checkCode18(final CharSequence idCard) {
+        int sum = 0;
+        for (int i = 0; i < CHINA_ID_MAX_LENGTH - 1; i++) {
+            char c = idCard.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            sum += (c - '0') * POWER[i];
+        }
+        char code = CHECK_CODES[sum % 11];
+        char last = idCard.charAt(CHINA_ID_MAX_LENGTH - 1);
+        return last == code || (code == 'x' && last == 'X');
+    }
+
+    /**
+     * 获取省份名称 ( 前 2 位省份编码 )
+     *
+     * @param idCard 身份证号码
+     *
+     * @return 省份名称, 不存在返回 null
+     */
+    private static String getProvinceName(final CharSequence idCard) {
+        int code = parseDigits(idCard, 0, 2);
+        return (code != -1) ? PROVINCE_NAMES[code] : null;
+    }
+
+    /**
+     * 解析数字
+     *
+     * @param content 内容
+     * @param start   开始位置
+     * @param end     结束位置
+     *
+     * @return 数值, 存在非数字字符返回 -1
+     */
+    private static int parseDigits(
+        final CharSequence content,
+        final int start,
+        final int end
+    ) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = content.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 获取月份天数
+     *
+     * @param year  年
+     * @param month 月 ( 1-12 )
+     *
+     * @return 月份天数
+     */
+    private static int getDaysOfMonth(
+        final int year,
+        final int month
+    ) {
+        switch (month) {
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            case 2:
+                return ((year % 4 == 0 && year % 100 != 0) || (year % 400 == 0)) ? 29 : 28;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 获取当前年份 ( 缓存至下一年开始, 避免每次创建 Calendar )
+     *
+     * @return 当前年份
+     */
+    private static int getCurrentYear() {
+        YearCache cache = sYearCache;
+        long      now   = System.currentTimeMillis();
+        if (cache == null || now >= cache.expire || now < cache.start) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(now);
+            int year = calendar.get(Calendar.YEAR);
+            calendar.clear();
+            calendar.set(year, Calendar.JANUARY, 1);
+            long start = calendar.getTimeInMillis();
+            calendar.add(Calendar.YEAR, 1);
+            cache = new YearCache(year, start, calendar.getTimeInMillis());
+            sYearCache = cache;
+        }
+        return cache.year;
+    }
+
+    /**
+     * 当前年份缓存
+     */
+    private static final class YearCache {
+
+        final int  year;
+        final long start;
+        final long expire;
+
+        YearCache(
+            final int year,
+            final long start,
+            final long expire
+        ) {
+            this.year = year;
+            this.start = start;
+            this.expire = expire;
+        }
+    }
+
+
     /**
      * 将字符数组转换成数字数组
      *
@@ -693,7 +953,7 @@ public final class ValidIDCardUtils {
         final int monthData,
         final int dayData
     ) {
-        int year = Calendar.getInstance().get(Calendar.YEAR);
+        int year = getCurrentYear();
         int datePerMonth;
         int MIN = 1930;
         if (yearData < MIN || yearData >= year) {
@@ -727,6 +987,215 @@ public final class ValidIDCardUtils {
      * @return {@code true} yes, {@code false} no
      */
     private static boolean isNumber(final String str) {
-        return !StringUtils.isEmpty(str) && str.matches("^[0-9]*$");
+        return RegexUtils.isNumber(str);
+    }
+
+    // ========
+    // = 实体类 =
+    // ========
+
+    /**
+     * 身份证解析结果
+     *
+     * @author kayroc
+     * <pre>
+     *     可变对象, 用于 {@link #parse(CharSequence, IdCardInfo)} 复用, 避免批量解析时逐条创建对象
+     * </pre>
+     */
+    public static final class IdCardInfo {
+
+        /** 身份证位数 ( 15、18, 无法解析为 0 ) */
+        private int     mLength;
+        /** 是否有效 */
+        private boolean mValid;
+        /** 校验位是否正确 ( 15 位无校验位, 数字格式正确即为 true ) */
+        private boolean mChecksumValid;
+        /** 地区编码 ( 前 6 位 ) */
+        private int     mRegionCode;
+        /** 省份名称 */
+        private String  mProvince;
+        /** 出生年 */
+        private int     mBirthYear;
+        /** 出生月 */
+        private int     mBirthMonth;
+        /** 出生日 */
+        private int     mBirthDay;
+        /** 性别 男 (M)、女 (F)、未知 (N) */
+        private char    mGender = 'N';
+
+        /**
+         * 重置解析结果
+         */
+        void reset() {
+            set(0, false, false, 0, null, 0, 0, 0, 'N');
+        }
+
+        /**
+         * 设置解析结果
+         *
+         * @param length        身份证位数
+         * @param valid         是否有效
+         * @param checksumValid 校验位是否正确
+         * @param regionCode    地区编码
+         * @param province      省份名称
+         * @param birthYear     出生年
+         * @param birthMonth    出生月
+         * @param birthDay      出生日
+         * @param gender        性别
+         */
+        void set(
+            final int length,
+            final boolean valid,
+            final boolean checksumValid,
+            final int regionCode,
+            final String province,
+            final int birthYear,
+            final int birthMonth,
+            final int birthDay,
+            final char gender
+        ) {
+            this.mLength = length;
+            this.mValid = valid;
+            this.mChecksumValid = checksumValid;
+            this.mRegionCode = regionCode;
+            this.mProvince = province;
+            this.mBirthYear = birthYear;
+            this.mBirthMonth = birthMonth;
+            this.mBirthDay = birthDay;
+            this.mGender = gender;
+        }
+
+        /**
+         * 获取身份证位数
+         *
+         * @return 身份证位数 ( 15、18, 无法解析为 0 )
+         */
+        public int getLength() {
+            return mLength;
+        }
+
+        /**
+         * 是否有效
+         *
+         * @return {@code true} yes, {@code false} no
+         */
+        public boolean isValid() {
+            return mValid;
+        }
+
+        /**
+         * 校验位是否正确
+         *
+         * @return {@code true} yes, {@code false} no
+         */
+        public boolean isChecksumValid() {
+            return mChecksumValid;
+        }
+
+        /**
+         * 获取地区编码
+         *
+         * @return 地区编码 ( 前 6 位 )
+         */
+        public int getRegionCode() {
+            return mRegionCode;
+        }
+
+        /**
+         * 获取省份编码
+         *
+         * @return 省份编码 ( 前 2 位 )
+         */
+        public int getProvinceCode() {
+            return mRegionCode / 10000;
+        }
+
+        /**
+         * 获取省份名称
+         *
+         * @return 省份名称, 不存在返回 null
+         */
+        public String getProvince() {
+            return mProvince;
+        }
+
+        /**
+         * 获取出生年
+         *
+         * @return 出生年
+         */
+        public int getBirthYear() {
+            return mBirthYear;
+        }
+
+        /**
+         * 获取出生月
+         *
+         * @return 出生月
+         */
+        public int getBirthMonth() {
+            return mBirthMonth;
+        }
+
+        /**
+         * 获取出生日
+         *
+         * @return 出生日
+         */
+        public int getBirthDay() {
+            return mBirthDay;
+        }
+
+        /**
+         * 获取出生日期
+         *
+         * @return 出生日期 ( yyyyMMdd 数值, 如 19900101 )
+         */
+        public int getBirthDate() {
+            return mBirthYear * 10000 + mBirthMonth * 100 + mBirthDay;
+        }
+
+        /**
+         * 获取性别
+         *
+         * @return 性别 男 (M)、女 (F)、未知 (N)
+         */
+        public String getGender() {
+            return (mGender == 'M') ? "M" : (mGender == 'F') ? "F" : "N";
+        }
+
+        /**
+         * 获取性别
+         *
+         * @return 性别 男 ('M')、女 ('F')、未知 ('N')
+         */
+        public char getGenderChar() {
+            return mGender;
+        }
+    }
+
+    // =======
+    // = 接口 =
+    // =======
+
+    /**
+     * 批量解析回调
+     *
+     * @author kayroc
+     */
+    public interface ParseCallback {
+
+        /**
+         * 解析完成
+         *
+         * @param index  下标
+         * @param idCard 身份证号码
+         * @param info   解析结果 ( 复用对象, 仅在回调内有效 )
+         */
+        void onParsed(
+            int index,
+            CharSequence idCard,
+            IdCardInfo info
+        );
     }
-}
\ No newline at end of file
+}
@@ -224,5 +224,14 @@ public final class ValidPhoneUtils {
          * 虚拟运营商: 170
          */
         CHINA_PHONE_PATTERN = "^13[\\d]{9}$|^14[5,6,7,8,9]{1}\\d{8}$|^15[^4]{1}\\d{8}$|^16[5,6]{1}\\d{8}$|^17[0,1,2,3,4,5,6,7,8]{1}\\d{8}$|^18[\\d]{9}$|^19[1,8,9]{1}\\d{8}$";
+
+        // 注册常驻正则, 只编译一次
+        RegexUtils.register(CHAIN_PHONE_FORMAT_CHECK);
+        RegexUtils.register(CHINA_PHONE_PATTERN);
+        RegexUtils.register(CHINA_TELECOM_PATTERN);
+        RegexUtils.register(CHINA_UNICOM_PATTERN);
+        RegexUtils.register(CHINA_MOBILE_PATTERN);
+        RegexUtils.register(HK_PHONE_PATTERN);
+        RegexUtils.register(PHONE_CALL_PATTERN);
     }
 }